@@ -0,0 +1,10 @@
+-- Runs once, when the replica's data directory is initialized: replicate everything from the
+-- mysql service by GTID auto-positioning, and refuse writes that do not come from replication
+CHANGE REPLICATION SOURCE TO
+    SOURCE_HOST = 'mysql',
+    SOURCE_USER = 'root',
+    SOURCE_PASSWORD = 'root',
+    SOURCE_AUTO_POSITION = 1,
+    GET_SOURCE_PUBLIC_KEY = 1;
+START REPLICA;
+SET PERSIST super_read_only = ON;
@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+#
+# Compare platform-thread and virtual-thread request handling under the same load.
+# Starts the packaged jar once per mode (JDK 21+), drives each endpoint with `hey`
+# and prints throughput, p99 latency and peak JVM thread count.
+#
+# Usage: scripts/load-test.sh [duration] [concurrency]
+#   ENDPOINTS="/staff/query?status=ACTIVE /departments/tree" scripts/load-test.sh 60s 500
+#
+# Requires MySQL/Redis (docker compose up -d), `mvn package -DskipTests` and hey
+# (https://github.com/rakyll/hey) on the PATH.
+
+set -euo pipefail
+
+DURATION=${1:-30s}
+CONCURRENCY=${2:-200}
+PORT=${PORT:-8080}
+BASE="http://localhost:${PORT}/api"
+ENDPOINTS=${ENDPOINTS:-"/staff/query?status=ACTIVE&size=50&count=false /staff/department/1?view=summary /departments/tree"}
+OUT=target/load-test
+
+JAR=$(ls target/staff-manage-back-*.jar 2>/dev/null | grep -v '\.original$' | head -n 1 || true)
+if [[ -z "${JAR}" ]]; then
+    echo "No jar in target/, run: mvn package -DskipTests" >&2
+    exit 1
+fi
+command -v hey >/dev/null || { echo "hey not found on PATH" >&2; exit 1; }
+mkdir -p "${OUT}"
+
+wait_ready() {
+    for _ in $(seq 1 120); do
+        if curl -sf "${BASE}/actuator/health" >/dev/null; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "Application did not become healthy, see ${OUT}/$1.log" >&2
+    return 1
+}
+
+peak_threads() {
+    curl -s "${BASE}/actuator/metrics/jvm.threads.peak" | sed -E 's/.*"value":([0-9.]+).*/\1/'
+}
+
+run_mode() {
+    local mode=$1 profiles=$2
+    java -jar "${JAR}" --server.port="${PORT}" --spring.profiles.active="${profiles}" \
+        --spring.jpa.show-sql=false > "${OUT}/${mode}.log" 2>&1 &
+    local pid=$!
+    trap "kill ${pid} 2>/dev/null || true" EXIT
+    wait_ready "${mode}"
+    
+    local i=0
+    for endpoint in ${ENDPOINTS}; do
+        i=$((i + 1))
+        # Warm up JIT, caches and connection pools before measuring
+        hey -z 5s -c "${CONCURRENCY}" "${BASE}${endpoint}" >/dev/null
+        hey -z "${DURATION}" -c "${CONCURRENCY}" "${BASE}${endpoint}" > "${OUT}/${mode}-${i}.txt"
+        local rps p99 errors
+        rps=$(awk '/Requests\/sec/ {print $2}' "${OUT}/${mode}-${i}.txt")
+        p99=$(awk '/ 99% in/ {printf "%.1f", $3 * 1000}' "${OUT}/${mode}-${i}.txt")
+        errors=$(awk '/^  \[[0-9]+\]/ && $1 != "[200]" {n += $2} END {print n + 0}' "${OUT}/${mode}-${i}.txt")
+        printf '%-9s %-55s %10s %10s %8s\n' "${mode}" "${endpoint}" "${rps}" "${p99}" "${errors}"
+    done
+    printf '%-9s %-55s peak threads: %s\n' "${mode}" "" "$(peak_threads)"
+    
+    kill "${pid}"
+    wait "${pid}" 2>/dev/null || true
+    trap - EXIT
+}
+
+printf '%-9s %-55s %10s %10s %8s\n' "mode" "endpoint" "req/s" "p99 ms" "non-200"
+run_mode platform default
+run_mode virtual virtual
+echo "Raw hey output and application logs: ${OUT}/"
@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+#
+# Compare startup time of the default profile, the prod (fast startup) profile and the prod
+# profile on a class data sharing (CDS) archive. For each mode prints the time Spring Boot
+# reports for "Started ...", the time until /actuator/health/readiness is UP (includes
+# cache warm-up) and the cache warm-up time.
+#
+# Usage: scripts/startup-time.sh [runs]
+#
+# Requires MySQL/Redis (docker compose up -d) and `mvn package -DskipTests`.
+
+set -euo pipefail
+
+RUNS=${1:-3}
+PORT=${PORT:-8080}
+BASE="http://localhost:${PORT}/api"
+OUT=target/startup-time
+EXPLODED=${OUT}/exploded
+
+JAR=$(ls target/staff-manage-back-*.jar 2>/dev/null | grep -v '\.original$' | head -n 1 || true)
+if [[ -z "${JAR}" ]]; then
+    echo "No jar in target/, run: mvn package -DskipTests" >&2
+    exit 1
+fi
+mkdir -p "${OUT}"
+
+# CDS needs a plain classpath, not the nested jars of the fat jar
+rm -rf "${EXPLODED}"
+mkdir -p "${EXPLODED}"
+JAR_PATH=$(realpath "${JAR}")
+(cd "${EXPLODED}" && jar -xf "${JAR_PATH}")
+CLASSPATH="${EXPLODED}/BOOT-INF/classes:${EXPLODED}/BOOT-INF/lib/*"
+MAIN_CLASS=com.school.staff.StaffManageApplication
+
+now_ms() {
+    date +%s%3N
+}
+
+# Training run: load the classes used during startup, then exit once the context is refreshed
+echo "Creating CDS archive ..."
+java -XX:ArchiveClassesAtExit="${OUT}/app.jsa" -Dspring.context.exit=onRefresh \
+    -cp "${CLASSPATH}" "${MAIN_CLASS}" --spring.profiles.active=prod > "${OUT}/cds-training.log" 2>&1 || true
+
+run_mode() {
+    local mode=$1 run=$2
+    shift 2
+    local log="${OUT}/${mode}-${run}.log" start
+    start=$(now_ms)
+    "$@" --server.port="${PORT}" > "${log}" 2>&1 &
+    local pid=$!
+    trap "kill ${pid} 2>/dev/null || true" EXIT
+    
+    local ready=""
+    for _ in $(seq 1 600); do
+        if curl -sf "${BASE}/actuator/health/readiness" >/dev/null; then
+            ready=$(( $(now_ms) - start ))
+            break
+        fi
+        sleep 0.1
+    done
+    local started warm_up
+    started=$(sed -nE 's/.*Started .* in ([0-9.]+) seconds.*/\1/p' "${log}" | head -n 1)
+    warm_up=$(sed -nE 's/.*Cache warm-up: .* in ([0-9]+) ms.*/\1/p' "${log}" | head -n 1)
+    printf '%-10s %4s %12s %12s %12s\n' "${mode}" "${run}" "${started:-?}" "${ready:-timeout}" "${warm_up:-?}"
+    
+    kill "${pid}"
+    wait "${pid}" 2>/dev/null || true
+    trap - EXIT
+}
+
+printf '%-10s %4s %12s %12s %12s\n' "mode" "run" "started s" "ready ms" "warm-up ms"
+for run in $(seq 1 "${RUNS}"); do
+    run_mode default "${run}" java -cp "${CLASSPATH}" "${MAIN_CLASS}"
+    run_mode prod "${run}" java -cp "${CLASSPATH}" "${MAIN_CLASS}" --spring.profiles.active=prod
+    run_mode prod-cds "${run}" java -XX:SharedArchiveFile="${OUT}/app.jsa" \
+        -cp "${CLASSPATH}" "${MAIN_CLASS}" --spring.profiles.active=prod
+done
+echo "Application logs: ${OUT}/"
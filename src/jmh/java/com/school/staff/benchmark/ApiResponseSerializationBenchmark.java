@@ -0,0 +1,60 @@
+package com.school.staff.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.staff.dto.ApiResponse;
+import com.school.staff.entity.Staff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson rendering of ApiResponse&lt;List&lt;Staff&gt;&gt; as the MVC message converter does it;
+ * "stream" writes to a discarding stream (serialization only), "bytes" also builds the byte array
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+    
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+    
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<Staff>> response;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Same module and date settings Spring Boot applies to its ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        response = ApiResponse.success(SampleData.staffList(rows, 50));
+        System.out.printf("%n[bytes] rows=%d bytes=%d%n", rows, objectMapper.writeValueAsBytes(response).length);
+    }
+    
+    @Benchmark
+    public void stream() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), response);
+    }
+    
+    @Benchmark
+    public byte[] bytes() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,69 @@
+package com.school.staff.benchmark;
+
+import com.school.staff.cache.CacheSerializers;
+import com.school.staff.cache.SerializationFormat;
+import com.school.staff.config.CacheProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache value encode/decode cost (ns/op) per codec; bytes per entry are printed at setup
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheSerializerBenchmark {
+    
+    /**
+     * Codec under test: json (current), kryo, kryo+lz4
+     */
+    @Param({"json", "kryo", "kryo-lz4"})
+    public String codec;
+    
+    /**
+     * "staff" is a single entry; "list" is 100 entries to exercise the compression threshold
+     */
+    @Param({"staff", "list"})
+    public String value;
+    
+    private RedisSerializer<Object> serializer;
+    private Object sample;
+    private byte[] encoded;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        CacheProperties.Codec settings = new CacheProperties.Codec();
+        settings.setFormat(codec.startsWith("kryo") ? SerializationFormat.KRYO : SerializationFormat.JSON);
+        settings.setCompress(codec.endsWith("lz4"));
+        serializer = CacheSerializers.create(settings, 1024);
+        sample = "list".equals(value) ? SampleData.staffList(100, 10) : SampleData.staff(42, SampleData.department(3));
+        encoded = serializer.serialize(sample);
+        System.out.printf("%n[bytes/entry] codec=%s value=%s bytes=%d%n", codec, value, encoded.length);
+    }
+    
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(sample);
+    }
+    
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(encoded);
+    }
+}
@@ -0,0 +1,173 @@
+package com.school.staff.benchmark;
+
+import com.school.staff.dto.StaffSummary;
+import com.school.staff.entity.Staff;
+import com.school.staff.repository.StaffRepository;
+import com.school.staff.repository.StaffSpecifications;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Staff repository finders against an in-memory H2 (MySQL mode) seeded with realistic data.
+ * Only the JPA layer is started - no web, Redis, R2DBC or application services.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+    
+    private static final int DEPARTMENTS = 50;
+    
+    @Param({"50000"})
+    public int staffCount;
+    
+    private ConfigurableApplicationContext context;
+    private StaffRepository staffRepository;
+    private Specification<Staff> activeLecturersInDepartment;
+    private long lookupId;
+    private String lookupStaffNo;
+    
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {RedisAutoConfiguration.class, RedisRepositoriesAutoConfiguration.class,
+            R2dbcAutoConfiguration.class})
+    @EntityScan("com.school.staff.entity")
+    @EnableJpaRepositories("com.school.staff.repository")
+    static class JpaOnly {
+    }
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(JpaOnly.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.config.name=benchmark",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        // schema.sql is a MySQL reference script
+                        "spring.sql.init.mode=never",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.open-in-view=false",
+                        "logging.level.root=WARN")
+                .run();
+        staffRepository = context.getBean(StaffRepository.class);
+        seed(context.getBean(JdbcTemplate.class));
+        
+        activeLecturersInDepartment = StaffSpecifications.departmentIn(Set.of(7L))
+                .and(StaffSpecifications.hasStatus("ACTIVE"))
+                .and(StaffSpecifications.hasPosition("Lecturer"));
+        lookupId = staffCount / 2;
+        lookupStaffNo = String.format("T%08d", lookupId);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    private void seed(JdbcTemplate jdbcTemplate) {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 6, 10, 0);
+        List<Object[]> departments = new ArrayList<>();
+        for (long d = 1; d <= DEPARTMENTS; d++) {
+            departments.add(new Object[] {"DEPT" + d, "学院 " + d, d <= 10 ? null : (d % 10) + 1,
+                    d <= 10 ? 1 : 2, true, Timestamp.valueOf(now), Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO departments (code, name, parent_id, level, is_active, created_at, "
+                + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)", departments);
+        
+        List<Object[]> staff = new ArrayList<>();
+        for (long i = 1; i <= staffCount; i++) {
+            staff.add(new Object[] {String.format("T%08d", i), SampleData.chineseName(i), i % 2 == 0 ? "男" : "女",
+                    Date.valueOf(LocalDate.of(1960 + (int) (i % 40), 1 + (int) (i % 12), 1 + (int) (i % 28))),
+                    String.format("138%08d", i), "staff" + i + "@school.edu.cn", (i % DEPARTMENTS) + 1,
+                    SampleData.position(i), Date.valueOf(LocalDate.of(2000 + (int) (i % 24), 9, 1)),
+                    SampleData.status(i), true, Timestamp.valueOf(now), Timestamp.valueOf(now)});
+            if (staff.size() == 1000 || i == staffCount) {
+                jdbcTemplate.batchUpdate("INSERT INTO staff (staff_no, name, gender, birth_date, phone, email, "
+                        + "department_id, position, hire_date, status, is_active, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", staff);
+                staff.clear();
+            }
+        }
+    }
+    
+    @Benchmark
+    public Optional<Staff> findById() {
+        return staffRepository.findById(lookupId);
+    }
+    
+    @Benchmark
+    public Optional<Staff> findByStaffNo() {
+        return staffRepository.findByStaffNo(lookupStaffNo);
+    }
+    
+    @Benchmark
+    public List<Staff> findByDepartmentId() {
+        return staffRepository.findByDepartmentId(7L);
+    }
+    
+    @Benchmark
+    public List<StaffSummary> findSummaryByDepartmentId() {
+        return staffRepository.findSummaryByDepartmentId(7L);
+    }
+    
+    @Benchmark
+    public List<Staff> findPageAfter() {
+        return staffRepository.findPageAfter(lookupId, PageRequest.of(0, 100));
+    }
+    
+    @Benchmark
+    public List<Staff> findByNameContaining() {
+        return staffRepository.findByNameContaining("建华");
+    }
+    
+    @Benchmark
+    public Slice<Staff> specificationSlice() {
+        return staffRepository.findSlice(activeLecturersInDepartment, PageRequest.of(2, 20, Sort.by("id")));
+    }
+    
+    @Benchmark
+    public Page<Staff> specificationPageWithCount() {
+        return staffRepository.findAll(activeLecturersInDepartment, PageRequest.of(2, 20, Sort.by("id")));
+    }
+}
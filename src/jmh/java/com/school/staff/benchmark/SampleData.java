@@ -0,0 +1,85 @@
+package com.school.staff.benchmark;
+
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Realistic staff/department fixtures shared by the benchmarks
+ */
+public final class SampleData {
+    
+    private static final String[] POSITIONS = {"Professor", "Associate Professor", "Lecturer", "Administrator"};
+    private static final String[] STATUSES = {"ACTIVE", "ON_LEAVE", "RETIRED"};
+    private static final String[] SURNAMES = {"王", "李", "张", "刘", "陈", "杨", "黄", "赵", "吴", "周", "徐", "孙"};
+    private static final String[] GIVEN_NAMES = {"伟", "芳", "娜", "敏", "静", "磊", "强", "洋", "艳", "勇", "军", "杰",
+            "娟", "涛", "明", "超", "秀英", "建华", "志强", "海燕"};
+    
+    private SampleData() {
+    }
+    
+    public static Department department(long id) {
+        Department department = new Department();
+        department.setId(id);
+        department.setCode("DEPT" + id);
+        department.setName("School of Department " + id);
+        department.setDescription("Teaching and research unit number " + id + " of the university");
+        department.setLevel(1);
+        department.setCreatedAt(LocalDateTime.of(2020, 1, 1, 8, 0));
+        department.setUpdatedAt(LocalDateTime.of(2024, 3, 1, 8, 0));
+        return department;
+    }
+    
+    public static Staff staff(long id, Department department) {
+        Staff staff = new Staff();
+        staff.setId(id);
+        staff.setStaffNo(String.format("T%08d", id));
+        staff.setName("Staff Member " + id);
+        staff.setGender(id % 2 == 0 ? "M" : "F");
+        staff.setBirthDate(LocalDate.of(1960 + (int) (id % 40), 1 + (int) (id % 12), 1 + (int) (id % 28)));
+        staff.setPhone(String.format("138%08d", id));
+        staff.setEmail("staff" + id + "@school.edu.cn");
+        staff.setIdCard(String.format("1101011985%08d", id));
+        staff.setDepartment(department);
+        staff.setPosition(POSITIONS[(int) (id % POSITIONS.length)]);
+        staff.setHireDate(LocalDate.of(2000 + (int) (id % 24), 9, 1));
+        staff.setStatus(STATUSES[(int) (id % STATUSES.length)]);
+        staff.setAddress("No. " + id + " Zhongguancun Street, Haidian District, Beijing");
+        staff.setCreatedAt(LocalDateTime.of(2015, 9, 1, 9, 30));
+        staff.setUpdatedAt(LocalDateTime.of(2024, 5, 6, 10, 11, 12));
+        return staff;
+    }
+    
+    /**
+     * Deterministic Chinese name with the usual surname skew
+     */
+    public static String chineseName(long id) {
+        return SURNAMES[(int) (id * 7 % SURNAMES.length)]
+                + GIVEN_NAMES[(int) (id % GIVEN_NAMES.length)]
+                + (id % 3 == 0 ? GIVEN_NAMES[(int) (id / 3 % GIVEN_NAMES.length)] : "");
+    }
+    
+    public static String position(long id) {
+        return POSITIONS[(int) (id % POSITIONS.length)];
+    }
+    
+    public static String status(long id) {
+        return STATUSES[(int) (id % STATUSES.length)];
+    }
+    
+    public static List<Staff> staffList(int size, int departments) {
+        List<Department> departmentList = new ArrayList<>();
+        for (int d = 1; d <= departments; d++) {
+            departmentList.add(department(d));
+        }
+        List<Staff> list = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            list.add(staff(i, departmentList.get(i % departments)));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,79 @@
+package com.school.staff.service;
+
+import com.school.staff.benchmark.SampleData;
+import com.school.staff.dto.StaffRequest;
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StaffService.updateStaffFromRequest mapping cost. The department lookup is stubbed to return
+ * a fixed department, i.e. the cost measured is the mapping itself plus a cache-hit lookup.
+ * Lives in the service package because the method is package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StaffMappingBenchmark {
+    
+    /**
+     * Whether the request carries a departmentId (and so triggers the department lookup)
+     */
+    @Param({"false", "true"})
+    public boolean withDepartment;
+    
+    private StaffService staffService;
+    private StaffRequest request;
+    private Staff target;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Department department = SampleData.department(3);
+        DepartmentService departmentService = new DepartmentService(null, null, null, null) {
+            @Override
+            public Department getDepartmentById(Long id) {
+                return department;
+            }
+        };
+        staffService = new StaffService(null, departmentService, null, null, null, null);
+        
+        request = new StaffRequest();
+        request.setStaffNo("T00000042");
+        request.setName(SampleData.chineseName(42));
+        request.setGender("F");
+        request.setBirthDate(LocalDate.of(1985, 8, 20));
+        request.setPhone("13800138002");
+        request.setEmail("staff42@school.edu.cn");
+        request.setIdCard("110101198508201234");
+        request.setDepartmentId(withDepartment ? 3L : null);
+        request.setPosition("Lecturer");
+        request.setHireDate(LocalDate.of(2015, 9, 1));
+        request.setStatus("ACTIVE");
+        request.setAddress("No. 42 Zhongguancun Street, Haidian District, Beijing");
+        request.setIsActive(true);
+        target = new Staff();
+    }
+    
+    @Benchmark
+    public Staff updateStaffFromRequest() {
+        staffService.updateStaffFromRequest(target, request);
+        return target;
+    }
+}
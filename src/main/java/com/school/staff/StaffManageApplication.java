@@ -3,12 +3,16 @@ package com.school.staff;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * School Staff Management System Main Application
  */
 @SpringBootApplication
 @EnableCaching
+@EnableAsync
+@EnableScheduling
 public class StaffManageApplication {
     
     public static void main(String[] args) {
@@ -0,0 +1,161 @@
+package com.school.staff.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.staff.dto.ApiResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control: each request of a configured endpoint group takes a slot of the group's
+ * concurrency limit and a token from its bucket, or is rejected at once - 503 when the limit is
+ * reached, 429 when over the rate - instead of queueing for a database connection. Requests
+ * rejected for concurrency do not use up the rate. Separate limits
+ * for expensive list endpoints keep connections free for point lookups.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    
+    private final List<EndpointLimit> endpoints;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    
+    public AdmissionControlFilter(List<EndpointLimit> endpoints, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.endpoints = endpoints;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        for (EndpointLimit endpoint : endpoints) {
+            Gauge.builder("admission.limit", endpoint.getLimiter(), ConcurrencyLimiter::getLimit)
+                    .description("Current concurrency limit of the endpoint group")
+                    .tag("endpoint", endpoint.getName())
+                    .register(meterRegistry);
+            Gauge.builder("admission.in.flight", endpoint.getLimiter(), ConcurrencyLimiter::getInFlight)
+                    .description("Requests of the endpoint group in progress")
+                    .tag("endpoint", endpoint.getName())
+                    .register(meterRegistry);
+        }
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointLimit endpoint = match(request);
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ConcurrencyLimiter limiter = endpoint.getLimiter();
+        if (!limiter.tryAcquire()) {
+            reject(response, endpoint, HttpStatus.SERVICE_UNAVAILABLE, "concurrency",
+                    Math.max(1, endpoint.getRetryAfter().toSeconds()));
+            return;
+        }
+        TokenBucket tokenBucket = endpoint.getTokenBucket();
+        if (tokenBucket != null) {
+            long waitNanos = tokenBucket.tryAcquire();
+            if (waitNanos > 0) {
+                limiter.cancel();
+                reject(response, endpoint, HttpStatus.TOO_MANY_REQUESTS, "rate",
+                        TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+                return;
+            }
+        }
+        
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                // Streaming responses keep their slot until the async request completes
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(limiter, start));
+            } else {
+                limiter.release(System.nanoTime() - start, failed);
+            }
+        }
+    }
+    
+    private EndpointLimit match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (EndpointLimit endpoint : endpoints) {
+            if (endpoint.matches(request.getMethod(), path)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+    
+    private void reject(HttpServletResponse response, EndpointLimit endpoint, HttpStatus status, String reason,
+                        long retryAfterSeconds) throws IOException {
+        log.debug("Rejected {} request ({} limit): {}", endpoint.getName(), reason, status.value());
+        meterRegistry.counter("admission.rejected", "endpoint", endpoint.getName(), "reason", reason).increment();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        String message = status == HttpStatus.TOO_MANY_REQUESTS
+                ? "Too many requests, retry later"
+                : "Server busy, retry later";
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(status.value(), message));
+    }
+    
+    /**
+     * Releases the slot of an async request once, on completion, error or timeout
+     */
+    private static class ReleaseOnCompletion implements AsyncListener {
+        
+        private final ConcurrencyLimiter limiter;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        ReleaseOnCompletion(ConcurrencyLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(false);
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(true);
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+            release(true);
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Listeners are not carried over to a new async cycle; re-register so the slot is still released
+            event.getAsyncContext().addListener(this);
+        }
+        
+        private void release(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start, failed);
+            }
+        }
+    }
+}
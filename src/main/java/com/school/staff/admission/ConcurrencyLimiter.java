@@ -0,0 +1,111 @@
+package com.school.staff.admission;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Lock-free concurrency limit of an endpoint group. When adaptive, the limit follows latency
+ * (AIMD): a request slower than latencyTolerance times the baseline - the lowest latency of the
+ * recent samples, i.e. the latency without queueing - decreases the limit by backoffRatio, and a
+ * fast request while the limit is at least half used increases it by 1/limit, about +1 per
+ * round of requests. Latencies below minSlowLatency never count as slow, so the jitter of fast
+ * (cached) requests does not shrink the limit. Requests over the limit are rejected instead of queueing.
+ */
+public class ConcurrencyLimiter {
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final boolean adaptive;
+    private final double latencyTolerance;
+    private final long minSlowLatencyNanos;
+    private final double backoffRatio;
+    private final int baselineWindow;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong baselineNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong windowMinNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicInteger samples = new AtomicInteger();
+    
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, boolean adaptive,
+                              double latencyTolerance, Duration minSlowLatency, double backoffRatio,
+                              int baselineWindow) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.adaptive = adaptive;
+        this.latencyTolerance = latencyTolerance;
+        this.minSlowLatencyNanos = minSlowLatency.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.baselineWindow = Math.max(1, baselineWindow);
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(
+                Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit))));
+    }
+    
+    /**
+     * Take a slot; the caller must call release once the request is done
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Return the slot and adapt the limit to the request's latency
+     *
+     * @param failed the request ended with an exception, counted like a slow one
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        if (!adaptive) {
+            return;
+        }
+        long baseline = updateBaseline(latencyNanos);
+        boolean slow = latencyNanos > minSlowLatencyNanos && latencyNanos > baseline * latencyTolerance;
+        if (failed || slow) {
+            updateLimit(limit -> Math.max(minLimit, limit * backoffRatio));
+        } else {
+            updateLimit(limit -> current * 2 >= limit ? Math.min(maxLimit, limit + 1 / limit) : limit);
+        }
+    }
+    
+    /**
+     * Return the slot of a request that was not served, without a latency sample
+     */
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+    
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    /**
+     * @return the baseline to compare this sample with
+     */
+    private long updateBaseline(long latencyNanos) {
+        long baseline = baselineNanos.accumulateAndGet(latencyNanos, Math::min);
+        windowMinNanos.accumulateAndGet(latencyNanos, Math::min);
+        if (samples.incrementAndGet() % baselineWindow == 0) {
+            // Start over from the last window's minimum, so the baseline can also rise
+            baselineNanos.set(windowMinNanos.getAndSet(Long.MAX_VALUE));
+        }
+        return baseline;
+    }
+    
+    private void updateLimit(DoubleUnaryOperator update) {
+        limitBits.updateAndGet(bits -> Double.doubleToLongBits(update.applyAsDouble(Double.longBitsToDouble(bits))));
+    }
+}
@@ -0,0 +1,77 @@
+package com.school.staff.admission;
+
+import com.school.staff.config.AdmissionProperties;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An endpoint group with its own concurrency limit and optional token bucket
+ */
+public class EndpointLimit {
+    
+    private final String name;
+    private final List<Route> routes;
+    private final ConcurrencyLimiter limiter;
+    private final TokenBucket tokenBucket;
+    private final Duration retryAfter;
+    
+    public EndpointLimit(AdmissionProperties.Endpoint endpoint, AdmissionProperties properties) {
+        this.name = Objects.requireNonNull(endpoint.getName(), "app.admission.endpoints[].name is required");
+        this.routes = new ArrayList<>();
+        for (String pattern : endpoint.getPatterns()) {
+            routes.add(Route.parse(pattern.trim()));
+        }
+        this.limiter = new ConcurrencyLimiter(endpoint.getInitialLimit(), endpoint.getMinLimit(),
+                endpoint.getMaxLimit(), endpoint.isAdaptive(), properties.getLatencyTolerance(),
+                properties.getMinSlowLatency(), properties.getBackoffRatio(), properties.getBaselineWindow());
+        this.tokenBucket = endpoint.getRate() > 0 ? new TokenBucket(endpoint.getRate(), endpoint.getBurst()) : null;
+        this.retryAfter = endpoint.getRetryAfter();
+    }
+    
+    /**
+     * @param path request path below the context path
+     */
+    public boolean matches(String method, PathContainer path) {
+        for (Route route : routes) {
+            if ((route.method() == null || route.method().equals(method)) && route.pattern().matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public ConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+    
+    /**
+     * @return null when the group has no rate limit
+     */
+    public TokenBucket getTokenBucket() {
+        return tokenBucket;
+    }
+    
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+    
+    private record Route(String method, PathPattern pattern) {
+        
+        static Route parse(String route) {
+            int space = route.indexOf(' ');
+            String method = space < 0 ? null : route.substring(0, space);
+            String path = space < 0 ? route : route.substring(space + 1).trim();
+            return new Route(method, PathPatternParser.defaultInstance.parse(path));
+        }
+    }
+}
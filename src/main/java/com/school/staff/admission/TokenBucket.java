@@ -0,0 +1,41 @@
+package com.school.staff.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single theoretical arrival time (GCRA): each admitted request
+ * moves it one interval (1 / rate) ahead, and a request is rejected when that would put it more
+ * than burst intervals ahead of now. Equivalent to a bucket of burst tokens refilled at rate.
+ */
+public class TokenBucket {
+    
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong arrivalNanos;
+    
+    public TokenBucket(double ratePerSecond, int burst) {
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+        this.toleranceNanos = intervalNanos * Math.max(1, burst);
+        this.arrivalNanos = new AtomicLong(System.nanoTime());
+    }
+    
+    /**
+     * Take a token
+     *
+     * @return 0 if admitted, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire() {
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = arrivalNanos.get();
+            long next = (arrival - now > 0 ? arrival : now) + intervalNanos;
+            if (next - now > toleranceNanos) {
+                return next - now - toleranceNanos;
+            }
+            if (arrivalNanos.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.school.staff.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction-aware cache: inside a transaction, put/evict/clear are applied only after it commits,
+ * so rolled-back writes never reach the cache. Unlike the plain decorator, a cache failure after
+ * commit is logged instead of failing a request whose data is already committed.
+ * Reads and read-through loads are not deferred.
+ */
+@Slf4j
+public class AfterCommitCache extends TransactionAwareCacheDecorator {
+    
+    public AfterCommitCache(Cache targetCache) {
+        super(targetCache);
+    }
+    
+    @Override
+    public void put(Object key, Object value) {
+        afterCommit(() -> getTargetCache().put(key, value), "put", key);
+    }
+    
+    @Override
+    public void evict(Object key) {
+        afterCommit(() -> getTargetCache().evict(key), "evict", key);
+    }
+    
+    @Override
+    public void clear() {
+        afterCommit(() -> getTargetCache().clear(), "clear", null);
+    }
+    
+    private void afterCommit(Runnable operation, String name, Object key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            operation.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    operation.run();
+                } catch (RuntimeException e) {
+                    // The entry expires with its TTL; versioned writes cannot overwrite newer data meanwhile
+                    log.warn("Cache {} of {}::{} after commit failed: {}", name, getName(), key, e.getMessage());
+                }
+            }
+        });
+    }
+}
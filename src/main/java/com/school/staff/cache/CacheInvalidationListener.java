@@ -0,0 +1,36 @@
+package com.school.staff.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Evicts L1 entries when another node changes the corresponding L2 entry
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationListener implements MessageListener {
+    
+    private final TwoLevelCacheManager cacheManager;
+    private final String nodeId;
+    
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = CacheInvalidationMessage.decode(new String(message.getBody(), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            log.warn(e.getMessage());
+            return;
+        }
+        if (nodeId.equals(invalidation.nodeId())) {
+            return;
+        }
+        log.debug("Invalidating L1 entry {}::{} from node {}",
+                invalidation.cacheName(), invalidation.key(), invalidation.nodeId());
+        cacheManager.invalidateLocal(invalidation.cacheName(), invalidation.key());
+    }
+}
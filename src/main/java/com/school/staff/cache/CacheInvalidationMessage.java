@@ -0,0 +1,22 @@
+package com.school.staff.cache;
+
+/**
+ * L1 invalidation broadcast between nodes, encoded as "nodeId|cacheName|key".
+ * A null key means the whole cache was cleared.
+ */
+public record CacheInvalidationMessage(String nodeId, String cacheName, String key) {
+    
+    private static final String SEPARATOR = "|";
+    
+    public String encode() {
+        return nodeId + SEPARATOR + cacheName + SEPARATOR + (key == null ? "" : key);
+    }
+    
+    public static CacheInvalidationMessage decode(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Malformed cache invalidation message: " + payload);
+        }
+        return new CacheInvalidationMessage(parts[0], parts[1], parts[2].isEmpty() ? null : parts[2]);
+    }
+}
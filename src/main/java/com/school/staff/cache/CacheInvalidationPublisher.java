@@ -0,0 +1,39 @@
+package com.school.staff.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+
+/**
+ * Publishes L1 invalidations to the other nodes over Redis pub/sub
+ */
+@Slf4j
+public class CacheInvalidationPublisher {
+    
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    public String getChannel() {
+        return channel;
+    }
+    
+    public void publish(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(channel, new CacheInvalidationMessage(nodeId, cacheName, key).encode());
+        } catch (RuntimeException e) {
+            // Other nodes fall back to the L1 TTL for this entry
+            log.warn("Failed to publish cache invalidation for {}::{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.school.staff.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the invalidation listener container: starts it once the application is up and keeps
+ * retrying in the background while Redis is unreachable, instead of failing startup.
+ * Until subscribed, L1 entries are only bounded by their own TTL.
+ */
+@Slf4j
+public class CacheInvalidationSubscriber implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+    
+    private final RedisMessageListenerContainer container;
+    private final Duration retryInterval;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "cache-invalidation-subscriber");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public CacheInvalidationSubscriber(RedisMessageListenerContainer container, Duration retryInterval) {
+        this.container = container;
+        this.retryInterval = retryInterval;
+        container.afterPropertiesSet();
+    }
+    
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        executor.execute(this::subscribe);
+    }
+    
+    private void subscribe() {
+        try {
+            container.start();
+            log.info("Subscribed to cache invalidation channel");
+        } catch (RuntimeException e) {
+            container.stop();
+            log.warn("Cache invalidation subscription failed, retrying in {}: {}", retryInterval, e.getMessage());
+            executor.schedule(this::subscribe, retryInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    @Override
+    public void destroy() throws Exception {
+        executor.shutdownNow();
+        container.destroy();
+    }
+}
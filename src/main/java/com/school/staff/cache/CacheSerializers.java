@@ -0,0 +1,50 @@
+package com.school.staff.cache;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.school.staff.config.CacheProperties;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Builds cache value serializers from the per-cache codec settings
+ */
+public final class CacheSerializers {
+    
+    private CacheSerializers() {
+    }
+    
+    public static RedisSerializer<Object> create(CacheProperties.Codec codec, int compressionThreshold) {
+        RedisSerializer<Object> serializer = switch (codec.getFormat()) {
+            case JSON -> json();
+            case KRYO -> new KryoRedisSerializer();
+        };
+        return codec.isCompress() ? new Lz4CompressingRedisSerializer(serializer, compressionThreshold) : serializer;
+    }
+    
+    /**
+     * Polymorphic JSON serializer that also handles the java.time fields of the entities
+     */
+    public static GenericJackson2JsonRedisSerializer json() {
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        serializer.configure(mapper -> mapper
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        return serializer;
+    }
+    
+    /**
+     * Tag inserted into the key prefix so entries written in another encoding are never read back.
+     * Plain JSON keeps the original "cacheName::" prefix and returns null.
+     */
+    public static String keyTag(CacheProperties.Codec codec) {
+        String tag = switch (codec.getFormat()) {
+            case JSON -> codec.isCompress() ? "json" : null;
+            case KRYO -> "kryo-" + KryoRedisSerializer.schemaFingerprint();
+        };
+        if (tag != null && codec.isCompress()) {
+            tag += ".lz4";
+        }
+        return tag;
+    }
+}
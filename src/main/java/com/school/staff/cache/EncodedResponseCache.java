@@ -0,0 +1,137 @@
+package com.school.staff.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.school.staff.dto.ApiResponse;
+import com.school.staff.event.DepartmentChangedEvent;
+import com.school.staff.event.StaffChangedEvent;
+import com.school.staff.event.StaffSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Already-encoded JSON bodies (raw and gzip) of hot, rarely changing list endpoints.
+ * An entry is served only while the ETag it was encoded under is still current, so a change
+ * made on another node is never served stale; committed local changes evict entries early.
+ * Hits copy bytes to the response without loading entities or running Jackson.
+ */
+@Component
+@Slf4j
+public class EncodedResponseCache {
+    
+    public static final String DEPARTMENTS_KEY = "departments";
+    
+    private static final String STAFF_BY_DEPARTMENT_PREFIX = "staff:department:";
+    
+    private final ObjectMapper objectMapper;
+    private final Cache<String, EncodedResponse> entries;
+    
+    public EncodedResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                @Value("${app.response-cache.max-size:64MB}") DataSize maxSize) {
+        this.objectMapper = objectMapper;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, EncodedResponse value) -> value.raw().length + value.gzip().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "encodedResponses");
+    }
+    
+    public static String staffByDepartmentKey(Long departmentId) {
+        return STAFF_BY_DEPARTMENT_PREFIX + departmentId;
+    }
+    
+    /**
+     * Write ApiResponse.success(data) for key as JSON, gzip-encoded when the client accepts it.
+     * The loader runs only when there is no entry encoded under etag.
+     */
+    public void write(String key, String etag, Supplier<?> loader,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        EncodedResponse encoded = entries.getIfPresent(key);
+        if (encoded == null || !encoded.etag().equals(etag)) {
+            // Data read after the ETag is never older than it, so storing it under that ETag is safe
+            encoded = encode(etag, ApiResponse.success(loader.get()));
+            entries.put(key, encoded);
+        }
+        
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] body = gzip ? encoded.gzip() : encoded.raw();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+    
+    /**
+     * Department rows are embedded in staff rows too, so any department change drops everything
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        log.debug("Evicting encoded responses after change of department {}", event.departmentId());
+        entries.invalidateAll();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStaffChanged(StaffChangedEvent event) {
+        evictStaffByDepartment(event.before());
+        evictStaffByDepartment(event.after());
+    }
+    
+    private void evictStaffByDepartment(StaffSnapshot staff) {
+        if (staff != null && staff.departmentId() != null) {
+            entries.invalidate(staffByDepartmentKey(staff.departmentId()));
+        }
+    }
+    
+    private EncodedResponse encode(String etag, Object body) {
+        try {
+            byte[] raw = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(raw);
+            }
+            return new EncodedResponse(etag, raw, compressed.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Whether an Accept-Encoding header lists gzip (or *) without q=0
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+    
+    private record EncodedResponse(String etag, byte[] raw, byte[] gzip) {
+    }
+}
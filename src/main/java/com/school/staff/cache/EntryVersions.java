@@ -0,0 +1,82 @@
+package com.school.staff.cache;
+
+import com.school.staff.dto.VersionStamp;
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Versions of cache entries, so a write can be rejected when Redis already holds something newer.
+ * An entry's version is its latest updatedAt (a staff entry also embeds its department) in
+ * microseconds, the precision of the column, so a row reloaded from the database has the same
+ * version as the instance that was saved. Redis keeps the highest version written or evicted
+ * for a key under "&lt;key&gt;:version".
+ */
+public final class EntryVersions {
+    
+    /**
+     * Version floor left by deleting a row: rejects every later write of its stale copies
+     */
+    public static final long DELETED = Long.MAX_VALUE;
+    
+    /**
+     * KEYS: entry, version. ARGV: value, version, entry TTL in ms. Writes unless the stored
+     * version is newer; the version key lives at least as long as the entry.
+     */
+    public static final String PUT_IF_NEWER_SCRIPT = """
+            local current = tonumber(redis.call('get', KEYS[2]))
+            if current and current > tonumber(ARGV[2]) then
+                return 0
+            end
+            local ttl = math.max(tonumber(ARGV[3]), redis.call('pttl', KEYS[2]))
+            redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[3])
+            redis.call('set', KEYS[2], ARGV[2], 'PX', ttl)
+            return 1
+            """;
+    
+    /**
+     * KEYS: entry, version. ARGV: version floor, floor TTL in ms. Deletes the entry and raises
+     * the stored version to the floor, so loads that read the old row cannot write it back.
+     */
+    public static final String EVICT_BELOW_SCRIPT = """
+            local current = tonumber(redis.call('get', KEYS[2]))
+            if not current or current < tonumber(ARGV[1]) then
+                local ttl = math.max(tonumber(ARGV[2]), redis.call('pttl', KEYS[2]))
+                redis.call('set', KEYS[2], ARGV[1], 'PX', ttl)
+            end
+            redis.call('del', KEYS[1])
+            return 1
+            """;
+    
+    private EntryVersions() {
+    }
+    
+    /**
+     * Version of a cache value, or null for values that are not versioned (always written)
+     */
+    public static Long of(Object value) {
+        if (value instanceof Staff staff) {
+            return of(VersionStamp.of(staff).getLastModified());
+        }
+        if (value instanceof Department department) {
+            return of(department.getUpdatedAt());
+        }
+        return null;
+    }
+    
+    /**
+     * updatedAt as a version; read as UTC so every node computes the same number
+     */
+    public static Long of(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return null;
+        }
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + updatedAt.getNano() / 1_000;
+    }
+    
+    public static String versionKey(String cacheKey) {
+        return cacheKey + ":version";
+    }
+}
@@ -0,0 +1,111 @@
+package com.school.staff.cache;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.util.DefaultInstantiatorStrategy;
+import com.esotericsoftware.kryo.util.Pool;
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import org.objenesis.strategy.StdInstantiatorStrategy;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Kryo-based cache value serializer.
+ * Cached entity types are registered with fixed ids, so entries carry a small varint
+ * instead of a class name. The field layout is positional; {@link #schemaFingerprint()}
+ * changes whenever a registered type changes and is used to partition cache keys.
+ */
+public class KryoRedisSerializer implements RedisSerializer<Object> {
+    
+    /**
+     * Registration order defines the wire ids - append only
+     */
+    private static final List<Class<?>> REGISTERED_TYPES = List.of(
+            Staff.class,
+            Department.class,
+            ArrayList.class,
+            LocalDate.class,
+            LocalDateTime.class);
+    
+    private static final int FIRST_REGISTRATION_ID = 100;
+    private static final int MAX_POOLED_INSTANCES = 64;
+    
+    private final Pool<Kryo> pool = new Pool<>(true, false, MAX_POOLED_INSTANCES) {
+        @Override
+        protected Kryo create() {
+            Kryo kryo = new Kryo();
+            kryo.setRegistrationRequired(false);
+            kryo.setReferences(false);
+            kryo.setInstantiatorStrategy(new DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+            for (int i = 0; i < REGISTERED_TYPES.size(); i++) {
+                kryo.register(REGISTERED_TYPES.get(i), FIRST_REGISTRATION_ID + i);
+            }
+            return kryo;
+        }
+    };
+    
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        Kryo kryo = pool.obtain();
+        try (Output output = new Output(256, -1)) {
+            kryo.writeClassAndObject(output, value);
+            return output.toBytes();
+        } catch (RuntimeException e) {
+            throw new SerializationException("Could not write Kryo: " + e.getMessage(), e);
+        } finally {
+            pool.free(kryo);
+        }
+    }
+    
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        Kryo kryo = pool.obtain();
+        try (Input input = new Input(bytes)) {
+            return kryo.readClassAndObject(input);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Could not read Kryo: " + e.getMessage(), e);
+        } finally {
+            pool.free(kryo);
+        }
+    }
+    
+    /**
+     * Short hash of the registered types and their instance fields
+     */
+    public static String schemaFingerprint() {
+        CRC32 crc = new CRC32();
+        for (Class<?> type : REGISTERED_TYPES) {
+            update(crc, type.getName());
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                        update(crc, field.getName() + ":" + field.getType().getName());
+                    }
+                }
+            }
+        }
+        return Long.toHexString(crc.getValue());
+    }
+    
+    private static void update(CRC32 crc, String value) {
+        crc.update(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,74 @@
+package com.school.staff.cache;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Wraps another serializer and LZ4-compresses payloads at or above a size threshold.
+ * Layout: one flag byte (0 = raw, 1 = LZ4), then for LZ4 the original length as an int.
+ */
+public class Lz4CompressingRedisSerializer implements RedisSerializer<Object> {
+    
+    private static final byte RAW = 0;
+    private static final byte LZ4 = 1;
+    
+    private final RedisSerializer<Object> delegate;
+    private final int threshold;
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+    
+    public Lz4CompressingRedisSerializer(RedisSerializer<Object> delegate, int threshold) {
+        this.delegate = delegate;
+        this.threshold = threshold;
+    }
+    
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] raw = delegate.serialize(value);
+        if (raw == null || raw.length == 0) {
+            return raw;
+        }
+        if (raw.length < threshold) {
+            byte[] out = new byte[raw.length + 1];
+            out[0] = RAW;
+            System.arraycopy(raw, 0, out, 1, raw.length);
+            return out;
+        }
+        int maxLength = compressor.maxCompressedLength(raw.length);
+        byte[] out = new byte[maxLength + 5];
+        out[0] = LZ4;
+        ByteBuffer.wrap(out, 1, 4).putInt(raw.length);
+        int compressedLength = compressor.compress(raw, 0, raw.length, out, 5, maxLength);
+        byte[] trimmed = new byte[compressedLength + 5];
+        System.arraycopy(out, 0, trimmed, 0, trimmed.length);
+        return trimmed;
+    }
+    
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        byte[] raw;
+        if (bytes[0] == RAW) {
+            raw = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, raw, 0, raw.length);
+        } else if (bytes[0] == LZ4) {
+            int length = ByteBuffer.wrap(bytes, 1, 4).getInt();
+            raw = new byte[length];
+            try {
+                decompressor.decompress(bytes, 5, raw, 0, length);
+            } catch (RuntimeException e) {
+                throw new SerializationException("Could not decompress LZ4 payload", e);
+            }
+        } else {
+            throw new SerializationException("Unknown compression flag: " + bytes[0]);
+        }
+        return delegate.deserialize(raw);
+    }
+}
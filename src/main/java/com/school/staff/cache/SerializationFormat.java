@@ -0,0 +1,17 @@
+package com.school.staff.cache;
+
+/**
+ * Value encodings available for Redis cache entries
+ */
+public enum SerializationFormat {
+    
+    /**
+     * Polymorphic JSON with embedded class names (GenericJackson2JsonRedisSerializer)
+     */
+    JSON,
+    
+    /**
+     * Kryo binary encoding with pre-registered entity types
+     */
+    KRYO
+}
@@ -0,0 +1,290 @@
+package com.school.staff.cache;
+
+import com.school.staff.config.CacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis cache whose read-through loads (@Cacheable(sync = true)) are single-flight: concurrent
+ * misses of a key on this node wait for one loader, and nodes take a short Redis lease per key
+ * so only one of them queries the database while the others poll for its result. Entries close
+ * to expiry are reloaded early by one reader, with a probability that grows towards expiry, so
+ * hot keys are replaced before they disappear. Versioned values are written only if Redis does
+ * not hold a newer version of the key, so late or reordered writes cannot overwrite newer data.
+ */
+@Slf4j
+public class SingleFlightRedisCache extends RedisCache implements VersionedCache {
+    
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+    
+    private static final byte[] PUT_IF_NEWER_SCRIPT = EntryVersions.PUT_IF_NEWER_SCRIPT.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EVICT_BELOW_SCRIPT = EntryVersions.EVICT_BELOW_SCRIPT.getBytes(StandardCharsets.UTF_8);
+    
+    private final StringRedisTemplate redisTemplate;
+    private final CacheProperties.Stampede stampede;
+    private final Duration ttl;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+    private final LongAdder lockWaitTimeouts = new LongAdder();
+    private final LongAdder staleWrites = new LongAdder();
+    
+    public SingleFlightRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfiguration,
+                                  StringRedisTemplate redisTemplate, CacheProperties cacheProperties) {
+        super(name, cacheWriter, cacheConfiguration);
+        this.redisTemplate = redisTemplate;
+        this.stampede = cacheProperties.getStampede();
+        this.ttl = cacheProperties.getTtl();
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = safeGet(key);
+        if (cached != null) {
+            if (shouldRefreshEarly(key)) {
+                return (T) refresh(key, valueLoader, cached.get());
+            }
+            return (T) cached.get();
+        }
+        
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            coalescedLoads.increment();
+            try {
+                return (T) running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            Object value = loadAcrossNodes(key, valueLoader);
+            load.complete(value);
+            return (T) value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+    
+    @Override
+    public void put(Object key, Object value) {
+        putIfNewer(key, value);
+    }
+    
+    @Override
+    public boolean putIfNewer(Object key, Object value) {
+        Long version = EntryVersions.of(value);
+        if (version == null) {
+            super.put(key, value);
+            return true;
+        }
+        String cacheKey = createCacheKey(key);
+        byte[] storeValue = serializeCacheValue(value);
+        long entryTtl = getCacheConfiguration().getTtlFunction().getTimeToLive(key, value).toMillis();
+        Long written = redisTemplate.execute((RedisCallback<Long>) connection -> connection.scriptingCommands().eval(
+                PUT_IF_NEWER_SCRIPT, ReturnType.INTEGER, 2,
+                serializeCacheKey(cacheKey), serializeCacheKey(EntryVersions.versionKey(cacheKey)),
+                storeValue, toBytes(version), toBytes(entryTtl)));
+        if (written != null && written == 0) {
+            staleWrites.increment();
+            log.debug("Rejected stale write of {}::{} (version {})", getName(), key, version);
+            return false;
+        }
+        return true;
+    }
+    
+    @Override
+    public void evictBelow(Object key, long version) {
+        String cacheKey = createCacheKey(key);
+        redisTemplate.execute((RedisCallback<Long>) connection -> connection.scriptingCommands().eval(
+                EVICT_BELOW_SCRIPT, ReturnType.INTEGER, 2,
+                serializeCacheKey(cacheKey), serializeCacheKey(EntryVersions.versionKey(cacheKey)),
+                toBytes(version), toBytes(ttl.toMillis())));
+    }
+    
+    public SingleFlightStats getLoadStats() {
+        return new SingleFlightStats(loads.sum(), coalescedLoads.sum(), earlyRefreshes.sum(), lockWaitTimeouts.sum(),
+                staleWrites.sum());
+    }
+    
+    /**
+     * Load and write the value; if a newer version was written meanwhile (e.g. by a committed
+     * update), return that one instead, so no tier caches the stale load
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <T> T loadCacheValue(Object key, Callable<T> valueLoader) {
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (putIfNewer(key, value)) {
+            return value;
+        }
+        ValueWrapper newer = safeGet(key);
+        return newer != null ? (T) newer.get() : value;
+    }
+    
+    /**
+     * Load under the key's Redis lease, or wait for the node holding it to fill the entry
+     */
+    private Object loadAcrossNodes(Object key, Callable<?> valueLoader) {
+        String lockKey = lockKey(key);
+        String token = tryLock(lockKey);
+        if (token == null) {
+            ValueWrapper filled = awaitOtherNode(key);
+            if (filled != null) {
+                coalescedLoads.increment();
+                return filled.get();
+            }
+            lockWaitTimeouts.increment();
+            return load(key, valueLoader);
+        }
+        try {
+            // Another node may have filled the entry between our miss and taking the lease
+            ValueWrapper filled = safeGet(key);
+            if (filled != null) {
+                coalescedLoads.increment();
+                return filled.get();
+            }
+            return load(key, valueLoader);
+        } finally {
+            unlock(lockKey, token);
+        }
+    }
+    
+    /**
+     * Reload an entry ahead of expiry if no other node is doing so; the current value is kept on failure
+     */
+    private Object refresh(Object key, Callable<?> valueLoader, Object current) {
+        String lockKey = lockKey(key);
+        String token = tryLock(lockKey);
+        if (token == null) {
+            return current;
+        }
+        try {
+            earlyRefreshes.increment();
+            return load(key, valueLoader);
+        } catch (RuntimeException e) {
+            log.warn("Early refresh of {}::{} failed, serving the cached value: {}", getName(), key, e.getMessage());
+            return current;
+        } finally {
+            unlock(lockKey, token);
+        }
+    }
+    
+    private Object load(Object key, Callable<?> valueLoader) {
+        loads.increment();
+        return loadCacheValue(key, valueLoader);
+    }
+    
+    private ValueWrapper safeGet(Object key) {
+        try {
+            return super.get(key);
+        } catch (SerializationException e) {
+            // Entry written by an incompatible encoder; drop it and reload
+            log.warn("Discarding unreadable cache entry {}::{}: {}", getName(), key, e.getMessage());
+            evict(key);
+            return null;
+        }
+    }
+    
+    private ValueWrapper awaitOtherNode(Object key) {
+        long deadline = System.nanoTime() + stampede.getLockWait().toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(stampede.getPollInterval().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            ValueWrapper filled = safeGet(key);
+            if (filled != null) {
+                return filled;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * True with a probability rising from 0 at the start of the refresh-ahead window to 1 at expiry
+     */
+    private boolean shouldRefreshEarly(Object key) {
+        double window = ttl.toMillis() * stampede.getRefreshAhead();
+        if (window <= 0) {
+            return false;
+        }
+        Long remaining;
+        try {
+            remaining = redisTemplate.getExpire(createCacheKey(key), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            return false;
+        }
+        if (remaining == null || remaining < 0 || remaining >= window) {
+            return false;
+        }
+        return ThreadLocalRandom.current().nextDouble() >= remaining / window;
+    }
+    
+    /**
+     * Take the key's lease; an unreachable Redis counts as taken so the caller just loads
+     */
+    private String tryLock(String lockKey) {
+        String token = UUID.randomUUID().toString();
+        try {
+            return Boolean.FALSE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, token, stampede.getLockLease()))
+                    ? null : token;
+        } catch (RuntimeException e) {
+            log.debug("Could not take load lease {}: {}", lockKey, e.getMessage());
+            return token;
+        }
+    }
+    
+    private void unlock(String lockKey, String token) {
+        try {
+            // Only release our own lease; it may have expired and been taken by another node
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey), token);
+        } catch (RuntimeException e) {
+            log.debug("Could not release load lease {}: {}", lockKey, e.getMessage());
+        }
+    }
+    
+    private String lockKey(Object key) {
+        return createCacheKey(key) + ":load-lock";
+    }
+    
+    private static byte[] toBytes(long number) {
+        return Long.toString(number).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,41 @@
+package com.school.staff.cache;
+
+import com.school.staff.config.CacheProperties;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Map;
+
+/**
+ * Redis cache manager whose caches are {@link SingleFlightRedisCache}s, wrapped in an
+ * {@link AfterCommitCache} when transaction-aware
+ */
+public class SingleFlightRedisCacheManager extends RedisCacheManager {
+    
+    private final StringRedisTemplate redisTemplate;
+    private final CacheProperties cacheProperties;
+    
+    public SingleFlightRedisCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration,
+                                         Map<String, RedisCacheConfiguration> initialCacheConfigurations,
+                                         StringRedisTemplate redisTemplate, CacheProperties cacheProperties) {
+        super(cacheWriter, defaultCacheConfiguration, initialCacheConfigurations);
+        this.redisTemplate = redisTemplate;
+        this.cacheProperties = cacheProperties;
+    }
+    
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfiguration) {
+        return new SingleFlightRedisCache(name, getCacheWriter(),
+                cacheConfiguration != null ? cacheConfiguration : getDefaultCacheConfiguration(),
+                redisTemplate, cacheProperties);
+    }
+    
+    @Override
+    protected Cache decorateCache(Cache cache) {
+        return isTransactionAware() ? new AfterCommitCache(cache) : cache;
+    }
+}
@@ -0,0 +1,53 @@
+package com.school.staff.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Boot's Redis cache meters plus cache.loads, which counts loads by outcome:
+ * loaded, coalesced (served by a load already running here or on another node),
+ * refreshed early, and lock-timeout (gave up waiting for another node); and cache.puts.rejected,
+ * writes dropped because Redis held a newer version
+ */
+public class SingleFlightRedisCacheMeterBinder extends RedisCacheMetrics {
+    
+    private final SingleFlightRedisCache cache;
+    private final Iterable<Tag> tags;
+    
+    public SingleFlightRedisCacheMeterBinder(SingleFlightRedisCache cache, Iterable<Tag> tags) {
+        super(cache, tags);
+        this.cache = cache;
+        this.tags = tags;
+    }
+    
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        super.bindImplementationSpecificMetrics(registry);
+        bindLoads(registry, cache, Tags.of(tags).and("cache", cache.getName()));
+    }
+    
+    static void bindLoads(MeterRegistry registry, SingleFlightRedisCache cache, Tags tags) {
+        loads(registry, cache, tags, "loaded", SingleFlightStats::getLoads);
+        loads(registry, cache, tags, "coalesced", SingleFlightStats::getCoalescedLoads);
+        loads(registry, cache, tags, "refreshed", SingleFlightStats::getEarlyRefreshes);
+        loads(registry, cache, tags, "lock-timeout", SingleFlightStats::getLockWaitTimeouts);
+        FunctionCounter.builder("cache.puts.rejected", cache, c -> c.getLoadStats().getStaleWrites())
+                .tags(tags)
+                .description("Writes rejected because the cache held a newer version")
+                .register(registry);
+    }
+    
+    private static void loads(MeterRegistry registry, SingleFlightRedisCache cache, Tags tags, String result,
+                              ToLongFunction<SingleFlightStats> count) {
+        FunctionCounter.builder("cache.loads", cache, c -> count.applyAsLong(c.getLoadStats()))
+                .tags(tags)
+                .tag("result", result)
+                .description("Read-through loads by outcome")
+                .register(registry);
+    }
+}
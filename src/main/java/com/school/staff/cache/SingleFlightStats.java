@@ -0,0 +1,34 @@
+package com.school.staff.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Point-in-time load and write counters of one single-flight Redis cache
+ */
+@Data
+@AllArgsConstructor
+public class SingleFlightStats {
+    
+    /**
+     * Loader invocations, early refreshes included
+     */
+    private long loads;
+    
+    /**
+     * Misses answered by a load another caller or node was already running
+     */
+    private long coalescedLoads;
+    
+    private long earlyRefreshes;
+    
+    /**
+     * Waits for another node's load that gave up and loaded locally
+     */
+    private long lockWaitTimeouts;
+    
+    /**
+     * Writes rejected because Redis already held a newer version of the entry
+     */
+    private long staleWrites;
+}
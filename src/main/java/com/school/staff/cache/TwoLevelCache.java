@@ -0,0 +1,205 @@
+package com.school.staff.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache with an in-process Caffeine near cache (L1) in front of a shared Redis cache (L2).
+ * Writes go to both tiers and are broadcast so other nodes drop their L1 copy.
+ * L1 keys are the string form of the cache key, which is also what is sent over pub/sub.
+ * A write that L2 rejects as stale drops the L1 copy instead of storing it.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache implements VersionedCache {
+    
+    private final String name;
+    private final Cache<String, Object> local;
+    private final org.springframework.cache.Cache remote;
+    private final CacheInvalidationPublisher publisher;
+    
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l1Misses = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder l2Misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    
+    public TwoLevelCache(String name, Cache<String, Object> local,
+                         org.springframework.cache.Cache remote, CacheInvalidationPublisher publisher) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.publisher = publisher;
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+    
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = toLocalKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            l1Hits.increment();
+            return value;
+        }
+        l1Misses.increment();
+        value = lookupRemote(key);
+        if (value != null) {
+            local.put(localKey, value);
+        }
+        return value;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = toLocalKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            l1Hits.increment();
+            return (T) value;
+        }
+        l1Misses.increment();
+        // Not loaded inside local.get: waiting for another node's load must not hold a Caffeine bin lock.
+        // The remote tier (SingleFlightRedisCache) runs one load per key instead.
+        value = loadThroughRemote(key, valueLoader);
+        if (value != null) {
+            local.put(localKey, value);
+        }
+        return (T) value;
+    }
+    
+    @Override
+    public void put(Object key, Object value) {
+        putIfNewer(key, value);
+    }
+    
+    @Override
+    public boolean putIfNewer(Object key, Object value) {
+        puts.increment();
+        boolean written;
+        if (remote instanceof VersionedCache versionedRemote) {
+            written = versionedRemote.putIfNewer(key, value);
+        } else {
+            remote.put(key, value);
+            written = true;
+        }
+        String localKey = toLocalKey(key);
+        if (written) {
+            local.put(localKey, value);
+        } else {
+            local.invalidate(localKey);
+        }
+        publisher.publish(name, localKey);
+        return written;
+    }
+    
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        puts.increment();
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        String localKey = toLocalKey(key);
+        local.invalidate(localKey);
+        publisher.publish(name, localKey);
+        return existing;
+    }
+    
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = toLocalKey(key);
+        local.invalidate(localKey);
+        publisher.publish(name, localKey);
+    }
+    
+    @Override
+    public void evictBelow(Object key, long version) {
+        if (remote instanceof VersionedCache versionedRemote) {
+            versionedRemote.evictBelow(key, version);
+        } else {
+            remote.evict(key);
+        }
+        String localKey = toLocalKey(key);
+        local.invalidate(localKey);
+        publisher.publish(name, localKey);
+    }
+    
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        publisher.publish(name, null);
+    }
+    
+    /**
+     * Drop an L1 entry only, on behalf of another node
+     */
+    public void evictLocal(String localKey) {
+        local.invalidate(localKey);
+    }
+    
+    /**
+     * Drop all L1 entries only, on behalf of another node
+     */
+    public void clearLocal() {
+        local.invalidateAll();
+    }
+    
+    org.springframework.cache.Cache getRemote() {
+        return remote;
+    }
+    
+    public TwoLevelCacheStats getStats() {
+        return new TwoLevelCacheStats(
+                l1Hits.sum(), l1Misses.sum(), local.stats().evictionCount(), local.estimatedSize(),
+                l2Hits.sum(), l2Misses.sum(), puts.sum());
+    }
+    
+    private Object lookupRemote(Object key) {
+        ValueWrapper wrapper;
+        try {
+            wrapper = remote.get(key);
+        } catch (SerializationException e) {
+            // Entry written by an incompatible encoder; drop it and reload
+            log.warn("Discarding unreadable cache entry {}::{}: {}", name, key, e.getMessage());
+            remote.evict(key);
+            wrapper = null;
+        }
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value == null) {
+            l2Misses.increment();
+        } else {
+            l2Hits.increment();
+        }
+        return value;
+    }
+    
+    private Object loadThroughRemote(Object key, Callable<?> valueLoader) {
+        AtomicBoolean loaded = new AtomicBoolean();
+        Object value = remote.get(key, () -> {
+            loaded.set(true);
+            return valueLoader.call();
+        });
+        // Early refreshes count as misses: they went to the database
+        (loaded.get() ? l2Misses : l2Hits).increment();
+        return value;
+    }
+    
+    private static String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+}
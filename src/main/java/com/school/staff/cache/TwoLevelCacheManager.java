@@ -0,0 +1,83 @@
+package com.school.staff.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.school.staff.config.CacheProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Composite cache manager that fronts every cache of the Redis cache manager with a Caffeine near cache,
+ * wrapped in an {@link AfterCommitCache} when transaction-aware
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+    
+    private final CacheManager remoteCacheManager;
+    private final CacheProperties.Local localProperties;
+    private final CacheInvalidationPublisher publisher;
+    private final ConcurrentMap<String, TwoLevelCache> twoLevelCaches = new ConcurrentHashMap<>();
+    
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, CacheProperties.Local localProperties,
+                                CacheInvalidationPublisher publisher) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.localProperties = localProperties;
+        this.publisher = publisher;
+    }
+    
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = remoteCacheManager.getCacheNames().stream()
+                .map(this::getMissingCache)
+                .toList();
+        return Collections.unmodifiableList(caches);
+    }
+    
+    @Override
+    protected Cache getMissingCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return twoLevelCaches.computeIfAbsent(name, n -> new TwoLevelCache(n,
+                Caffeine.newBuilder()
+                        .maximumSize(localProperties.getMaximumSize())
+                        .expireAfterWrite(localProperties.getExpireAfterWrite())
+                        .recordStats()
+                        .build(),
+                remote, publisher));
+    }
+    
+    @Override
+    protected Cache decorateCache(Cache cache) {
+        return isTransactionAware() ? new AfterCommitCache(cache) : cache;
+    }
+    
+    /**
+     * Apply an invalidation received from another node to the local tier only
+     */
+    public void invalidateLocal(String cacheName, String localKey) {
+        TwoLevelCache cache = twoLevelCaches.get(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (localKey == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(localKey);
+        }
+    }
+    
+    public Map<String, TwoLevelCacheStats> getStats() {
+        Map<String, TwoLevelCacheStats> stats = new LinkedHashMap<>();
+        twoLevelCaches.forEach((name, cache) -> stats.put(name, cache.getStats()));
+        return stats;
+    }
+}
@@ -0,0 +1,73 @@
+package com.school.staff.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Standard cache.* meters for a TwoLevelCache. A hit is a hit in either tier and a miss is
+ * a miss in both; cache.tier.gets breaks the lookups down per tier and cache.loads counts
+ * the loads behind the misses.
+ */
+public class TwoLevelCacheMeterBinder extends CacheMeterBinder<TwoLevelCache> {
+    
+    public TwoLevelCacheMeterBinder(TwoLevelCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+    
+    @Override
+    protected Long size() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? null : cache.getStats().getL1Size();
+    }
+    
+    @Override
+    protected long hitCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? 0 : cache.getStats().getL1Hits() + cache.getStats().getL2Hits();
+    }
+    
+    @Override
+    protected Long missCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? null : cache.getStats().getL2Misses();
+    }
+    
+    @Override
+    protected Long evictionCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? null : cache.getStats().getL1Evictions();
+    }
+    
+    @Override
+    protected long putCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? 0 : cache.getStats().getPuts();
+    }
+    
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoLevelCache cache = getCache();
+        tierGets(registry, cache, "l1", "hit", TwoLevelCacheStats::getL1Hits);
+        tierGets(registry, cache, "l1", "miss", TwoLevelCacheStats::getL1Misses);
+        tierGets(registry, cache, "l2", "hit", TwoLevelCacheStats::getL2Hits);
+        tierGets(registry, cache, "l2", "miss", TwoLevelCacheStats::getL2Misses);
+        if (cache.getRemote() instanceof SingleFlightRedisCache remote) {
+            SingleFlightRedisCacheMeterBinder.bindLoads(registry, remote, Tags.of(getTagsWithCacheName()));
+        }
+    }
+    
+    private void tierGets(MeterRegistry registry, TwoLevelCache cache, String tier, String result,
+                          ToDoubleFunction<TwoLevelCacheStats> count) {
+        FunctionCounter.builder("cache.tier.gets", cache, c -> count.applyAsDouble(c.getStats()))
+                .tags(getTagsWithCacheName())
+                .tag("tier", tier)
+                .tag("result", result)
+                .description("Lookups per cache tier")
+                .register(registry);
+    }
+}
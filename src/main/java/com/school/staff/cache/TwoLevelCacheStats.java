@@ -0,0 +1,33 @@
+package com.school.staff.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Point-in-time hit/miss counters of one two-level cache
+ */
+@Data
+@AllArgsConstructor
+public class TwoLevelCacheStats {
+    
+    private long l1Hits;
+    private long l1Misses;
+    private long l1Evictions;
+    private long l1Size;
+    private long l2Hits;
+    private long l2Misses;
+    private long puts;
+    
+    public double getL1HitRate() {
+        return rate(l1Hits, l1Misses);
+    }
+    
+    public double getL2HitRate() {
+        return rate(l2Hits, l2Misses);
+    }
+    
+    private static double rate(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,36 @@
+package com.school.staff.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+/**
+ * Cache that orders writes of versioned values (see {@link EntryVersions}) instead of applying
+ * them in arrival order
+ */
+public interface VersionedCache {
+    
+    /**
+     * Write the value unless the cache already holds a newer version of the key
+     *
+     * @return false if the write was rejected as stale
+     */
+    boolean putIfNewer(Object key, Object value);
+    
+    /**
+     * Evict the key and reject later writes of versions older than the given one
+     */
+    void evictBelow(Object key, long version);
+    
+    /**
+     * evictBelow applied immediately to the cache behind a transaction-aware wrapper;
+     * a plain evict for caches that are not versioned
+     */
+    static void evictBelow(Cache cache, Object key, long version) {
+        Cache target = cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+        if (target instanceof VersionedCache versionedCache) {
+            versionedCache.evictBelow(key, version);
+        } else {
+            target.evict(key);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.school.staff.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.staff.admission.AdmissionControlFilter;
+import com.school.staff.admission.EndpointLimit;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+/**
+ * Admission Configuration - per endpoint group concurrency and rate limits (app.admission)
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig {
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "app.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(AdmissionProperties admissionProperties,
+                                                                                 ObjectMapper objectMapper,
+                                                                                 MeterRegistry meterRegistry) {
+        List<EndpointLimit> endpoints = admissionProperties.getEndpoints().stream()
+                .map(endpoint -> new EndpointLimit(endpoint, admissionProperties))
+                .toList();
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(endpoints, objectMapper, meterRegistry));
+        // Right after the observation filter, so rejected requests still show up in http.server.requests
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
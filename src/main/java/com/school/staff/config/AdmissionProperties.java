@@ -0,0 +1,85 @@
+package com.school.staff.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Admission control settings bound from "app.admission" in application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "app.admission")
+public class AdmissionProperties {
+    
+    private boolean enabled = true;
+    
+    /**
+     * A latency sample above this multiple of the endpoint's baseline (lowest recent latency)
+     * means requests are queueing, and the concurrency limit is decreased
+     */
+    private double latencyTolerance = 2.0;
+    
+    /**
+     * Latencies below this never count as slow, whatever the baseline
+     */
+    private Duration minSlowLatency = Duration.ofMillis(20);
+    
+    /**
+     * Multiplicative decrease of the concurrency limit on a slow sample
+     */
+    private double backoffRatio = 0.9;
+    
+    /**
+     * The baseline latency is re-measured over this many samples, so it follows lasting changes
+     */
+    private int baselineWindow = 500;
+    
+    /**
+     * Endpoint groups, matched in order; requests matching none are not limited
+     */
+    private List<Endpoint> endpoints = new ArrayList<>();
+    
+    @Data
+    public static class Endpoint {
+        
+        private String name;
+        
+        /**
+         * "METHOD /path" or "/path" (any method), path patterns below the context path
+         */
+        private List<String> patterns = new ArrayList<>();
+        
+        /**
+         * Concurrency limit at startup
+         */
+        private int initialLimit = 10;
+        
+        private int minLimit = 1;
+        
+        private int maxLimit = 10;
+        
+        /**
+         * Adapt the limit from observed latency; off for streaming endpoints, whose latency
+         * depends on the response size
+         */
+        private boolean adaptive = true;
+        
+        /**
+         * Requests per second admitted on average; 0 for no rate limit
+         */
+        private double rate;
+        
+        /**
+         * Requests admitted at once above the rate
+         */
+        private int burst = 1;
+        
+        /**
+         * Retry-After sent with 503 responses when the concurrency limit is reached
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
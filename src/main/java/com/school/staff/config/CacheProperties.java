@@ -0,0 +1,162 @@
+package com.school.staff.config;
+
+import com.school.staff.cache.SerializationFormat;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cache settings bound from "app.cache" in application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+    
+    /**
+     * Time to live of entries in Redis (L2)
+     */
+    private Duration ttl = Duration.ofHours(6);
+    
+    /**
+     * Each L2 entry lives ttl shortened by a random share of up to this fraction,
+     * so entries written together (e.g. after a Redis restart) do not expire together
+     */
+    private double ttlJitter = 0.1;
+    
+    /**
+     * Redis pub/sub channel used to invalidate other nodes' L1 entries
+     */
+    private String invalidationChannel = "cache:invalidation";
+    
+    /**
+     * How often to retry subscribing to the invalidation channel while Redis is unreachable
+     */
+    private Duration subscribeRetryInterval = Duration.ofSeconds(30);
+    
+    private Local local = new Local();
+    
+    private Serialization serialization = new Serialization();
+    
+    private Stampede stampede = new Stampede();
+    
+    private WarmUp warmUp = new WarmUp();
+    
+    /**
+     * Redis TTL of an entry about to be written: ttl minus up to ttlJitter of it
+     */
+    public Duration nextTtl() {
+        if (ttlJitter <= 0) {
+            return ttl;
+        }
+        long jitter = (long) (ttl.toMillis() * ttlJitter * ThreadLocalRandom.current().nextDouble());
+        return ttl.minusMillis(jitter);
+    }
+    
+    /**
+     * In-process near cache (L1) settings
+     */
+    @Data
+    public static class Local {
+        
+        private boolean enabled = true;
+        
+        private long maximumSize = 10000;
+        
+        /**
+         * Kept well below the L2 TTL: pub/sub invalidation is fire-and-forget,
+         * so this bounds how long a node can serve an entry it missed the eviction for
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+    }
+    
+    /**
+     * Redis value encoding, selectable per cache
+     */
+    @Data
+    public static class Serialization {
+        
+        private Codec defaults = new Codec();
+        
+        /**
+         * Compressed codecs only compress payloads of at least this many bytes
+         */
+        private int compressionThreshold = 1024;
+        
+        private Map<String, Codec> caches = new LinkedHashMap<>();
+    }
+    
+    /**
+     * Protection of read-through loads against cache stampedes
+     */
+    @Data
+    public static class Stampede {
+        
+        /**
+         * Final share of the TTL in which a read may reload the entry early, more likely the
+         * closer it is to expiry; 0 disables early refresh
+         */
+        private double refreshAhead = 0.1;
+        
+        /**
+         * Lifetime of the per-key cross-node load lease; bounds how long a crashed loader blocks the key
+         */
+        private Duration lockLease = Duration.ofSeconds(10);
+        
+        /**
+         * How long a node waits for another node's load before loading itself
+         */
+        private Duration lockWait = Duration.ofSeconds(3);
+        
+        private Duration pollInterval = Duration.ofMillis(50);
+    }
+    
+    /**
+     * Cache warm-up before the application reports ready
+     */
+    @Data
+    public static class WarmUp {
+        
+        private boolean enabled = true;
+        
+        /**
+         * How many of the most-read staff to load; all departments are always loaded
+         */
+        private int staffCount = 1000;
+        
+        private int batchSize = 200;
+        
+        private int parallelism = 4;
+        
+        /**
+         * Startup continues with a partly filled cache after this long
+         */
+        private Duration timeout = Duration.ofSeconds(60);
+        
+        /**
+         * How often each node adds its staff read counts to the shared access ranking
+         */
+        private Duration accessFlushInterval = Duration.ofMinutes(1);
+        
+        /**
+         * Number of staff ids kept in the access ranking
+         */
+        private long trackedSize = 10000;
+        
+        /**
+         * Redis sorted set holding the access ranking
+         */
+        private String accessKey = "staff:access-counts";
+    }
+    
+    @Data
+    public static class Codec {
+        
+        private SerializationFormat format = SerializationFormat.JSON;
+        
+        private boolean compress = false;
+    }
+}
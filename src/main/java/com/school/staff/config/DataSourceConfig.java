@@ -0,0 +1,100 @@
+package com.school.staff.config;
+
+import com.school.staff.datasource.ReadYourWritesFilter;
+import com.school.staff.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSource Configuration - the JDBC pool used by JPA. Declared explicitly because Spring
+ * Boot skips its DataSource auto-configuration once the R2DBC ConnectionFactory exists.
+ * With app.datasource.replicas configured, read-only transactions are routed to the replicas.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DataSourceConfig {
+    
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+    
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+    
+    /**
+     * Hikari pool from spring.datasource.* and spring.datasource.hikari.*
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    /**
+     * One read-only Hikari pool per replica; credentials and pool size default to the primary's
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.datasource.replicas[0]", name = "url")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             ReplicaProperties replicaProperties,
+                                                             MeterRegistry meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.getReplicas().size(); i++) {
+            ReplicaProperties.Replica replica = replicaProperties.getReplicas().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword());
+            // Hikari reports unset sizes as -1; its defaults are then 10 connections, all kept idle
+            int primaryMaximum = primaryDataSource.getMaximumPoolSize() > 0
+                    ? primaryDataSource.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize() != null && replica.getMaximumPoolSize() > 0
+                    ? replica.getMaximumPoolSize() : primaryMaximum);
+            pool.setMinimumIdle(primaryDataSource.getMinimumIdle() >= 0
+                    ? Math.min(primaryDataSource.getMinimumIdle(), pool.getMaximumPoolSize()) : pool.getMaximumPoolSize());
+            pool.setConnectionTimeout(replicaProperties.getReplicaConnectionTimeout().toMillis());
+            pool.setReadOnly(true);
+            // Started on the first connection, so an unreachable replica does not fail startup
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricRegistry(meterRegistry);
+            pools.add(pool);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, pools, replicaProperties, meterRegistry);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "app.datasource.replicas[0]", name = "url")
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaProperties replicaProperties) {
+        return new ReadYourWritesFilter(replicaProperties.getReadYourWritesWindow());
+    }
+    
+    /**
+     * The primary pool, or the replica router when replicas are configured. The router sits behind
+     * a lazy proxy, so it picks the target at the first statement, after the transaction has begun.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        ReplicaRoutingDataSource router = replicaRoutingDataSource.getIfAvailable();
+        return router == null ? primaryDataSource : new LazyConnectionDataSourceProxy(router);
+    }
+}
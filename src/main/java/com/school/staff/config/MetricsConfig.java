@@ -0,0 +1,46 @@
+package com.school.staff.config;
+
+import com.school.staff.cache.SingleFlightRedisCache;
+import com.school.staff.cache.SingleFlightRedisCacheMeterBinder;
+import com.school.staff.cache.TwoLevelCache;
+import com.school.staff.cache.TwoLevelCacheMeterBinder;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Metrics Configuration - meters that Spring Boot cannot bind on its own
+ */
+@Configuration
+public class MetricsConfig {
+    
+    /**
+     * Lets Boot's cache metrics registrar bind the custom two-level caches
+     */
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return TwoLevelCacheMeterBinder::new;
+    }
+    
+    /**
+     * Takes precedence over Boot's binder for plain Redis caches, adding the load counters
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CacheMeterBinderProvider<SingleFlightRedisCache> singleFlightRedisCacheMeterBinderProvider() {
+        return SingleFlightRedisCacheMeterBinder::new;
+    }
+    
+    /**
+     * Boot binds cache meters while creating the registrar; with lazy initialization
+     * (prod profile) nothing would request it, so it stays eager
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter cacheMetricsLazyInitializationExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(CacheMetricsRegistrar.class);
+    }
+}
@@ -0,0 +1,90 @@
+package com.school.staff.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.staff.reactive.ReactiveReadServer;
+import com.school.staff.reactive.ReactiveStaffHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ContextPathCompositeHandler;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.util.StringUtils;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive Configuration - non-blocking read API served by Reactor Netty on its own port,
+ * with the same paths (under the same context path) as the servlet read endpoints
+ */
+@Configuration
+public class ReactiveConfig {
+    
+    /**
+     * Read-only routes; more specific paths are listed before the {id} patterns
+     */
+    @Bean
+    public RouterFunction<ServerResponse> reactiveReadRoutes(ReactiveStaffHandler handler) {
+        return RouterFunctions.route()
+                .GET("/staff", handler::getAllStaff)
+                .GET("/staff/staffno/{staffNo}", handler::getStaffByStaffNo)
+                .GET("/staff/department/{departmentId}", handler::getStaffByDepartment)
+                .GET("/staff/status/{status}", handler::getStaffByStatus)
+                .GET("/staff/position/{position}", handler::getStaffByPosition)
+                .GET("/staff/{id}", handler::getStaffById)
+                .GET("/departments", handler::getAllDepartments)
+                .GET("/departments/code/{code}", handler::getDepartmentByCode)
+                .GET("/departments/parent/{parentId}", handler::getDepartmentsByParentId)
+                .GET("/departments/{id}", handler::getDepartmentById)
+                .onError(RuntimeException.class, handler::handleError)
+                .build();
+    }
+    
+    @Bean
+    @ConditionalOnProperty(value = "app.reactive.enabled", havingValue = "true", matchIfMissing = true)
+    public ReactiveReadServer reactiveReadServer(
+            RouterFunction<ServerResponse> reactiveReadRoutes,
+            ObjectMapper objectMapper,
+            @Value("${app.reactive.port:8090}") int port,
+            @Value("${server.servlet.context-path:}") String contextPath,
+            @Value("${app.cors.allowed-origins:http://localhost:3000,http://localhost:8081}") String allowedOrigins) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .webFilter(new CorsWebFilter(corsConfigurationSource(allowedOrigins)))
+                .build();
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(reactiveReadRoutes, strategies);
+        if (StringUtils.hasText(contextPath)) {
+            httpHandler = new ContextPathCompositeHandler(Map.of(contextPath, httpHandler));
+        }
+        return new ReactiveReadServer(httpHandler, port);
+    }
+    
+    /**
+     * Same CORS policy as WebConfig, limited to the read methods
+     */
+    private UrlBasedCorsConfigurationSource corsConfigurationSource(String allowedOrigins) {
+        CorsConfiguration cors = new CorsConfiguration();
+        cors.setAllowedOriginPatterns(Arrays.asList(allowedOrigins.split(",")));
+        cors.setAllowedMethods(List.of("GET", "OPTIONS"));
+        cors.addAllowedHeader("*");
+        cors.setAllowCredentials(true);
+        cors.setMaxAge(3600L);
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", cors);
+        return source;
+    }
+}
@@ -1,22 +1,36 @@
 package com.school.staff.config;
 
+import com.school.staff.cache.CacheInvalidationListener;
+import com.school.staff.cache.CacheInvalidationPublisher;
+import com.school.staff.cache.CacheInvalidationSubscriber;
+import com.school.staff.cache.CacheSerializers;
+import com.school.staff.cache.SingleFlightRedisCacheManager;
+import com.school.staff.cache.TwoLevelCacheManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Redis Configuration
  */
 @Configuration
+@EnableConfigurationProperties(CacheProperties.class)
 public class RedisConfig {
     
     /**
@@ -32,7 +46,7 @@ public class RedisConfig {
         template.setHashKeySerializer(new StringRedisSerializer());
         
         // Use JSON serializer for values
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        GenericJackson2JsonRedisSerializer serializer = CacheSerializers.json();
         template.setValueSerializer(serializer);
         template.setHashValueSerializer(serializer);
         
@@ -41,20 +55,87 @@ public class RedisConfig {
     }
     
     /**
-     * Configure Cache Manager
+     * Publisher for cross-node L1 invalidations
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate,
+                                                                 CacheProperties cacheProperties) {
+        return new CacheInvalidationPublisher(stringRedisTemplate, cacheProperties.getInvalidationChannel());
+    }
+    
+    /**
+     * Configure Cache Manager - single-flight Redis (L2), optionally fronted by a Caffeine near cache (L1)
+     */
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     CacheProperties cacheProperties,
+                                     CacheInvalidationPublisher cacheInvalidationPublisher) {
+        CacheProperties.Serialization serialization = cacheProperties.getSerialization();
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new LinkedHashMap<>();
+        serialization.getCaches().forEach((name, codec) ->
+                cacheConfigurations.put(name, cacheConfiguration(cacheProperties, codec)));
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory)
+                // Hit/miss statistics for the cache meters when Redis is used without the near cache
+                .withStatisticsCollector(CacheStatisticsCollector.create());
+        RedisCacheManager redisCacheManager = new SingleFlightRedisCacheManager(cacheWriter,
+                cacheConfiguration(cacheProperties, serialization.getDefaults()), cacheConfigurations,
+                stringRedisTemplate, cacheProperties);
+        
+        // @CachePut / @CacheEvict inside a transaction take effect after it commits
+        if (!cacheProperties.getLocal().isEnabled()) {
+            redisCacheManager.setTransactionAware(true);
+            return redisCacheManager;
+        }
+        redisCacheManager.initializeCaches();
+        TwoLevelCacheManager twoLevelCacheManager = new TwoLevelCacheManager(
+                redisCacheManager, cacheProperties.getLocal(), cacheInvalidationPublisher);
+        twoLevelCacheManager.setTransactionAware(true);
+        return twoLevelCacheManager;
+    }
+    
+    /**
+     * Redis cache configuration of a named cache, as used by the cache manager
+     */
+    public static RedisCacheConfiguration cacheConfiguration(CacheProperties cacheProperties, String cacheName) {
+        CacheProperties.Serialization serialization = cacheProperties.getSerialization();
+        return cacheConfiguration(cacheProperties,
+                serialization.getCaches().getOrDefault(cacheName, serialization.getDefaults()));
+    }
+    
+    /**
+     * Redis cache configuration for one value codec
+     */
+    private static RedisCacheConfiguration cacheConfiguration(CacheProperties cacheProperties, CacheProperties.Codec codec) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofHours(1))
+                .entryTtl((key, value) -> cacheProperties.nextTtl())
                 .serializeKeysWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()))
+                        RedisSerializationContext.SerializationPair.fromSerializer(CacheSerializers.create(
+                                codec, cacheProperties.getSerialization().getCompressionThreshold())))
                 .disableCachingNullValues();
         
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(config)
-                .build();
+        String keyTag = CacheSerializers.keyTag(codec);
+        return keyTag == null ? config : config.computePrefixWith(cacheName -> cacheName + ":" + keyTag + "::");
+    }
+    
+    /**
+     * Listen for L1 invalidations published by other nodes
+     */
+    @Bean
+    public CacheInvalidationSubscriber cacheInvalidationSubscriber(
+            RedisConnectionFactory connectionFactory,
+            CacheManager cacheManager,
+            CacheInvalidationPublisher cacheInvalidationPublisher,
+            CacheProperties cacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+            container.addMessageListener(
+                    new CacheInvalidationListener(twoLevelCacheManager, cacheInvalidationPublisher.getNodeId()),
+                    new ChannelTopic(cacheInvalidationPublisher.getChannel()));
+        }
+        return new CacheInvalidationSubscriber(container, cacheProperties.getSubscribeRetryInterval());
     }
 }
@@ -0,0 +1,62 @@
+package com.school.staff.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica settings bound from "app.datasource" in application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource")
+public class ReplicaProperties {
+    
+    /**
+     * Replicas serving read-only transactions; when empty, everything uses spring.datasource
+     */
+    private List<Replica> replicas = new ArrayList<>();
+    
+    /**
+     * How often each replica's connectivity and replication lag are checked
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    
+    /**
+     * Replicas further behind the primary are skipped until they catch up
+     */
+    private Duration maxReplicationLag = Duration.ofSeconds(10);
+    
+    /**
+     * Short, so reads fall back to the primary quickly when a replica is unreachable
+     */
+    private Duration replicaConnectionTimeout = Duration.ofSeconds(2);
+    
+    /**
+     * After writing, a client (by cookie) and the writing thread read from the primary this long
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    
+    @Data
+    public static class Replica {
+        
+        private String url;
+        
+        /**
+         * Defaults to spring.datasource.username
+         */
+        private String username;
+        
+        /**
+         * Defaults to spring.datasource.password
+         */
+        private String password;
+        
+        /**
+         * Defaults to the primary pool's maximum size
+         */
+        private Integer maximumPoolSize;
+    }
+}
@@ -2,11 +2,14 @@ package com.school.staff.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.WebContentInterceptor;
 
 /**
- * Web Configuration - CORS settings
+ * Web Configuration - CORS settings and caching headers
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -23,4 +26,16 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true)
                 .maxAge(3600);
     }
+    
+    /**
+     * Endpoints answering conditional GETs: clients may store the response but must
+     * revalidate it, instead of reusing it heuristically because of Last-Modified
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        WebContentInterceptor interceptor = new WebContentInterceptor();
+        interceptor.addCacheMapping(CacheControl.noCache(),
+                "/staff/{id}", "/staff/department/{departmentId}", "/departments", "/departments/{id}");
+        registry.addInterceptor(interceptor);
+    }
 }
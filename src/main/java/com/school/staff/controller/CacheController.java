@@ -0,0 +1,38 @@
+package com.school.staff.controller;
+
+import com.school.staff.cache.TwoLevelCacheManager;
+import com.school.staff.cache.TwoLevelCacheStats;
+import com.school.staff.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Cache Controller - cache diagnostics
+ */
+@RestController
+@RequestMapping("/cache")
+@RequiredArgsConstructor
+@Slf4j
+public class CacheController {
+    
+    private final CacheManager cacheManager;
+    
+    /**
+     * Get per-tier hit/miss statistics of each cache
+     */
+    @GetMapping("/stats")
+    public ApiResponse<Map<String, TwoLevelCacheStats>> getCacheStats() {
+        log.info("GET /cache/stats - Get cache statistics");
+        if (cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+            return ApiResponse.success(twoLevelCacheManager.getStats());
+        }
+        return ApiResponse.success(Collections.emptyMap());
+    }
+}
@@ -1,14 +1,25 @@
 package com.school.staff.controller;
 
+import com.school.staff.cache.EncodedResponseCache;
 import com.school.staff.dto.ApiResponse;
+import com.school.staff.dto.ChangeFeedPage;
+import com.school.staff.dto.DepartmentNode;
 import com.school.staff.dto.DepartmentRequest;
+import com.school.staff.dto.VersionStamp;
 import com.school.staff.entity.Department;
+import com.school.staff.repository.FieldSelection;
+import com.school.staff.service.ChangeFeedService;
 import com.school.staff.service.DepartmentService;
+import com.school.staff.service.DepartmentTreeService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -21,24 +32,77 @@ import java.util.List;
 public class DepartmentController {
     
     private final DepartmentService departmentService;
+    private final DepartmentTreeService departmentTreeService;
+    private final EncodedResponseCache encodedResponseCache;
+    private final ChangeFeedService changeFeedService;
     
     /**
-     * Get all departments
+     * Get all departments, or only the requested fields of each; answers If-None-Match with 304
+     * before loading the list, and serves the full list from its pre-encoded bytes
      */
     @GetMapping
-    public ApiResponse<List<Department>> getAllDepartments() {
+    public ApiResponse<List<?>> getAllDepartments(
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         log.info("GET /departments - Get all departments");
-        List<Department> departments = departmentService.getAllDepartments();
-        return ApiResponse.success(departments);
+        String etag = departmentService.getDepartmentsVersion().getEtag();
+        if (fields != null) {
+            // The normalized selection, so projections never share an ETag
+            etag += "-" + String.join(".", FieldSelection.parse(fields, FieldSelection.DEPARTMENT_FIELDS));
+        }
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        if (fields != null) {
+            return ApiResponse.success(departmentService.getAllDepartmentFields(fields));
+        }
+        encodedResponseCache.write(EncodedResponseCache.DEPARTMENTS_KEY, etag,
+                departmentService::getAllDepartments, request, response);
+        return null;
+    }
+    
+    /**
+     * Get departments created, updated or deleted since a change token (all departments without one), oldest first
+     */
+    @GetMapping("/changes")
+    public ApiResponse<ChangeFeedPage<Department>> getDepartmentChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /departments/changes?since={}&limit={} - Get department changes", since, limit);
+        return ApiResponse.success(changeFeedService.getDepartmentChanges(since, limit));
+    }
+    
+    /**
+     * Get the whole department tree
+     */
+    @GetMapping("/tree")
+    public ApiResponse<List<DepartmentNode>> getDepartmentTree() {
+        log.info("GET /departments/tree - Get department tree");
+        return ApiResponse.success(departmentTreeService.getTree());
+    }
+    
+    /**
+     * Get a department with all of its sub-departments
+     */
+    @GetMapping("/{id}/subtree")
+    public ApiResponse<DepartmentNode> getDepartmentSubtree(@PathVariable Long id) {
+        log.info("GET /departments/{}/subtree - Get department subtree", id);
+        return ApiResponse.success(departmentTreeService.getSubtree(id));
     }
     
     /**
-     * Get department by ID
+     * Get department by ID; conditional on its ETag / Last-Modified
      */
     @GetMapping("/{id}")
-    public ApiResponse<Department> getDepartmentById(@PathVariable Long id) {
+    public ApiResponse<Department> getDepartmentById(@PathVariable Long id, WebRequest webRequest) {
         log.info("GET /departments/{} - Get department by ID", id);
         Department department = departmentService.getDepartmentById(id);
+        VersionStamp version = VersionStamp.of(department);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return null;
+        }
         return ApiResponse.success(department);
     }
     
@@ -56,8 +120,13 @@ public class DepartmentController {
      * Get departments by parent ID
      */
     @GetMapping("/parent/{parentId}")
-    public ApiResponse<List<Department>> getDepartmentsByParentId(@PathVariable Long parentId) {
+    public ApiResponse<List<?>> getDepartmentsByParentId(
+            @PathVariable Long parentId,
+            @RequestParam(required = false) String fields) {
         log.info("GET /departments/parent/{} - Get departments by parent ID", parentId);
+        if (fields != null) {
+            return ApiResponse.success(departmentService.getDepartmentFieldsByParentId(parentId, fields));
+        }
         List<Department> departments = departmentService.getDepartmentsByParentId(parentId);
         return ApiResponse.success(departments);
     }
@@ -0,0 +1,44 @@
+package com.school.staff.controller;
+
+import com.school.staff.dto.ApiResponse;
+import com.school.staff.dto.SearchHit;
+import com.school.staff.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Search Controller - name autocomplete for staff and departments
+ */
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+@Slf4j
+public class SearchController {
+    
+    private final SearchService searchService;
+    
+    /**
+     * Search staff names by prefix, infix or pinyin initials
+     */
+    @GetMapping("/staff")
+    public ApiResponse<List<SearchHit>> searchStaff(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("GET /search/staff?q={} - Search staff names", q);
+        return ApiResponse.success(searchService.searchStaff(q, limit));
+    }
+    
+    /**
+     * Search department names by prefix, infix or pinyin initials
+     */
+    @GetMapping("/departments")
+    public ApiResponse<List<SearchHit>> searchDepartments(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("GET /search/departments?q={} - Search department names", q);
+        return ApiResponse.success(searchService.searchDepartments(q, limit));
+    }
+}
@@ -1,15 +1,42 @@
 package com.school.staff.controller;
 
+import com.school.staff.cache.EncodedResponseCache;
 import com.school.staff.dto.ApiResponse;
+import com.school.staff.dto.BatchItemResult;
+import com.school.staff.dto.ChangeFeedPage;
+import com.school.staff.dto.CursorPage;
+import com.school.staff.dto.DepartmentHeadcount;
+import com.school.staff.dto.HeadcountGroup;
+import com.school.staff.dto.PageResult;
+import com.school.staff.dto.StaffQuery;
 import com.school.staff.dto.StaffRequest;
+import com.school.staff.dto.VersionStamp;
 import com.school.staff.entity.Staff;
+import com.school.staff.repository.FieldSelection;
+import com.school.staff.service.ChangeFeedService;
+import com.school.staff.service.HeadcountService;
+import com.school.staff.service.StaffAccessTracker;
+import com.school.staff.service.StaffBatchService;
+import com.school.staff.service.StaffExportService;
 import com.school.staff.service.StaffService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Staff Controller
@@ -20,25 +47,156 @@ import java.util.List;
 @Slf4j
 public class StaffController {
     
+    /**
+     * Value of the "view" parameter that selects the lightweight summary projection
+     */
+    private static final String SUMMARY_VIEW = "summary";
+    
     private final StaffService staffService;
+    private final StaffBatchService staffBatchService;
+    private final StaffExportService staffExportService;
+    private final EncodedResponseCache encodedResponseCache;
+    private final StaffAccessTracker staffAccessTracker;
+    private final ChangeFeedService changeFeedService;
+    private final HeadcountService headcountService;
     
     /**
-     * Get all staff
+     * Get staff page by page (keyset pagination on id), optionally only the requested fields
      */
     @GetMapping
-    public ApiResponse<List<Staff>> getAllStaff() {
-        log.info("GET /staff - Get all staff");
-        List<Staff> staffList = staffService.getAllStaff();
-        return ApiResponse.success(staffList);
+    public ApiResponse<CursorPage<?>> getAllStaff(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        log.info("GET /staff?after={}&limit={} - Get staff page", after, limit);
+        if (fields != null) {
+            return ApiResponse.success(staffService.getStaffFieldsPage(after, limit, fields));
+        }
+        CursorPage<Staff> page = staffService.getStaffPage(after, limit);
+        return ApiResponse.success(page);
+    }
+    
+    /**
+     * Get staff created, updated or deleted since a change token (all staff without one), oldest first
+     */
+    @GetMapping("/changes")
+    public ApiResponse<ChangeFeedPage<Staff>> getStaffChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /staff/changes?since={}&limit={} - Get staff changes", since, limit);
+        return ApiResponse.success(changeFeedService.getStaffChanges(since, limit));
+    }
+    
+    /**
+     * Get headcount of every department, with totals including sub-departments
+     */
+    @GetMapping("/stats/departments")
+    public ApiResponse<List<DepartmentHeadcount>> getDepartmentHeadcounts() {
+        log.info("GET /staff/stats/departments - Get headcount by department");
+        return ApiResponse.success(headcountService.getDepartmentHeadcounts());
+    }
+    
+    /**
+     * Get headcount by status, optionally within a department and its sub-departments
+     */
+    @GetMapping("/stats/status")
+    public ApiResponse<List<HeadcountGroup>> getHeadcountByStatus(@RequestParam(required = false) Long departmentId) {
+        log.info("GET /staff/stats/status?departmentId={} - Get headcount by status", departmentId);
+        return ApiResponse.success(headcountService.getHeadcountByStatus(departmentId));
+    }
+    
+    /**
+     * Get headcount by position, optionally within a department and its sub-departments
+     */
+    @GetMapping("/stats/position")
+    public ApiResponse<List<HeadcountGroup>> getHeadcountByPosition(@RequestParam(required = false) Long departmentId) {
+        log.info("GET /staff/stats/position?departmentId={} - Get headcount by position", departmentId);
+        return ApiResponse.success(headcountService.getHeadcountByPosition(departmentId));
+    }
+    
+    /**
+     * Get headcount by gender, optionally within a department and its sub-departments
+     */
+    @GetMapping("/stats/gender")
+    public ApiResponse<List<HeadcountGroup>> getHeadcountByGender(@RequestParam(required = false) Long departmentId) {
+        log.info("GET /staff/stats/gender?departmentId={} - Get headcount by gender", departmentId);
+        return ApiResponse.success(headcountService.getHeadcountByGender(departmentId));
+    }
+    
+    /**
+     * Query staff by combined filters with pagination and sorting, optionally only the requested fields
+     */
+    @GetMapping("/query")
+    public ApiResponse<PageResult<?>> queryStaff(StaffQuery query) {
+        log.info("GET /staff/query - Query staff: {}", query);
+        if (query.getFields() != null) {
+            return ApiResponse.success(staffService.queryStaffFields(query));
+        }
+        return ApiResponse.success(staffService.queryStaff(query));
+    }
+    
+    /**
+     * Stream all staff as NDJSON, one row per line
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllStaff() {
+        log.info("GET /staff/stream - Stream all staff");
+        StreamingResponseBody body = out -> staffExportService.export(
+                StaffExportService.Format.NDJSON, null, null, null, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
     
     /**
-     * Get staff by ID
+     * Export staff as a CSV or NDJSON download, optionally filtered and gzip-encoded
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStaff(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String position,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        log.info("GET /staff/export - Export staff as {} (department={}, status={}, position={}, gzip={})",
+                format, departmentId, status, position, gzip);
+        StaffExportService.Format exportFormat = parseExportFormat(format);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                // syncFlush so that periodic flushes reach the client instead of waiting in the deflater
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192, true);
+                staffExportService.export(exportFormat, departmentId, status, position, gzipOut);
+                gzipOut.finish();
+            } else {
+                staffExportService.export(exportFormat, departmentId, status, position, out);
+            }
+        };
+        
+        boolean csv = exportFormat == StaffExportService.Format.CSV;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(csv ? "staff.csv" : "staff.ndjson")
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
+    /**
+     * Get staff by ID; conditional on its ETag / Last-Modified
      */
     @GetMapping("/{id}")
-    public ApiResponse<Staff> getStaffById(@PathVariable Long id) {
+    public ApiResponse<Staff> getStaffById(@PathVariable Long id, WebRequest webRequest) {
         log.info("GET /staff/{} - Get staff by ID", id);
         Staff staff = staffService.getStaffById(id);
+        staffAccessTracker.record(id);
+        VersionStamp version = VersionStamp.of(staff);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return null;
+        }
         return ApiResponse.success(staff);
     }
     
@@ -53,12 +211,55 @@ public class StaffController {
     }
     
     /**
-     * Get staff by department
+     * Get staff by department; answers If-None-Match with 304 before loading the list, and serves
+     * the full rows from their pre-encoded bytes
      */
     @GetMapping("/department/{departmentId}")
-    public ApiResponse<List<Staff>> getStaffByDepartment(@PathVariable Long departmentId) {
+    public ApiResponse<List<?>> getStaffByDepartment(
+            @PathVariable Long departmentId,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         log.info("GET /staff/department/{} - Get staff by department", departmentId);
-        List<Staff> staffList = staffService.getStaffByDepartment(departmentId);
+        String etag = staffService.getStaffByDepartmentVersion(departmentId).getEtag();
+        if (fields != null) {
+            // The normalized selection, so projections never share an ETag
+            etag += "-" + String.join(".", FieldSelection.parse(fields, FieldSelection.STAFF_FIELDS));
+        } else if (SUMMARY_VIEW.equals(view)) {
+            etag += "-" + SUMMARY_VIEW;
+        }
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        if (fields != null) {
+            return ApiResponse.success(staffService.getStaffFieldsByDepartment(departmentId, fields));
+        }
+        if (SUMMARY_VIEW.equals(view)) {
+            return ApiResponse.success(staffService.getStaffSummaryByDepartment(departmentId));
+        }
+        encodedResponseCache.write(EncodedResponseCache.staffByDepartmentKey(departmentId), etag,
+                () -> staffService.getStaffByDepartment(departmentId), request, response);
+        return null;
+    }
+    
+    /**
+     * Get staff of a department and all of its sub-departments
+     */
+    @GetMapping("/department/{departmentId}/subtree")
+    public ApiResponse<List<?>> getStaffByDepartmentSubtree(
+            @PathVariable Long departmentId,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields) {
+        log.info("GET /staff/department/{}/subtree - Get staff by department subtree", departmentId);
+        if (fields != null) {
+            return ApiResponse.success(staffService.getStaffFieldsByDepartmentSubtree(departmentId, fields));
+        }
+        if (SUMMARY_VIEW.equals(view)) {
+            return ApiResponse.success(staffService.getStaffSummaryByDepartmentSubtree(departmentId));
+        }
+        List<Staff> staffList = staffService.getStaffByDepartmentSubtree(departmentId);
         return ApiResponse.success(staffList);
     }
     
@@ -66,8 +267,17 @@ public class StaffController {
      * Get staff by status
      */
     @GetMapping("/status/{status}")
-    public ApiResponse<List<Staff>> getStaffByStatus(@PathVariable String status) {
+    public ApiResponse<List<?>> getStaffByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields) {
         log.info("GET /staff/status/{} - Get staff by status", status);
+        if (fields != null) {
+            return ApiResponse.success(staffService.getStaffFieldsByStatus(status, fields));
+        }
+        if (SUMMARY_VIEW.equals(view)) {
+            return ApiResponse.success(staffService.getStaffSummaryByStatus(status));
+        }
         List<Staff> staffList = staffService.getStaffByStatus(status);
         return ApiResponse.success(staffList);
     }
@@ -76,8 +286,17 @@ public class StaffController {
      * Get staff by position
      */
     @GetMapping("/position/{position}")
-    public ApiResponse<List<Staff>> getStaffByPosition(@PathVariable String position) {
+    public ApiResponse<List<?>> getStaffByPosition(
+            @PathVariable String position,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields) {
         log.info("GET /staff/position/{} - Get staff by position", position);
+        if (fields != null) {
+            return ApiResponse.success(staffService.getStaffFieldsByPosition(position, fields));
+        }
+        if (SUMMARY_VIEW.equals(view)) {
+            return ApiResponse.success(staffService.getStaffSummaryByPosition(position));
+        }
         List<Staff> staffList = staffService.getStaffByPosition(position);
         return ApiResponse.success(staffList);
     }
@@ -86,8 +305,13 @@ public class StaffController {
      * Search staff by name
      */
     @GetMapping("/search")
-    public ApiResponse<List<Staff>> searchStaff(@RequestParam String name) {
+    public ApiResponse<List<?>> searchStaff(
+            @RequestParam String name,
+            @RequestParam(required = false) String view) {
         log.info("GET /staff/search?name={} - Search staff", name);
+        if (SUMMARY_VIEW.equals(view)) {
+            return ApiResponse.success(staffService.searchStaffSummaryByName(name));
+        }
         List<Staff> staffList = staffService.searchStaffByName(name);
         return ApiResponse.success(staffList);
     }
@@ -102,6 +326,16 @@ public class StaffController {
         return ApiResponse.success("Staff created successfully", staff);
     }
     
+    /**
+     * Create or update staff in bulk by staff number
+     */
+    @PostMapping("/batch")
+    public ApiResponse<List<BatchItemResult>> upsertStaffBatch(@RequestBody List<StaffRequest> requests) {
+        log.info("POST /staff/batch - Upsert {} staff", requests.size());
+        List<BatchItemResult> results = staffBatchService.upsertStaff(requests);
+        return ApiResponse.success("Batch processed", results);
+    }
+    
     /**
      * Update staff
      */
@@ -123,4 +357,12 @@ public class StaffController {
         staffService.deleteStaff(id);
         return ApiResponse.success("Staff deleted successfully", null);
     }
+    
+    private static StaffExportService.Format parseExportFormat(String format) {
+        try {
+            return StaffExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unsupported export format, expected csv or ndjson: " + format);
+        }
+    }
 }
@@ -0,0 +1,64 @@
+package com.school.staff.controller;
+
+import com.school.staff.dto.ApiResponse;
+import com.school.staff.entity.ImportJob;
+import com.school.staff.entity.ImportJobError;
+import com.school.staff.service.StaffImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+/**
+ * Staff Import Controller - bulk import of staff from CSV/Excel files
+ */
+@RestController
+@RequestMapping("/staff/import")
+@RequiredArgsConstructor
+@Slf4j
+public class StaffImportController {
+    
+    private final StaffImportService staffImportService;
+    
+    /**
+     * Upload a .csv or .xlsx file and start importing it in the background
+     */
+    @PostMapping
+    public ApiResponse<ImportJob> submitImport(@RequestParam("file") MultipartFile file) {
+        log.info("POST /staff/import - Import file: {}", file.getOriginalFilename());
+        ImportJob job = staffImportService.submitImport(file);
+        return ApiResponse.success("Import job submitted", job);
+    }
+    
+    /**
+     * Get import job progress
+     */
+    @GetMapping("/{jobId}")
+    public ApiResponse<ImportJob> getImportJob(@PathVariable Long jobId) {
+        log.info("GET /staff/import/{} - Get import job", jobId);
+        return ApiResponse.success(staffImportService.getImportJob(jobId));
+    }
+    
+    /**
+     * Get rejected rows of an import job
+     */
+    @GetMapping("/{jobId}/errors")
+    public ApiResponse<List<ImportJobError>> getImportErrors(
+            @PathVariable Long jobId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        log.info("GET /staff/import/{}/errors - Get import errors", jobId);
+        return ApiResponse.success(staffImportService.getImportErrors(jobId, page, Math.min(size, 1000)));
+    }
+    
+    /**
+     * Resume a failed or interrupted import from the last committed chunk
+     */
+    @PostMapping("/{jobId}/resume")
+    public ApiResponse<ImportJob> resumeImport(@PathVariable Long jobId) {
+        log.info("POST /staff/import/{}/resume - Resume import job", jobId);
+        return ApiResponse.success("Import job resumed", staffImportService.resumeImport(jobId));
+    }
+}
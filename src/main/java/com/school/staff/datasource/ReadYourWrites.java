@@ -0,0 +1,63 @@
+package com.school.staff.datasource;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes for replica routing: until the time pinned here, read-only transactions of
+ * the current thread use the primary, so a client does not read a replica that has not yet
+ * applied its own write. Pinned by read-write transactions of web requests (for the rest of
+ * the request) and by ReadYourWritesFilter (for requests of a client that wrote recently);
+ * onPrimary forces the primary for reads that must not see replica lag at all.
+ */
+public final class ReadYourWrites {
+    
+    private static final ThreadLocal<Long> PRIMARY_UNTIL = new ThreadLocal<>();
+    
+    private ReadYourWrites() {
+    }
+    
+    /**
+     * Read from the primary for the next window
+     */
+    public static void recordWrite(Duration window) {
+        pinUntil(System.currentTimeMillis() + window.toMillis());
+    }
+    
+    /**
+     * Read from the primary until the given epoch millis (keeps a later pin)
+     */
+    public static void pinUntil(long epochMillis) {
+        Long current = PRIMARY_UNTIL.get();
+        if (current == null || current < epochMillis) {
+            PRIMARY_UNTIL.set(epochMillis);
+        }
+    }
+    
+    /**
+     * Run a read on the primary; for use inside a read-only transaction whose connection
+     * has not been fetched yet (the router picks it at the first statement)
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        Long previous = PRIMARY_UNTIL.get();
+        PRIMARY_UNTIL.set(Long.MAX_VALUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_UNTIL.remove();
+            } else {
+                PRIMARY_UNTIL.set(previous);
+            }
+        }
+    }
+    
+    public static boolean isPinnedToPrimary() {
+        Long until = PRIMARY_UNTIL.get();
+        return until != null && System.currentTimeMillis() < until;
+    }
+    
+    public static void clear() {
+        PRIMARY_UNTIL.remove();
+    }
+}
@@ -0,0 +1,205 @@
+package com.school.staff.datasource;
+
+import com.school.staff.config.ReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to the replica pools, round robin over the
+ * healthy ones, and everything else to the primary. Must sit behind a LazyConnectionDataSourceProxy
+ * so the physical connection is fetched at the first statement, once the transaction's read-only
+ * flag is set. Replicas failing a health check (connectivity, and replication lag on MySQL
+ * replicas) are skipped until they pass again; without a healthy replica, reads use the primary.
+ * Needs spring.jpa.open-in-view=false: otherwise a request keeps the connection of its first
+ * transaction, and a write after a read-only transaction would be sent to the replica.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements InitializingBean, DisposableBean {
+    
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaProperties properties;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "replica-health-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter fallbackConnections;
+    
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools,
+                                    ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.properties = properties;
+        this.primaryConnections = routedCounter(meterRegistry, "primary");
+        this.replicaConnections = routedCounter(meterRegistry, "replica");
+        this.fallbackConnections = routedCounter(meterRegistry, "primary-fallback");
+        Gauge.builder("datasource.replicas.healthy", replicas, r -> r.stream().filter(Replica::isHealthy).count())
+                .description("Replicas currently serving reads")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public void afterPropertiesSet() {
+        long interval = properties.getHealthCheckInterval().toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, 0, interval, TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Only request threads are pinned: ReadYourWritesFilter clears the pin when the request ends,
+            // while scheduled jobs, the outbox relay and workers would keep it in their ThreadLocal
+            if (TransactionSynchronizationManager.isActualTransactionActive()
+                    && RequestContextHolder.getRequestAttributes() != null) {
+                ReadYourWrites.recordWrite(properties.getReadYourWritesWindow());
+            }
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+        if (ReadYourWrites.isPinnedToPrimary()) {
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+        Replica replica = nextHealthyReplica();
+        if (replica == null) {
+            fallbackConnections.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.pool.getConnection();
+            replicaConnections.increment();
+            return connection;
+        } catch (SQLException e) {
+            replica.markDown(e.getMessage());
+            fallbackConnections.increment();
+            return primary.getConnection();
+        }
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+    
+    @Override
+    public void destroy() {
+        healthChecker.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+    }
+    
+    private Replica nextHealthyReplica() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+    
+    private void checkReplicas() {
+        for (Replica replica : replicas) {
+            try {
+                check(replica);
+            } catch (RuntimeException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+    }
+    
+    private void check(Replica replica) {
+        try (Connection connection = replica.pool.getConnection()) {
+            Long lagSeconds = replicationLagSeconds(connection);
+            if (lagSeconds == null) {
+                replica.markUp();
+            } else if (lagSeconds < 0) {
+                replica.markDown("replication is not running");
+            } else if (lagSeconds > properties.getMaxReplicationLag().toSeconds()) {
+                replica.markDown("replication lag " + Duration.ofSeconds(lagSeconds));
+            } else {
+                replica.markUp();
+            }
+        } catch (SQLException e) {
+            replica.markDown(e.getMessage());
+        }
+    }
+    
+    /**
+     * Seconds behind the source from SHOW REPLICA STATUS (MySQL 8.0.22+): -1 if replication is
+     * stopped, null if the server is not a replica or cannot tell (only connectivity is checked)
+     */
+    private static Long replicationLagSeconds(Connection connection) {
+        try (Statement statement = connection.createStatement();
+             ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!status.next()) {
+                return null;
+            }
+            long lag = status.getLong("Seconds_Behind_Source");
+            return status.wasNull() ? -1L : lag;
+        } catch (SQLException e) {
+            log.trace("Replication status not available: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private static Counter routedCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.connections.routed")
+                .description("Connections handed out by the replica router")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+    
+    private static final class Replica {
+        
+        private final HikariDataSource pool;
+        private volatile boolean healthy = true;
+        
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+        
+        private boolean isHealthy() {
+            return healthy;
+        }
+        
+        private void markUp() {
+            if (!healthy) {
+                healthy = true;
+                log.info("Replica {} is healthy again, serving reads", pool.getPoolName());
+            }
+        }
+        
+        private void markDown(String reason) {
+            if (healthy) {
+                healthy = false;
+                log.warn("Replica {} is unhealthy, reading from the primary: {}", pool.getPoolName(), reason);
+            }
+        }
+    }
+}
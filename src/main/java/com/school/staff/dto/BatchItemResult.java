@@ -0,0 +1,30 @@
+package com.school.staff.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a batch write, in request order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    
+    public enum Status {
+        CREATED,
+        UPDATED,
+        FAILED
+    }
+    
+    private Integer index;
+    private String staffNo;
+    private Status status;
+    private Long id;
+    private String message;
+    
+    public static BatchItemResult failed(int index, String staffNo, String message) {
+        return new BatchItemResult(index, staffNo, Status.FAILED, null, message);
+    }
+}
@@ -0,0 +1,39 @@
+package com.school.staff.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One page of a change feed, oldest change first - pass nextToken back as "since" to continue.
+ * nextToken is returned even when there are no changes (it still moves forward); keep it for the next sync.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedPage<T> {
+    
+    private List<Change<T>> changes;
+    private String nextToken;
+    private Boolean hasMore;
+    
+    /**
+     * A created or updated row (UPSERT, with its current data) or a deletion (DELETE, without data)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Change<T> {
+        
+        public static final String UPSERT = "UPSERT";
+        public static final String DELETE = "DELETE";
+        
+        private String type;
+        private Long id;
+        private LocalDateTime changedAt;
+        private T data;
+    }
+}
@@ -0,0 +1,20 @@
+package com.school.staff.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Keyset (cursor) page wrapper - pass nextCursor back as "after" to fetch the next page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    
+    private List<T> items;
+    private Long nextCursor;
+    private Boolean hasMore;
+}
@@ -0,0 +1,22 @@
+package com.school.staff.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Staff count of a department: headcount of the department itself, totalHeadcount including
+ * all descendant departments. A row with a null departmentId counts staff without a department.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentHeadcount {
+    
+    private Long departmentId;
+    private String code;
+    private String name;
+    private Long parentId;
+    private long headcount;
+    private long totalHeadcount;
+}
@@ -0,0 +1,25 @@
+package com.school.staff.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A department with its child departments, for tree responses
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentNode {
+    
+    private Long id;
+    private String code;
+    private String name;
+    private Long parentId;
+    private Integer level;
+    private Boolean isActive;
+    private List<DepartmentNode> children = new ArrayList<>();
+}
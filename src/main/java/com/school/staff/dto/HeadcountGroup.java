@@ -0,0 +1,17 @@
+package com.school.staff.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of staff with one value of a grouping field; value is null for staff without one
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeadcountGroup {
+    
+    private String value;
+    private long count;
+}
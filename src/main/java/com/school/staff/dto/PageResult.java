@@ -0,0 +1,23 @@
+package com.school.staff.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of results; totalElements and totalPages are null when the count was skipped
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResult<T> {
+    
+    private List<T> items;
+    private Integer page;
+    private Integer size;
+    private Boolean hasNext;
+    private Long totalElements;
+    private Integer totalPages;
+}
@@ -0,0 +1,54 @@
+package com.school.staff.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Filters, paging and sorting of GET /staff/query; every filter is optional
+ */
+@Data
+public class StaffQuery {
+    
+    private Long departmentId;
+    
+    /**
+     * Also match staff of all descendant departments
+     */
+    private Boolean includeSubtree = false;
+    
+    private String status;
+    
+    private String position;
+    
+    private Boolean isActive;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate hireDateFrom;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate hireDateTo;
+    
+    private String name;
+    
+    private Integer page = 0;
+    
+    private Integer size;
+    
+    /**
+     * "property" or "property,asc|desc", repeatable
+     */
+    private List<String> sort;
+    
+    /**
+     * When false, skip the COUNT query and only report whether a next page exists
+     */
+    private Boolean count = true;
+    
+    /**
+     * Comma-separated fields to return instead of whole staff rows, e.g. "name,status"
+     */
+    private String fields;
+}
@@ -0,0 +1,19 @@
+package com.school.staff.dto;
+
+/**
+ * Lightweight staff projection for list views
+ */
+public interface StaffSummary {
+    
+    Long getId();
+    
+    String getStaffNo();
+    
+    String getName();
+    
+    String getDepartmentName();
+    
+    String getPosition();
+    
+    String getStatus();
+}
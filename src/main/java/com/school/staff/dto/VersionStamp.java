@@ -0,0 +1,69 @@
+package com.school.staff.dto;
+
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Cheap validator for conditional GETs: the number of rows behind a response and the latest
+ * updatedAt among them. The count catches deletions, which do not move the latest change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionStamp {
+    
+    private Long count;
+    private LocalDateTime lastModified;
+    
+    /**
+     * A staff response also embeds its department
+     */
+    public static VersionStamp of(Staff staff) {
+        Department department = staff.getDepartment();
+        return new VersionStamp(1L, later(staff.getUpdatedAt(), department == null ? null : department.getUpdatedAt()));
+    }
+    
+    public static VersionStamp of(Department department) {
+        return new VersionStamp(1L, department.getUpdatedAt());
+    }
+    
+    /**
+     * This stamp, also changing whenever the other one's latest change is newer
+     */
+    public VersionStamp including(VersionStamp other) {
+        return new VersionStamp(count, later(lastModified, other.getLastModified()));
+    }
+    
+    public String getEtag() {
+        return count + "-" + (lastModified == null ? "0" : Long.toHexString(epochNanos(toInstant())));
+    }
+    
+    /**
+     * Last-Modified in epoch milliseconds, or -1 when there are no rows
+     */
+    public long getLastModifiedMillis() {
+        return lastModified == null ? -1 : toInstant().toEpochMilli();
+    }
+    
+    private Instant toInstant() {
+        return lastModified.atZone(ZoneId.systemDefault()).toInstant();
+    }
+    
+    private static long epochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+    
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,33 @@
+package com.school.staff.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Deleted Record Entity - tombstone of a deleted staff member or department, served by the change feeds
+ */
+@Entity
+@Table(name = "deleted_records",
+        indexes = @Index(name = "idx_deleted_records_type_deleted_at", columnList = "entity_type, deleted_at, id"))
+@Data
+public class DeletedRecord implements Serializable {
+    
+    public static final String STAFF = "STAFF";
+    public static final String DEPARTMENT = "DEPARTMENT";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private String entityType;
+    
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
  * Department Entity
  */
 @Entity
-@Table(name = "departments")
+@Table(name = "departments", indexes = @Index(name = "idx_departments_updated_at", columnList = "updated_at, id"))
 @Data
 public class Department implements Serializable {
     
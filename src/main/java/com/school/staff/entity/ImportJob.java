@@ -0,0 +1,70 @@
+package com.school.staff.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Import Job Entity - progress of one bulk staff import.
+ * committedRows is updated in the same transaction as each chunk, so a job
+ * can be resumed from exactly the last committed chunk.
+ */
+@Entity
+@Table(name = "import_jobs")
+@Data
+public class ImportJob implements Serializable {
+    
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "file_name", nullable = false, length = 255)
+    private String fileName;
+    
+    @Column(name = "file_path", nullable = false, length = 500)
+    private String filePath;
+    
+    @Column(nullable = false, length = 10)
+    private String format;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+    
+    @Column(name = "committed_rows", nullable = false)
+    private Long committedRows = 0L;
+    
+    @Column(name = "created_count", nullable = false)
+    private Long createdCount = 0L;
+    
+    @Column(name = "updated_count", nullable = false)
+    private Long updatedCount = 0L;
+    
+    @Column(name = "failed_count", nullable = false)
+    private Long failedCount = 0L;
+    
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,31 @@
+package com.school.staff.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Import Job Error Entity - one rejected row of an import
+ */
+@Entity
+@Table(name = "import_job_errors", indexes = @Index(name = "idx_import_job_errors_job", columnList = "job_id, line_number"))
+@Data
+public class ImportJobError implements Serializable {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+    
+    @Column(name = "line_number", nullable = false)
+    private Long lineNumber;
+    
+    @Column(name = "staff_no", length = 50)
+    private String staffNo;
+    
+    @Column(nullable = false, length = 1000)
+    private String message;
+}
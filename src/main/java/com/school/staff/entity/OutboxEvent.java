@@ -0,0 +1,61 @@
+package com.school.staff.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox Event Entity - a change event written in the transaction that made the change,
+ * deleted once every outbox consumer has handled it
+ */
+@Entity
+@Table(name = "outbox_events",
+        indexes = @Index(name = "idx_outbox_events_failed_at", columnList = "failed_at, id"))
+@Data
+public class OutboxEvent implements Serializable {
+    
+    public static final String STAFF = "STAFF";
+    public static final String DEPARTMENT = "DEPARTMENT";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "aggregate_type", nullable = false, length = 20)
+    private String aggregateType;
+    
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+    
+    @Column(name = "event_type", nullable = false, length = 20)
+    private String eventType;
+    
+    /**
+     * The published event (type + before/after snapshots) as JSON
+     */
+    @Column(nullable = false, length = 4000)
+    private String payload;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    /**
+     * After a failed delivery, the event is not retried before this time
+     */
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+    
+    /**
+     * Set when the event ran out of attempts; such events are no longer delivered
+     */
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+}
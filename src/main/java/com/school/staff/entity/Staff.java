@@ -13,7 +13,14 @@ import java.time.LocalDateTime;
  * Staff Entity - Represents school personnel (teachers, administrators, etc.)
  */
 @Entity
-@Table(name = "staff")
+@Table(name = "staff", indexes = {
+        @Index(name = "idx_staff_department_status", columnList = "department_id, status"),
+        @Index(name = "idx_staff_status_hire_date", columnList = "status, hire_date"),
+        @Index(name = "idx_staff_position", columnList = "position"),
+        @Index(name = "idx_staff_hire_date", columnList = "hire_date"),
+        @Index(name = "idx_staff_name", columnList = "name"),
+        @Index(name = "idx_staff_updated_at", columnList = "updated_at, id")
+})
 @Data
 public class Staff implements Serializable {
     
@@ -0,0 +1,40 @@
+package com.school.staff.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Staff Headcount Entity - number of staff in one (department, status, position, gender) group.
+ * Missing values are stored as 0 / "" so every group has exactly one row under the unique key.
+ */
+@Entity
+@Table(name = "staff_headcounts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_staff_headcounts_group",
+                columnNames = {"department_id", "status", "position", "gender"}))
+@Data
+public class StaffHeadcount implements Serializable {
+    
+    public static final long NO_DEPARTMENT = 0;
+    public static final String NO_VALUE = "";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "department_id", nullable = false)
+    private Long departmentId;
+    
+    @Column(nullable = false, length = 20)
+    private String status;
+    
+    @Column(nullable = false, length = 50)
+    private String position;
+    
+    @Column(nullable = false, length = 10)
+    private String gender;
+    
+    @Column(name = "head_count", nullable = false)
+    private Long headCount;
+}
@@ -0,0 +1,10 @@
+package com.school.staff.event;
+
+/**
+ * Kind of change carried by a domain change event
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,24 @@
+package com.school.staff.event;
+
+/**
+ * Published inside the writing transaction whenever a department is created, updated or deleted.
+ * before is null for CREATED, after is null for DELETED.
+ */
+public record DepartmentChangedEvent(ChangeType type, DepartmentSnapshot before, DepartmentSnapshot after) {
+    
+    public static DepartmentChangedEvent created(DepartmentSnapshot after) {
+        return new DepartmentChangedEvent(ChangeType.CREATED, null, after);
+    }
+    
+    public static DepartmentChangedEvent updated(DepartmentSnapshot before, DepartmentSnapshot after) {
+        return new DepartmentChangedEvent(ChangeType.UPDATED, before, after);
+    }
+    
+    public static DepartmentChangedEvent deleted(DepartmentSnapshot before) {
+        return new DepartmentChangedEvent(ChangeType.DELETED, before, null);
+    }
+    
+    public Long departmentId() {
+        return after != null ? after.id() : before.id();
+    }
+}
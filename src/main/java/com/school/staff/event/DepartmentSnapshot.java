@@ -0,0 +1,15 @@
+package com.school.staff.event;
+
+import com.school.staff.entity.Department;
+
+/**
+ * Immutable copy of the department fields that change listeners care about
+ */
+public record DepartmentSnapshot(Long id, String code, String name, Long parentId,
+                                 Integer level, Boolean isActive) {
+    
+    public static DepartmentSnapshot of(Department department) {
+        return new DepartmentSnapshot(department.getId(), department.getCode(), department.getName(),
+                department.getParentId(), department.getLevel(), department.getIsActive());
+    }
+}
@@ -0,0 +1,24 @@
+package com.school.staff.event;
+
+/**
+ * Published inside the writing transaction whenever a staff row is created, updated or deleted.
+ * before is null for CREATED, after is null for DELETED.
+ */
+public record StaffChangedEvent(ChangeType type, StaffSnapshot before, StaffSnapshot after) {
+    
+    public static StaffChangedEvent created(StaffSnapshot after) {
+        return new StaffChangedEvent(ChangeType.CREATED, null, after);
+    }
+    
+    public static StaffChangedEvent updated(StaffSnapshot before, StaffSnapshot after) {
+        return new StaffChangedEvent(ChangeType.UPDATED, before, after);
+    }
+    
+    public static StaffChangedEvent deleted(StaffSnapshot before) {
+        return new StaffChangedEvent(ChangeType.DELETED, before, null);
+    }
+    
+    public Long staffId() {
+        return after != null ? after.id() : before.id();
+    }
+}
@@ -0,0 +1,16 @@
+package com.school.staff.event;
+
+import com.school.staff.entity.Staff;
+
+/**
+ * Immutable copy of the staff fields that change listeners care about
+ */
+public record StaffSnapshot(Long id, String staffNo, String name, String gender, Long departmentId,
+                            String position, String status, Boolean isActive) {
+    
+    public static StaffSnapshot of(Staff staff) {
+        return new StaffSnapshot(staff.getId(), staff.getStaffNo(), staff.getName(), staff.getGender(),
+                staff.getDepartment() == null ? null : staff.getDepartment().getId(),
+                staff.getPosition(), staff.getStatus(), staff.getIsActive());
+    }
+}
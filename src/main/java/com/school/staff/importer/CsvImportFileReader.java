@@ -0,0 +1,45 @@
+package com.school.staff.importer;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV reader - UTF-8, first record is the header
+ */
+public class CsvImportFileReader implements ImportFileReader {
+    
+    @Override
+    public void read(Path file, ImportRowHandler handler) throws IOException {
+        CSVFormat format = CSVFormat.DEFAULT.builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setIgnoreEmptyLines(true)
+                .setTrim(true)
+                .build();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             CSVParser parser = format.parse(reader)) {
+            List<String> headers = parser.getHeaderNames().stream()
+                    .map(ImportFileReader::normalizeHeader)
+                    .toList();
+            long lineNumber = 1;
+            for (CSVRecord record : parser) {
+                lineNumber++;
+                Map<String, String> row = new HashMap<>();
+                for (int i = 0; i < headers.size() && i < record.size(); i++) {
+                    row.put(headers.get(i), record.get(i));
+                }
+                handler.onRow(lineNumber, row);
+            }
+        }
+    }
+}
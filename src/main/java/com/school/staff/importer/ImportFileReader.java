@@ -0,0 +1,22 @@
+package com.school.staff.importer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Streams the rows of an import file to a handler without loading the whole file
+ */
+public interface ImportFileReader {
+    
+    void read(Path file, ImportRowHandler handler) throws IOException;
+    
+    /**
+     * Lower-case, trimmed header name without a UTF-8 BOM
+     */
+    static String normalizeHeader(String header) {
+        if (header == null) {
+            return "";
+        }
+        return header.replace("\uFEFF", "").trim().toLowerCase();
+    }
+}
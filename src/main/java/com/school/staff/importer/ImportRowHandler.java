@@ -0,0 +1,16 @@
+package com.school.staff.importer;
+
+import java.util.Map;
+
+/**
+ * Receives the data rows of an import file one at a time
+ */
+@FunctionalInterface
+public interface ImportRowHandler {
+    
+    /**
+     * @param lineNumber 1-based row number in the file, the header being row 1
+     * @param row        cell values keyed by normalized header name
+     */
+    void onRow(long lineNumber, Map<String, String> row);
+}
@@ -0,0 +1,92 @@
+package com.school.staff.importer;
+
+import com.school.staff.dto.StaffRequest;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps an import row to a StaffRequest. Columns are matched by field name
+ * (case-insensitive) or by the Chinese labels used in the README.
+ * A departmentCode column is resolved against an in-memory code-to-id map.
+ */
+public class StaffRowMapper {
+    
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("yyyy/M/d"),
+            DateTimeFormatter.ofPattern("yyyy-M-d"),
+            DateTimeFormatter.ofPattern("M/d/yy"));
+    
+    private final Map<String, Long> departmentIdsByCode;
+    
+    public StaffRowMapper(Map<String, Long> departmentIdsByCode) {
+        this.departmentIdsByCode = departmentIdsByCode;
+    }
+    
+    /**
+     * @throws IllegalArgumentException if a value cannot be converted
+     */
+    public StaffRequest map(Map<String, String> row) {
+        StaffRequest request = new StaffRequest();
+        request.setStaffNo(value(row, "staffno", "工号"));
+        request.setName(value(row, "name", "姓名"));
+        request.setGender(value(row, "gender", "性别"));
+        request.setBirthDate(date(value(row, "birthdate", "出生日期"), "birthDate"));
+        request.setPhone(value(row, "phone", "电话"));
+        request.setEmail(value(row, "email", "邮箱"));
+        request.setIdCard(value(row, "idcard", "身份证号"));
+        request.setPosition(value(row, "position", "职位"));
+        request.setHireDate(date(value(row, "hiredate", "入职日期"), "hireDate"));
+        request.setStatus(value(row, "status", "状态"));
+        request.setAddress(value(row, "address", "地址"));
+        
+        String isActive = value(row, "isactive", "是否启用");
+        if (isActive != null) {
+            request.setIsActive(isActive.equalsIgnoreCase("true") || isActive.equals("1")
+                    || isActive.equalsIgnoreCase("yes") || isActive.equals("是"));
+        }
+        
+        String departmentId = value(row, "departmentid", "部门id");
+        String departmentCode = value(row, "departmentcode", "部门编码");
+        if (departmentId != null) {
+            try {
+                request.setDepartmentId(Long.valueOf(departmentId));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid departmentId: " + departmentId);
+            }
+        } else if (departmentCode != null) {
+            Long id = departmentIdsByCode.get(departmentCode);
+            if (id == null) {
+                throw new IllegalArgumentException("Department not found with code: " + departmentCode);
+            }
+            request.setDepartmentId(id);
+        }
+        return request;
+    }
+    
+    private static String value(Map<String, String> row, String key, String alias) {
+        String value = row.get(key);
+        if (value == null) {
+            value = row.get(alias);
+        }
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+    
+    private static LocalDate date(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        throw new IllegalArgumentException("Invalid " + field + ": " + value);
+    }
+}
@@ -0,0 +1,101 @@
+package com.school.staff.importer;
+
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Excel (.xlsx) reader using the POI SAX event API, so only the current row is held in memory.
+ * Reads the first sheet; its first row is the header.
+ */
+public class XlsxImportFileReader implements ImportFileReader {
+    
+    @Override
+    public void read(Path file, ImportRowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, null, strings, new RowCollector(handler), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | UnsupportedFileFormatException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Invalid Excel file: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Collects the cells of each row and hands complete rows to the import handler
+     */
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        
+        private final ImportRowHandler handler;
+        private final Map<Integer, String> headers = new HashMap<>();
+        private final Map<Integer, String> cells = new TreeMap<>();
+        private int currentRow;
+        
+        RowCollector(ImportRowHandler handler) {
+            this.handler = handler;
+        }
+        
+        @Override
+        public void startRow(int rowNum) {
+            currentRow = rowNum;
+            cells.clear();
+        }
+        
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference != null) {
+                cells.put((int) new CellReference(cellReference).getCol(), formattedValue);
+            }
+        }
+        
+        @Override
+        public void endRow(int rowNum) {
+            if (headers.isEmpty()) {
+                cells.forEach((col, value) -> headers.put(col, ImportFileReader.normalizeHeader(value)));
+                return;
+            }
+            if (cells.values().stream().allMatch(v -> v == null || v.isBlank())) {
+                return;
+            }
+            Map<String, String> row = new HashMap<>();
+            cells.forEach((col, value) -> {
+                String header = headers.get(col);
+                if (header != null) {
+                    row.put(header, value == null ? null : value.trim());
+                }
+            });
+            handler.onRow(currentRow + 1L, row);
+        }
+    }
+}
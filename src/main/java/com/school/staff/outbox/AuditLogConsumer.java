@@ -0,0 +1,31 @@
+package com.school.staff.outbox;
+
+import com.school.staff.event.DepartmentChangedEvent;
+import com.school.staff.event.StaffChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Audit trail of committed changes on the "audit" logger, one line per change with the
+ * before and after snapshots. Redelivered events are logged again.
+ */
+@Component
+@Slf4j(topic = "audit")
+public class AuditLogConsumer implements OutboxConsumer {
+    
+    @Override
+    public String name() {
+        return "audit";
+    }
+    
+    @Override
+    public void onStaffChanged(StaffChangedEvent event) {
+        log.info("STAFF {} {} before={} after={}", event.staffId(), event.type(), event.before(), event.after());
+    }
+    
+    @Override
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        log.info("DEPARTMENT {} {} before={} after={}",
+                event.departmentId(), event.type(), event.before(), event.after());
+    }
+}
@@ -0,0 +1,23 @@
+package com.school.staff.outbox;
+
+import com.school.staff.event.DepartmentChangedEvent;
+import com.school.staff.event.StaffChangedEvent;
+
+/**
+ * Local side effect of committed changes, fed by the outbox relay. Delivery is at least once:
+ * a failed event is redelivered to every consumer, so handlers must be idempotent. Events arrive
+ * in outbox order within a batch, but retries and relays on other nodes can reorder them.
+ */
+public interface OutboxConsumer {
+    
+    /**
+     * Name used in logs and metrics
+     */
+    String name();
+    
+    default void onStaffChanged(StaffChangedEvent event) {
+    }
+    
+    default void onDepartmentChanged(DepartmentChangedEvent event) {
+    }
+}
@@ -0,0 +1,268 @@
+package com.school.staff.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.staff.entity.OutboxEvent;
+import com.school.staff.event.DepartmentChangedEvent;
+import com.school.staff.event.StaffChangedEvent;
+import com.school.staff.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Drains the outbox: locks a batch of due events, hands each one to every OutboxConsumer and
+ * deletes it in the same transaction once all of them succeeded (at-least-once delivery).
+ * A failed event is retried with exponential backoff and given up after max-attempts, staying
+ * in the table with failed_at set. The relay runs right after local commits and every
+ * poll-interval, which also picks up events committed on nodes that went down before relaying.
+ */
+@Component
+@Slf4j
+public class OutboxRelay implements DisposableBean {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxConsumer> consumers;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate batchTransaction;
+    private final TransactionTemplate deliveryTransaction;
+    
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+    
+    @Value("${app.outbox.retry-backoff:PT1S}")
+    private Duration retryBackoff;
+    
+    @Value("${app.outbox.max-retry-backoff:PT10M}")
+    private Duration maxRetryBackoff;
+    
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+    private final Timer deliveryLag;
+    
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, List<OutboxConsumer> consumers,
+                       ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.consumers = consumers;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        // Consumers run outside the batch transaction, so their failures cannot mark it rollback-only
+        this.deliveryTransaction = new TransactionTemplate(transactionManager);
+        this.deliveryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        
+        this.deliveryLag = Timer.builder("outbox.delivery.lag")
+                .description("Time from writing an event to the outbox until all consumers handled it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Events waiting for delivery")
+                .register(meterRegistry);
+        Gauge.builder("outbox.failed", failed, AtomicLong::get)
+                .description("Events given up after max-attempts")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag", oldestPendingMillis, OutboxRelay::lagSeconds)
+                .description("Age of the oldest event waiting for delivery")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Drain soon on the relay thread; calls while a drain is already scheduled are merged
+     */
+    public void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    wakeUpPending.set(false);
+                    drain();
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the next start picks the events up
+                wakeUpPending.set(false);
+            }
+        }
+    }
+    
+    /**
+     * Relay due events until none are left. If a drain is already running on this node,
+     * it is asked to go round once more instead.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:PT1S}", initialDelayString = "${app.outbox.poll-interval:PT1S}")
+    public void drain() {
+        if (!drainLock.tryLock()) {
+            drainRequested.set(true);
+            return;
+        }
+        try {
+            do {
+                drainRequested.set(false);
+                // A batch with failures ends the round; those events wait for their backoff anyway
+                while (relayBatch() == batchSize) {
+                    log.debug("Relayed a full outbox batch, continuing");
+                }
+            } while (drainRequested.get());
+            refreshBacklog();
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed, retrying at the next poll: {}", e.getMessage());
+        } finally {
+            drainLock.unlock();
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * @return number of events delivered and deleted
+     */
+    private int relayBatch() {
+        Integer delivered = batchTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> events = outboxEventRepository.lockDue(now, PageRequest.of(0, batchSize));
+            List<OutboxEvent> done = new ArrayList<>(events.size());
+            for (OutboxEvent event : events) {
+                if (deliver(event)) {
+                    done.add(event);
+                }
+            }
+            outboxEventRepository.deleteAllInBatch(done);
+            return done.size();
+        });
+        return delivered == null ? 0 : delivered;
+    }
+    
+    /**
+     * Hand the event to every consumer; on failure record the attempt (the entity is managed,
+     * so the batch transaction writes it) and keep the event
+     */
+    private boolean deliver(OutboxEvent event) {
+        RuntimeException failure = null;
+        try {
+            Object changeEvent = readPayload(event);
+            for (OutboxConsumer consumer : consumers) {
+                try {
+                    deliveryTransaction.executeWithoutResult(status -> dispatch(consumer, changeEvent));
+                } catch (RuntimeException e) {
+                    failure = e;
+                    Counter.builder("outbox.consumer.errors")
+                            .tag("consumer", consumer.name())
+                            .register(meterRegistry)
+                            .increment();
+                    log.warn("Outbox consumer {} failed on event {}: {}",
+                            consumer.name(), event.getId(), e.getMessage());
+                }
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        
+        if (failure == null) {
+            deliveryLag.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+            count("delivered");
+            return true;
+        }
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(String.valueOf(failure.getMessage()), 1000));
+        if (attempts >= maxAttempts) {
+            event.setFailedAt(LocalDateTime.now());
+            count("failed");
+            log.error("Giving up outbox event {} ({} {} {}) after {} attempts: {}",
+                    event.getId(), event.getAggregateType(), event.getAggregateId(), event.getEventType(),
+                    attempts, failure.getMessage());
+        } else {
+            event.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+            count("retried");
+        }
+        return false;
+    }
+    
+    private Object readPayload(OutboxEvent event) {
+        Class<?> type = switch (event.getAggregateType()) {
+            case OutboxEvent.STAFF -> StaffChangedEvent.class;
+            case OutboxEvent.DEPARTMENT -> DepartmentChangedEvent.class;
+            default -> throw new RuntimeException("Unknown outbox aggregate type: " + event.getAggregateType());
+        };
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (Exception e) {
+            throw new RuntimeException("Unreadable outbox payload: " + e.getMessage(), e);
+        }
+    }
+    
+    private static void dispatch(OutboxConsumer consumer, Object changeEvent) {
+        if (changeEvent instanceof StaffChangedEvent staffChanged) {
+            consumer.onStaffChanged(staffChanged);
+        } else if (changeEvent instanceof DepartmentChangedEvent departmentChanged) {
+            consumer.onDepartmentChanged(departmentChanged);
+        }
+    }
+    
+    /**
+     * retry-backoff doubled per failed attempt, capped at max-retry-backoff
+     */
+    private Duration backoff(int attempts) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+    
+    private void refreshBacklog() {
+        Object[] backlog = outboxEventRepository.findBacklog().get(0);
+        pending.set(((Number) backlog[0]).longValue());
+        LocalDateTime oldest = (LocalDateTime) backlog[1];
+        oldestPendingMillis.set(oldest == null ? 0 : oldest.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        failed.set(outboxEventRepository.countByFailedAtIsNotNull());
+    }
+    
+    private void count(String result) {
+        meterRegistry.counter("outbox.events", "result", result).increment();
+    }
+    
+    private static double lagSeconds(AtomicLong oldestPendingMillis) {
+        long oldest = oldestPendingMillis.get();
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest) / 1000.0;
+    }
+    
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,94 @@
+package com.school.staff.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.staff.entity.OutboxEvent;
+import com.school.staff.event.DepartmentChangedEvent;
+import com.school.staff.event.StaffChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes change events to the outbox table in the transaction that publishes them, so an event
+ * exists exactly when its change commits. Events of one transaction are buffered and inserted
+ * as one JDBC batch just before commit; after commit the local relay is woken up.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxWriter {
+    
+    private static final String INSERT_SQL = "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, "
+            + "payload, created_at, attempts) VALUES (?, ?, ?, ?, ?, 0)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxRelay outboxRelay;
+    
+    @EventListener
+    public void onStaffChanged(StaffChangedEvent event) {
+        append(OutboxEvent.STAFF, event.staffId(), event.type().name(), event);
+    }
+    
+    @EventListener
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        append(OutboxEvent.DEPARTMENT, event.departmentId(), event.type().name(), event);
+    }
+    
+    private void append(String aggregateType, Long aggregateId, String eventType, Object event) {
+        Object[] row = {aggregateType, aggregateId, eventType, toJson(event), LocalDateTime.now()};
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jdbcTemplate.update(INSERT_SQL, row);
+            outboxRelay.wakeUp();
+            return;
+        }
+        Buffer buffer = (Buffer) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            buffer = new Buffer();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(buffer);
+        }
+        buffer.rows.add(row);
+    }
+    
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize change event: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Outbox rows of the current transaction
+     */
+    private class Buffer implements TransactionSynchronization {
+        
+        private final List<Object[]> rows = new ArrayList<>();
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            log.debug("Wrote {} outbox events", rows.size());
+        }
+        
+        @Override
+        public void afterCommit() {
+            outboxRelay.wakeUp();
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(OutboxWriter.this);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.school.staff.reactive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.server.reactive.HttpHandler;
+
+/**
+ * Reactor Netty server for the reactive read API. It starts once the servlet web server is
+ * up, so it never runs in mock-environment tests, and it stops with the context.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveReadServer implements ApplicationListener<ServletWebServerInitializedEvent>, DisposableBean {
+    
+    private final HttpHandler httpHandler;
+    private final int port;
+    private WebServer webServer;
+    
+    @Override
+    public synchronized void onApplicationEvent(ServletWebServerInitializedEvent event) {
+        if (webServer != null) {
+            return;
+        }
+        webServer = new NettyReactiveWebServerFactory(port).getWebServer(httpHandler);
+        webServer.start();
+        log.info("Reactive read API started on port {}", webServer.getPort());
+    }
+    
+    @Override
+    public synchronized void destroy() {
+        if (webServer != null) {
+            webServer.stop();
+            webServer = null;
+        }
+    }
+}
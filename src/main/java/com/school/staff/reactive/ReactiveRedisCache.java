@@ -0,0 +1,86 @@
+package com.school.staff.reactive;
+
+import com.school.staff.cache.EntryVersions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Reactive read-through view of a Redis cache that the servlet side also uses. It shares the
+ * key prefix, value codec, TTL and entry versions, so both APIs read and fill the same entries.
+ * If Redis fails, the value comes from the loader instead of failing the request.
+ */
+@Slf4j
+public class ReactiveRedisCache {
+    
+    private final String name;
+    private final String keyPrefix;
+    private final RedisCacheConfiguration configuration;
+    private final ReactiveRedisTemplate<String, Object> template;
+    
+    public ReactiveRedisCache(String name, RedisCacheConfiguration configuration,
+                              ReactiveRedisConnectionFactory connectionFactory) {
+        this.name = name;
+        this.keyPrefix = configuration.getKeyPrefixFor(name);
+        this.configuration = configuration;
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(RedisSerializer.string())
+                .value(configuration.getValueSerializationPair())
+                .build();
+        this.template = new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+    
+    /**
+     * Return the cached value for the key, or load it and cache it when absent
+     */
+    public <T> Mono<T> get(Object key, Class<T> type, Mono<T> loader) {
+        String redisKey = keyPrefix + key;
+        return template.opsForValue().get(redisKey)
+                .onErrorResume(e -> {
+                    log.warn("Reactive read of cache '{}' key {} failed: {}", name, key, e.getMessage());
+                    return Mono.empty();
+                })
+                .filter(type::isInstance)
+                .map(type::cast)
+                .switchIfEmpty(Mono.defer(() -> loader.flatMap(value -> put(redisKey, value).thenReturn(value))));
+    }
+    
+    private Mono<Boolean> put(String redisKey, Object value) {
+        Duration ttl = configuration.getTtlFunction().getTimeToLive(redisKey, value);
+        Long version = EntryVersions.of(value);
+        Mono<Boolean> write = version == null
+                ? template.opsForValue().set(redisKey, value, ttl)
+                : putIfNewer(redisKey, value, version, ttl);
+        return write
+                .onErrorResume(e -> {
+                    log.warn("Reactive write of cache '{}' key {} failed: {}", name, redisKey, e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+    
+    /**
+     * Same versioned write as the servlet-side cache: skipped if Redis holds a newer version
+     */
+    private Mono<Boolean> putIfNewer(String redisKey, Object value, long version, Duration ttl) {
+        ByteBuffer script = utf8(EntryVersions.PUT_IF_NEWER_SCRIPT);
+        ByteBuffer storeValue = template.getSerializationContext().getValueSerializationPair().write(value);
+        return template.execute(connection -> connection.scriptingCommands().<Long>eval(script, ReturnType.INTEGER, 2,
+                        utf8(redisKey), utf8(EntryVersions.versionKey(redisKey)), storeValue,
+                        utf8(Long.toString(version)), utf8(Long.toString(ttl.toMillis()))))
+                .next()
+                .map(written -> written == 1);
+    }
+    
+    private static ByteBuffer utf8(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,27 @@
+package com.school.staff.reactive;
+
+import com.school.staff.config.CacheProperties;
+import com.school.staff.config.RedisConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the reactive views of the Redis caches with the same configuration as the cache manager
+ */
+@Component
+@RequiredArgsConstructor
+public class ReactiveRedisCacheManager {
+    
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final CacheProperties cacheProperties;
+    private final Map<String, ReactiveRedisCache> caches = new ConcurrentHashMap<>();
+    
+    public ReactiveRedisCache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> new ReactiveRedisCache(cacheName,
+                RedisConfig.cacheConfiguration(cacheProperties, cacheName), connectionFactory));
+    }
+}
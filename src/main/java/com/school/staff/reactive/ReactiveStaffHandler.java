@@ -0,0 +1,116 @@
+package com.school.staff.reactive;
+
+import com.school.staff.dto.ApiResponse;
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive read endpoints for staff and departments. Lists are streamed element by element
+ * as a JSON array, or as NDJSON for "Accept: application/x-ndjson". Single lookups keep the
+ * ApiResponse envelope of the servlet API.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveStaffHandler {
+    
+    private final ReactiveStaffRepository reactiveStaffRepository;
+    private final ReactiveRedisCacheManager reactiveRedisCacheManager;
+    
+    public Mono<ServerResponse> getAllStaff(ServerRequest request) {
+        log.info("GET /staff - Stream all staff (reactive)");
+        return stream(request, reactiveStaffRepository.findAll(), Staff.class);
+    }
+    
+    public Mono<ServerResponse> getStaffById(ServerRequest request) {
+        Long id = Long.valueOf(request.pathVariable("id"));
+        log.info("GET /staff/{} - Get staff by ID (reactive)", id);
+        return single(reactiveRedisCacheManager.getCache("staff")
+                        .get(id, Staff.class, reactiveStaffRepository.findById(id)),
+                "Staff not found with id: " + id);
+    }
+    
+    public Mono<ServerResponse> getStaffByStaffNo(ServerRequest request) {
+        String staffNo = request.pathVariable("staffNo");
+        log.info("GET /staff/staffno/{} - Get staff by staff number (reactive)", staffNo);
+        return single(reactiveStaffRepository.findByStaffNo(staffNo), "Staff not found with staff number: " + staffNo);
+    }
+    
+    public Mono<ServerResponse> getStaffByDepartment(ServerRequest request) {
+        Long departmentId = Long.valueOf(request.pathVariable("departmentId"));
+        log.info("GET /staff/department/{} - Stream staff by department (reactive)", departmentId);
+        return stream(request, reactiveStaffRepository.findByDepartmentId(departmentId), Staff.class);
+    }
+    
+    public Mono<ServerResponse> getStaffByStatus(ServerRequest request) {
+        String status = request.pathVariable("status");
+        log.info("GET /staff/status/{} - Stream staff by status (reactive)", status);
+        return stream(request, reactiveStaffRepository.findByStatus(status), Staff.class);
+    }
+    
+    public Mono<ServerResponse> getStaffByPosition(ServerRequest request) {
+        String position = request.pathVariable("position");
+        log.info("GET /staff/position/{} - Stream staff by position (reactive)", position);
+        return stream(request, reactiveStaffRepository.findByPosition(position), Staff.class);
+    }
+    
+    public Mono<ServerResponse> getAllDepartments(ServerRequest request) {
+        log.info("GET /departments - Stream all departments (reactive)");
+        return stream(request, reactiveStaffRepository.findAllDepartments(), Department.class);
+    }
+    
+    public Mono<ServerResponse> getDepartmentById(ServerRequest request) {
+        Long id = Long.valueOf(request.pathVariable("id"));
+        log.info("GET /departments/{} - Get department by ID (reactive)", id);
+        return single(reactiveRedisCacheManager.getCache("departments")
+                        .get(id, Department.class, reactiveStaffRepository.findDepartmentById(id)),
+                "Department not found with id: " + id);
+    }
+    
+    public Mono<ServerResponse> getDepartmentByCode(ServerRequest request) {
+        String code = request.pathVariable("code");
+        log.info("GET /departments/code/{} - Get department by code (reactive)", code);
+        return single(reactiveStaffRepository.findDepartmentByCode(code), "Department not found with code: " + code);
+    }
+    
+    public Mono<ServerResponse> getDepartmentsByParentId(ServerRequest request) {
+        Long parentId = Long.valueOf(request.pathVariable("parentId"));
+        log.info("GET /departments/parent/{} - Stream departments by parent (reactive)", parentId);
+        return stream(request, reactiveStaffRepository.findDepartmentsByParentId(parentId), Department.class);
+    }
+    
+    /**
+     * Same envelope and status as GlobalExceptionHandler gives the servlet API
+     */
+    public Mono<ServerResponse> handleError(Throwable error, ServerRequest request) {
+        log.error("Runtime error: {}", error.getMessage(), error);
+        return ServerResponse.status(500).bodyValue(ApiResponse.error(500, error.getMessage()));
+    }
+    
+    /**
+     * Functional endpoints do not negotiate on Accept by themselves: NDJSON when the client
+     * asks for it, otherwise a JSON array that is still written element by element
+     */
+    private <T> Mono<ServerResponse> stream(ServerRequest request, Flux<T> body, Class<T> type) {
+        boolean ndjson = request.headers().accept().stream()
+                .anyMatch(mediaType -> !mediaType.isWildcardType()
+                        && mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON));
+        return ServerResponse.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body, type);
+    }
+    
+    private <T> Mono<ServerResponse> single(Mono<T> body, String notFoundMessage) {
+        return body
+                .switchIfEmpty(Mono.error(() -> new RuntimeException(notFoundMessage)))
+                .flatMap(value -> ServerResponse.ok().bodyValue(ApiResponse.success(value)));
+    }
+}
@@ -0,0 +1,160 @@
+package com.school.staff.reactive;
+
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Non-blocking staff and department reads over R2DBC. Rows are mapped onto the JPA entity
+ * classes so responses have the same shape as the servlet API.
+ *
+ * Lists are read in keyset pages on id, and the next page is queried only when the
+ * subscriber has consumed the previous one. A slow client therefore holds no connection
+ * while its response drains.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveStaffRepository {
+    
+    private static final String DEPARTMENT_COLUMNS =
+            "d.id AS d_id, d.code AS d_code, d.name AS d_name, d.description AS d_description, "
+                    + "d.parent_id AS d_parent_id, d.level AS d_level, d.is_active AS d_is_active, "
+                    + "d.created_at AS d_created_at, d.updated_at AS d_updated_at";
+    
+    private static final String STAFF_SELECT =
+            "SELECT s.id, s.staff_no, s.name, s.gender, s.birth_date, s.phone, s.email, s.id_card, "
+                    + "s.position, s.hire_date, s.status, s.address, s.is_active, s.created_at, s.updated_at, "
+                    + DEPARTMENT_COLUMNS
+                    + " FROM staff s LEFT JOIN departments d ON d.id = s.department_id";
+    
+    private static final String DEPARTMENT_SELECT = "SELECT " + DEPARTMENT_COLUMNS + " FROM departments d";
+    
+    private final DatabaseClient databaseClient;
+    
+    @Value("${app.reactive.page-size:500}")
+    private int pageSize;
+    
+    public Flux<Staff> findAll() {
+        return pages(STAFF_SELECT, "s", null, null, ReactiveStaffRepository::toStaff, Staff::getId);
+    }
+    
+    public Mono<Staff> findById(Long id) {
+        return one(STAFF_SELECT + " WHERE s.id = :value", id, ReactiveStaffRepository::toStaff);
+    }
+    
+    public Mono<Staff> findByStaffNo(String staffNo) {
+        return one(STAFF_SELECT + " WHERE s.staff_no = :value", staffNo, ReactiveStaffRepository::toStaff);
+    }
+    
+    public Flux<Staff> findByDepartmentId(Long departmentId) {
+        return pages(STAFF_SELECT, "s", "s.department_id = :value", departmentId,
+                ReactiveStaffRepository::toStaff, Staff::getId);
+    }
+    
+    public Flux<Staff> findByStatus(String status) {
+        return pages(STAFF_SELECT, "s", "s.status = :value", status, ReactiveStaffRepository::toStaff, Staff::getId);
+    }
+    
+    public Flux<Staff> findByPosition(String position) {
+        return pages(STAFF_SELECT, "s", "s.position = :value", position,
+                ReactiveStaffRepository::toStaff, Staff::getId);
+    }
+    
+    public Flux<Department> findAllDepartments() {
+        return pages(DEPARTMENT_SELECT, "d", null, null, ReactiveStaffRepository::toDepartment, Department::getId);
+    }
+    
+    public Mono<Department> findDepartmentById(Long id) {
+        return one(DEPARTMENT_SELECT + " WHERE d.id = :value", id, ReactiveStaffRepository::toDepartment);
+    }
+    
+    public Mono<Department> findDepartmentByCode(String code) {
+        return one(DEPARTMENT_SELECT + " WHERE d.code = :value", code, ReactiveStaffRepository::toDepartment);
+    }
+    
+    public Flux<Department> findDepartmentsByParentId(Long parentId) {
+        return pages(DEPARTMENT_SELECT, "d", "d.parent_id = :value", parentId,
+                ReactiveStaffRepository::toDepartment, Department::getId);
+    }
+    
+    private <T> Mono<T> one(String sql, Object value, Function<Readable, T> mapper) {
+        return databaseClient.sql(sql)
+                .bind("value", value)
+                .map(mapper)
+                .first();
+    }
+    
+    /**
+     * Stream all matching rows as id-ordered pages, fetching one page per request for more
+     */
+    private <T> Flux<T> pages(String select, String alias, String condition, Object value,
+                              Function<Readable, T> mapper, Function<T, Long> idOf) {
+        return page(select, alias, condition, value, 0L, mapper)
+                .expand(page -> page.size() < pageSize
+                        ? Mono.empty()
+                        : page(select, alias, condition, value, idOf.apply(page.get(page.size() - 1)), mapper))
+                .flatMapIterable(page -> page, 1);
+    }
+    
+    private <T> Mono<List<T>> page(String select, String alias, String condition, Object value, long after,
+                                   Function<Readable, T> mapper) {
+        String sql = select + " WHERE " + alias + ".id > :after"
+                + (condition == null ? "" : " AND " + condition)
+                + " ORDER BY " + alias + ".id LIMIT :limit";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("after", after)
+                .bind("limit", pageSize);
+        if (condition != null) {
+            spec = spec.bind("value", value);
+        }
+        return spec.map(mapper).all().collectList();
+    }
+    
+    private static Staff toStaff(Readable row) {
+        Staff staff = new Staff();
+        staff.setId(row.get("id", Long.class));
+        staff.setStaffNo(row.get("staff_no", String.class));
+        staff.setName(row.get("name", String.class));
+        staff.setGender(row.get("gender", String.class));
+        staff.setBirthDate(row.get("birth_date", LocalDate.class));
+        staff.setPhone(row.get("phone", String.class));
+        staff.setEmail(row.get("email", String.class));
+        staff.setIdCard(row.get("id_card", String.class));
+        staff.setPosition(row.get("position", String.class));
+        staff.setHireDate(row.get("hire_date", LocalDate.class));
+        staff.setStatus(row.get("status", String.class));
+        staff.setAddress(row.get("address", String.class));
+        staff.setIsActive(row.get("is_active", Boolean.class));
+        staff.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        staff.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        if (row.get("d_id", Long.class) != null) {
+            staff.setDepartment(toDepartment(row));
+        }
+        return staff;
+    }
+    
+    private static Department toDepartment(Readable row) {
+        Department department = new Department();
+        department.setId(row.get("d_id", Long.class));
+        department.setCode(row.get("d_code", String.class));
+        department.setName(row.get("d_name", String.class));
+        department.setDescription(row.get("d_description", String.class));
+        department.setParentId(row.get("d_parent_id", Long.class));
+        department.setLevel(row.get("d_level", Integer.class));
+        department.setIsActive(row.get("d_is_active", Boolean.class));
+        department.setCreatedAt(row.get("d_created_at", LocalDateTime.class));
+        department.setUpdatedAt(row.get("d_updated_at", LocalDateTime.class));
+        return department;
+    }
+}
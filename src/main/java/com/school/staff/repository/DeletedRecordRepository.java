@@ -0,0 +1,35 @@
+package com.school.staff.repository;
+
+import com.school.staff.entity.DeletedRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deleted Record Repository
+ */
+@Repository
+public interface DeletedRecordRepository extends JpaRepository<DeletedRecord, Long> {
+    
+    /**
+     * Keyset page of tombstones after (since, afterId) and before until, ordered by (deletedAt, id)
+     */
+    @Query("select r from DeletedRecord r where r.entityType = :entityType and r.deletedAt >= :since "
+            + "and (r.deletedAt > :since or r.id > :afterId) and r.deletedAt < :until "
+            + "order by r.deletedAt, r.id")
+    List<DeletedRecord> findChangesAfter(@Param("entityType") String entityType,
+                                         @Param("since") LocalDateTime since,
+                                         @Param("afterId") Long afterId,
+                                         @Param("until") LocalDateTime until,
+                                         Pageable pageable);
+    
+    @Modifying
+    @Query("delete from DeletedRecord r where r.deletedAt < :before")
+    int deleteByDeletedAtBefore(@Param("before") LocalDateTime before);
+}
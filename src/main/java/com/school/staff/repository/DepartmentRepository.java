@@ -1,9 +1,14 @@
 package com.school.staff.repository;
 
+import com.school.staff.dto.VersionStamp;
 import com.school.staff.entity.Department;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,7 +16,7 @@ import java.util.Optional;
  * Department Repository
  */
 @Repository
-public interface DepartmentRepository extends JpaRepository<Department, Long> {
+public interface DepartmentRepository extends JpaRepository<Department, Long>, DepartmentRepositoryCustom {
     
     Optional<Department> findByCode(String code);
     
@@ -20,4 +25,23 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
     List<Department> findByIsActive(Boolean isActive);
     
     List<Department> findByNameContaining(String name);
+    
+    // Version stamps for conditional GETs
+    
+    @Query("select new com.school.staff.dto.VersionStamp(count(d), max(d.updatedAt)) from Department d")
+    VersionStamp findVersion();
+    
+    @Query("select new com.school.staff.dto.VersionStamp(count(d), max(d.updatedAt)) from Department d where d.id = :id")
+    VersionStamp findVersionById(@Param("id") Long id);
+    
+    /**
+     * Keyset page of departments changed after (since, afterId) and before until, ordered by (updatedAt, id)
+     */
+    @Query("select d from Department d where d.updatedAt >= :since "
+            + "and (d.updatedAt > :since or d.id > :afterId) and d.updatedAt < :until "
+            + "order by d.updatedAt, d.id")
+    List<Department> findChangesAfter(@Param("since") LocalDateTime since,
+                                      @Param("afterId") Long afterId,
+                                      @Param("until") LocalDateTime until,
+                                      Pageable pageable);
 }
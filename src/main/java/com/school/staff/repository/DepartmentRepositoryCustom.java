@@ -0,0 +1,20 @@
+package com.school.staff.repository;
+
+import com.school.staff.entity.Department;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Department queries that Spring Data cannot derive
+ */
+public interface DepartmentRepositoryCustom {
+    
+    /**
+     * Only the given fields (see {@link FieldSelection#DEPARTMENT_FIELDS}) of the matching departments,
+     * as one tuple query
+     */
+    List<Map<String, Object>> findFields(Specification<Department> spec, List<String> fields, Sort sort);
+}
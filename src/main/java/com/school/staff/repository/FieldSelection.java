@@ -0,0 +1,72 @@
+package com.school.staff.repository;
+
+import jakarta.persistence.Tuple;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets (the fields= request parameter): which columns a projection query selects,
+ * and how its tuples become field -> value rows
+ */
+public final class FieldSelection {
+    
+    /**
+     * Selectable staff fields; the department is flattened into departmentId/Code/Name
+     */
+    public static final List<String> STAFF_FIELDS = List.of(
+            "id", "staffNo", "name", "gender", "birthDate", "phone", "email", "idCard",
+            "departmentId", "departmentCode", "departmentName", "position", "hireDate", "status",
+            "address", "isActive", "createdAt", "updatedAt");
+    
+    /**
+     * Selectable department fields
+     */
+    public static final List<String> DEPARTMENT_FIELDS = List.of(
+            "id", "code", "name", "description", "parentId", "level", "isActive", "createdAt", "updatedAt");
+    
+    private FieldSelection() {
+    }
+    
+    /**
+     * Parse "name,status" against the selectable fields. The id is always selected first so rows stay
+     * addressable; a blank value selects every field.
+     */
+    public static List<String> parse(String fields, List<String> selectable) {
+        if (fields == null || fields.isBlank()) {
+            return selectable;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!selectable.contains(name)) {
+                throw new RuntimeException("Unsupported field: " + name);
+            }
+            selected.add(name);
+        }
+        return List.copyOf(selected);
+    }
+    
+    /**
+     * Tuples selected in field order -> rows keyed by field name, in the same order
+     */
+    static List<Map<String, Object>> toRows(List<Tuple> tuples, List<String> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(fields.get(i), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
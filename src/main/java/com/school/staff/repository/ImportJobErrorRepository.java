@@ -0,0 +1,19 @@
+package com.school.staff.repository;
+
+import com.school.staff.entity.ImportJobError;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Import Job Error Repository
+ */
+@Repository
+public interface ImportJobErrorRepository extends JpaRepository<ImportJobError, Long> {
+    
+    List<ImportJobError> findByJobIdOrderByLineNumber(Long jobId, Pageable pageable);
+    
+    long countByJobId(Long jobId);
+}
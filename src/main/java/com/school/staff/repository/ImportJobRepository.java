@@ -0,0 +1,12 @@
+package com.school.staff.repository;
+
+import com.school.staff.entity.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Import Job Repository
+ */
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+}
@@ -0,0 +1,40 @@
+package com.school.staff.repository;
+
+import com.school.staff.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outbox Event Repository
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    /**
+     * Oldest events due for delivery, locked for this transaction. Rows locked by another node's relay
+     * are skipped (lock timeout -2 = SKIP LOCKED), so relays on several nodes drain disjoint batches.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.failedAt is null "
+            + "and (e.nextAttemptAt is null or e.nextAttemptAt <= :now) order by e.id")
+    List<OutboxEvent> lockDue(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    /**
+     * Undelivered events: [count, created time of the oldest]
+     */
+    @Query("select count(e), min(e.createdAt) from OutboxEvent e where e.failedAt is null")
+    List<Object[]> findBacklog();
+    
+    long countByFailedAtIsNotNull();
+}
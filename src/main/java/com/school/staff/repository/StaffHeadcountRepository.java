@@ -0,0 +1,27 @@
+package com.school.staff.repository;
+
+import com.school.staff.entity.StaffHeadcount;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Staff Headcount Repository
+ */
+@Repository
+public interface StaffHeadcountRepository extends JpaRepository<StaffHeadcount, Long> {
+    
+    List<StaffHeadcount> findByDepartmentIdIn(Collection<Long> departmentIds);
+    
+    /**
+     * All counters, locked so that increments of concurrent writes wait for the caller's commit
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from StaffHeadcount h")
+    List<StaffHeadcount> findAllForUpdate();
+}
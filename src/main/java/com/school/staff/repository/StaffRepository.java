@@ -1,27 +1,146 @@
 package com.school.staff.repository;
 
+import com.school.staff.dto.StaffSummary;
+import com.school.staff.dto.VersionStamp;
 import com.school.staff.entity.Staff;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Staff Repository
  */
 @Repository
-public interface StaffRepository extends JpaRepository<Staff, Long> {
+public interface StaffRepository extends JpaRepository<Staff, Long>, JpaSpecificationExecutor<Staff>,
+        StaffRepositoryCustom {
     
+    String SUMMARY_SELECT = "select s.id as id, s.staffNo as staffNo, s.name as name, "
+            + "d.name as departmentName, s.position as position, s.status as status "
+            + "from Staff s left join s.department d ";
+    
+    // Finders load the department in the same statement instead of one extra SELECT per department
+    
+    @EntityGraph(attributePaths = "department")
     Optional<Staff> findByStaffNo(String staffNo);
     
+    @EntityGraph(attributePaths = "department")
+    List<Staff> findByStaffNoIn(Collection<String> staffNos);
+    
+    @EntityGraph(attributePaths = "department")
     List<Staff> findByDepartmentId(Long departmentId);
     
+    @EntityGraph(attributePaths = "department")
+    List<Staff> findByDepartmentIdIn(Collection<Long> departmentIds);
+    
+    @EntityGraph(attributePaths = "department")
     List<Staff> findByStatus(String status);
     
+    @EntityGraph(attributePaths = "department")
     List<Staff> findByIsActive(Boolean isActive);
     
+    @EntityGraph(attributePaths = "department")
     List<Staff> findByNameContaining(String name);
     
+    @EntityGraph(attributePaths = "department")
     List<Staff> findByPosition(String position);
+    
+    @EntityGraph(attributePaths = "department")
+    List<Staff> findByIdInOrderById(Collection<Long> ids);
+    
+    @Override
+    @EntityGraph(attributePaths = "department")
+    Page<Staff> findAll(Specification<Staff> spec, Pageable pageable);
+    
+    @Query("select s.id from Staff s where s.department.id = :departmentId")
+    List<Long> findIdsByDepartmentId(@Param("departmentId") Long departmentId);
+    
+    /**
+     * Staff count per group: [departmentId, status, position, gender, count], null for missing values
+     */
+    @Query("select d.id, s.status, s.position, s.gender, count(s) from Staff s left join s.department d "
+            + "group by d.id, s.status, s.position, s.gender")
+    List<Object[]> countByHeadcountGroup();
+    
+    @Query("select new com.school.staff.dto.VersionStamp(count(s), max(s.updatedAt)) from Staff s "
+            + "where s.department.id = :departmentId")
+    VersionStamp findVersionByDepartmentId(@Param("departmentId") Long departmentId);
+    
+    // Summary projections for list views
+    
+    @Query(SUMMARY_SELECT + "where d.id = :departmentId")
+    List<StaffSummary> findSummaryByDepartmentId(@Param("departmentId") Long departmentId);
+    
+    @Query(SUMMARY_SELECT + "where d.id in :departmentIds")
+    List<StaffSummary> findSummaryByDepartmentIdIn(@Param("departmentIds") Collection<Long> departmentIds);
+    
+    @Query(SUMMARY_SELECT + "where s.status = :status")
+    List<StaffSummary> findSummaryByStatus(@Param("status") String status);
+    
+    @Query(SUMMARY_SELECT + "where s.position = :position")
+    List<StaffSummary> findSummaryByPosition(@Param("position") String position);
+    
+    @Query(SUMMARY_SELECT + "where s.name like concat('%', :name, '%')")
+    List<StaffSummary> findSummaryByNameContaining(@Param("name") String name);
+    
+    @Query(SUMMARY_SELECT + "where s.name like concat('%', :name, '%')")
+    List<StaffSummary> findSummaryByNameContaining(@Param("name") String name, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "where s.id in :ids order by s.id")
+    List<StaffSummary> findSummaryByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Keyset page of summaries, used to load the name search index
+     */
+    @Query(SUMMARY_SELECT + "where s.id > :after order by s.id")
+    List<StaffSummary> findSummaryPageAfter(@Param("after") Long after, Pageable pageable);
+    
+    /**
+     * Keyset page: staff with id greater than the cursor, ordered by id
+     */
+    @Query("select s from Staff s left join fetch s.department where s.id > :after order by s.id")
+    List<Staff> findPageAfter(@Param("after") Long after, Pageable pageable);
+    
+    /**
+     * Keyset page of staff changed after (since, afterId) and before until, ordered by (updatedAt, id)
+     */
+    @Query("select s from Staff s left join fetch s.department where s.updatedAt >= :since "
+            + "and (s.updatedAt > :since or s.id > :afterId) and s.updatedAt < :until "
+            + "order by s.updatedAt, s.id")
+    List<Staff> findChangesAfter(@Param("since") LocalDateTime since,
+                                 @Param("afterId") Long afterId,
+                                 @Param("until") LocalDateTime until,
+                                 Pageable pageable);
+    
+    /**
+     * Forward-only stream over staff, each filter applied only when non-null;
+     * must be consumed inside a transaction and closed.
+     * With MySQL the fetch size only takes effect when useCursorFetch=true is set on the URL.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select s from Staff s left join fetch s.department d " +
+            "where (:departmentId is null or d.id = :departmentId) " +
+            "and (:status is null or s.status = :status) " +
+            "and (:position is null or s.position = :position) " +
+            "order by s.id")
+    Stream<Staff> streamByFilter(@Param("departmentId") Long departmentId,
+                                 @Param("status") String status,
+                                 @Param("position") String position);
 }
@@ -0,0 +1,28 @@
+package com.school.staff.repository;
+
+import com.school.staff.entity.Staff;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Staff queries that Spring Data cannot derive
+ */
+public interface StaffRepositoryCustom {
+    
+    /**
+     * One page of staff (department fetched) without a COUNT query:
+     * one extra row is read to tell whether another page exists
+     */
+    Slice<Staff> findSlice(Specification<Staff> spec, Pageable pageable);
+    
+    /**
+     * Only the given fields (see {@link FieldSelection#STAFF_FIELDS}) of the matching staff, as one
+     * tuple query; the department is joined only when one of its fields is selected.
+     * Reads one extra row like {@link #findSlice}, or everything when the pageable is unpaged.
+     */
+    Slice<Map<String, Object>> findFields(Specification<Staff> spec, List<String> fields, Pageable pageable);
+}
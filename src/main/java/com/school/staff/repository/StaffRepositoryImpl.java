@@ -0,0 +1,92 @@
+package com.school.staff.repository;
+
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of the custom staff queries
+ */
+public class StaffRepositoryImpl implements StaffRepositoryCustom {
+    
+    /**
+     * Flattened department fields -> attribute of the joined department
+     */
+    private static final Map<String, String> DEPARTMENT_ATTRIBUTES = Map.of(
+            "departmentId", "id", "departmentCode", "code", "departmentName", "name");
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Slice<Staff> findSlice(Specification<Staff> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Staff> query = cb.createQuery(Staff.class);
+        Root<Staff> root = query.from(Staff.class);
+        root.fetch("department", JoinType.LEFT);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        
+        List<Staff> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+    
+    @Override
+    public Slice<Map<String, Object>> findFields(Specification<Staff> spec, List<String> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Staff> root = query.from(Staff.class);
+        // Join departments only when one of their columns is selected
+        Join<Staff, Department> department = fields.stream().anyMatch(DEPARTMENT_ATTRIBUTES::containsKey)
+                ? root.join("department", JoinType.LEFT)
+                : null;
+        List<Selection<?>> selections = fields.stream()
+                .<Selection<?>>map(field -> DEPARTMENT_ATTRIBUTES.containsKey(field)
+                        ? department.get(DEPARTMENT_ATTRIBUTES.get(field))
+                        : root.get(field))
+                .toList();
+        query.multiselect(selections);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(FieldSelection.toRows(typed.getResultList(), fields));
+        }
+        List<Tuple> rows = typed
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(FieldSelection.toRows(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, fields),
+                pageable, hasNext);
+    }
+}
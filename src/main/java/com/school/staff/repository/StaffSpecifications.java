@@ -0,0 +1,52 @@
+package com.school.staff.repository;
+
+import com.school.staff.entity.Staff;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Composable filters for dynamic staff queries
+ */
+public final class StaffSpecifications {
+    
+    private StaffSpecifications() {
+    }
+    
+    public static Specification<Staff> departmentIn(Collection<Long> departmentIds) {
+        return (root, query, cb) -> root.get("department").get("id").in(departmentIds);
+    }
+    
+    public static Specification<Staff> idGreaterThan(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+    
+    public static Specification<Staff> hasStatus(String status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+    
+    public static Specification<Staff> hasPosition(String position) {
+        return (root, query, cb) -> cb.equal(root.get("position"), position);
+    }
+    
+    public static Specification<Staff> isActive(Boolean isActive) {
+        return (root, query, cb) -> cb.equal(root.get("isActive"), isActive);
+    }
+    
+    public static Specification<Staff> hiredOnOrAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("hireDate"), date);
+    }
+    
+    public static Specification<Staff> hiredOnOrBefore(LocalDate date) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("hireDate"), date);
+    }
+    
+    public static Specification<Staff> nameContains(String name) {
+        return (root, query, cb) -> cb.like(root.get("name"), "%" + name + "%");
+    }
+    
+    public static Specification<Staff> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+}
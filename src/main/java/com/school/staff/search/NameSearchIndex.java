@@ -0,0 +1,115 @@
+package com.school.staff.search;
+
+import com.school.staff.dto.SearchHit;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A rebuildable NgramIndex. Rebuilds load into a fresh index that is swapped in when complete;
+ * changes applied while a rebuild is loading win over the rows the rebuild reads.
+ * Not ready (and callers fall back to the database) until the first build completes.
+ */
+public class NameSearchIndex {
+    
+    /**
+     * Receives the rows of a rebuild
+     */
+    public interface Loader {
+        void load(Consumer<SearchHit> sink);
+    }
+    
+    // A lock rather than a monitor: the loader blocks on JDBC, which would pin a virtual thread
+    private final Lock rebuildLock = new ReentrantLock();
+    private final Object swapLock = new Object();
+    private volatile NgramIndex current;
+    private Rebuild rebuild;
+    
+    public boolean isReady() {
+        return current != null;
+    }
+    
+    public int size() {
+        NgramIndex index = current;
+        return index == null ? 0 : index.size();
+    }
+    
+    public List<SearchHit> search(String query, int limit, boolean matchInitials) {
+        return current.search(query, limit, matchInitials);
+    }
+    
+    public List<Long> findIdsContaining(String query) {
+        return current.findIdsContaining(query);
+    }
+    
+    public void put(Long id, String name, String code) {
+        apply(id, index -> index.put(id, name, code));
+    }
+    
+    public void remove(Long id) {
+        apply(id, index -> index.remove(id));
+    }
+    
+    /**
+     * Build a fresh index from the loader and swap it in; concurrent rebuilds are serialized
+     */
+    public void rebuild(Loader loader) {
+        rebuildLock.lock();
+        try {
+            Rebuild pending = new Rebuild();
+            synchronized (swapLock) {
+                rebuild = pending;
+            }
+            boolean loaded = false;
+            try {
+                loader.load(pending::load);
+                loaded = true;
+            } finally {
+                synchronized (swapLock) {
+                    if (loaded) {
+                        current = pending.index;
+                    }
+                    rebuild = null;
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+    
+    /**
+     * Apply a change to the live index and to any rebuild in progress. Runs under swapLock
+     * so a change cannot land in the old index after the rebuilt one has been swapped in.
+     */
+    private void apply(Long id, Consumer<NgramIndex> change) {
+        synchronized (swapLock) {
+            if (current != null) {
+                change.accept(current);
+            }
+            if (rebuild != null) {
+                rebuild.apply(id, change);
+            }
+        }
+    }
+    
+    private static class Rebuild {
+        
+        private final NgramIndex index = new NgramIndex();
+        private final Set<Long> touched = new HashSet<>();
+        
+        synchronized void apply(Long id, Consumer<NgramIndex> change) {
+            touched.add(id);
+            change.accept(index);
+        }
+        
+        synchronized void load(SearchHit row) {
+            if (!touched.contains(row.getId())) {
+                index.put(row.getId(), row.getName(), row.getCode());
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.school.staff.search;
+
+import com.school.staff.dto.SearchHit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from 1- and 2-character grams of each name (and of its pinyin initials)
+ * to entry ids. A query intersects the posting lists of its grams and then verifies the
+ * few remaining candidates, so cost depends on the number of matches, not the table size.
+ */
+public class NgramIndex {
+    
+    private static final Comparator<Match> RANKING = Comparator.comparingInt(Match::score)
+            .thenComparingInt(m -> m.entry().name().length())
+            .thenComparingLong(m -> m.entry().id());
+    
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    public void put(Long id, String name, String code) {
+        if (name == null) {
+            remove(id);
+            return;
+        }
+        Entry entry = new Entry(id, name, code, normalize(name), PinyinInitials.of(name));
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+            entries.put(id, entry);
+            for (String gram : entry.grams()) {
+                postings.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Ranked matches: exact name, name prefix, name infix, then (when matchInitials is set)
+     * pinyin-initials prefix and infix; ties go to shorter names and lower ids
+     */
+    public List<SearchHit> search(String query, int limit, boolean matchInitials) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(q)) {
+                Entry entry = entries.get(id);
+                int score = entry.score(q, matchInitials);
+                if (score >= 0) {
+                    matches.add(new Match(entry, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(RANKING);
+        return matches.stream()
+                .limit(limit)
+                .map(m -> new SearchHit(m.entry().id(), m.entry().name(), m.entry().code()))
+                .toList();
+    }
+    
+    /**
+     * Ids of all entries whose name contains the query, ascending - the index equivalent of LIKE '%query%'
+     */
+    public List<Long> findIdsContaining(String query) {
+        String q = normalize(query);
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (q.isEmpty()) {
+                ids.addAll(entries.keySet());
+            } else {
+                for (Long id : candidates(q)) {
+                    if (entries.get(id).normalized().contains(q)) {
+                        ids.add(id);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        ids.sort(null);
+        return ids;
+    }
+    
+    /**
+     * Ids present in the posting list of every gram of the query; caller holds the read lock
+     */
+    private Set<Long> candidates(String q) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : queryGrams(q)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting == null) {
+                return Set.of();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>();
+        outer:
+        for (Long id : lists.get(0)) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(id)) {
+                    continue outer;
+                }
+            }
+            result.add(id);
+        }
+        return result;
+    }
+    
+    private void removeEntry(Long id) {
+        Entry old = entries.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String gram : old.grams()) {
+            Set<Long> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+    
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static Set<String> queryGrams(String q) {
+        if (q.length() == 1) {
+            return Set.of(q);
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 1 < q.length(); i++) {
+            grams.add(q.substring(i, i + 2));
+        }
+        return grams;
+    }
+    
+    private static void addGrams(String key, Set<String> grams) {
+        for (int i = 0; i < key.length(); i++) {
+            grams.add(key.substring(i, i + 1));
+            if (i + 1 < key.length()) {
+                grams.add(key.substring(i, i + 2));
+            }
+        }
+    }
+    
+    private record Entry(Long id, String name, String code, String normalized, List<String> initials) {
+        
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            addGrams(normalized, grams);
+            initials.forEach(key -> addGrams(key, grams));
+            return grams;
+        }
+        
+        int score(String q, boolean matchInitials) {
+            if (normalized.equals(q)) {
+                return 0;
+            }
+            if (normalized.startsWith(q)) {
+                return 1;
+            }
+            if (normalized.contains(q)) {
+                return 2;
+            }
+            if (matchInitials) {
+                if (initials.stream().anyMatch(i -> i.startsWith(q))) {
+                    return 3;
+                }
+                if (initials.stream().anyMatch(i -> i.contains(q))) {
+                    return 4;
+                }
+            }
+            return -1;
+        }
+    }
+    
+    private record Match(Entry entry, int score) {
+    }
+}
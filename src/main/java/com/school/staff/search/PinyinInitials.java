@@ -0,0 +1,85 @@
+package com.school.staff.search;
+
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Pinyin initials of a name, e.g. "张三" -> "zs". Polyphonic characters yield one variant per
+ * distinct initial ("单" -> d / s), capped at MAX_VARIANTS per name.
+ */
+public final class PinyinInitials {
+    
+    private static final int MAX_VARIANTS = 8;
+    
+    private static final HanyuPinyinOutputFormat FORMAT = new HanyuPinyinOutputFormat();
+    
+    static {
+        FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+    
+    private PinyinInitials() {
+    }
+    
+    /**
+     * @return initials variants, or an empty list when the text has no Chinese characters
+     */
+    public static List<String> of(String text) {
+        if (text == null || text.codePoints().noneMatch(PinyinInitials::isHan)) {
+            return List.of();
+        }
+        List<String> variants = new ArrayList<>(List.of(""));
+        for (char c : text.toCharArray()) {
+            Set<Character> initials = initials(c);
+            if (initials.isEmpty()) {
+                continue;
+            }
+            List<String> next = new ArrayList<>();
+            for (String variant : variants) {
+                for (char initial : initials) {
+                    if (next.size() < MAX_VARIANTS) {
+                        next.add(variant + initial);
+                    }
+                }
+            }
+            variants = next;
+        }
+        return variants;
+    }
+    
+    private static Set<Character> initials(char c) {
+        Set<Character> initials = new LinkedHashSet<>();
+        if (isHan(c)) {
+            try {
+                String[] readings = PinyinHelper.toHanyuPinyinStringArray(c, FORMAT);
+                if (readings != null) {
+                    for (String reading : readings) {
+                        if (!reading.isEmpty()) {
+                            initials.add(reading.charAt(0));
+                        }
+                    }
+                }
+            } catch (BadHanyuPinyinOutputFormatCombination e) {
+                throw new IllegalStateException(e);
+            }
+        } else if (Character.isLetterOrDigit(c)) {
+            initials.add(String.valueOf(c).toLowerCase(Locale.ROOT).charAt(0));
+        }
+        return initials;
+    }
+    
+    private static boolean isHan(int codePoint) {
+        return Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN;
+    }
+}
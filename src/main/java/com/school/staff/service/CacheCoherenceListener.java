@@ -0,0 +1,78 @@
+package com.school.staff.service;
+
+import com.school.staff.cache.EntryVersions;
+import com.school.staff.cache.VersionedCache;
+import com.school.staff.entity.Department;
+import com.school.staff.event.ChangeType;
+import com.school.staff.event.DepartmentChangedEvent;
+import com.school.staff.event.StaffChangedEvent;
+import com.school.staff.outbox.OutboxConsumer;
+import com.school.staff.repository.DepartmentRepository;
+import com.school.staff.repository.StaffRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Cache maintenance that @CachePut cannot express, fed by the outbox relay after commit:
+ * deleted rows leave a tombstone version so in-flight loads of the old row cannot cache it again,
+ * and a department change evicts the staff entries that embed that department.
+ * Both are idempotent, so redelivered events are harmless.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheCoherenceListener implements OutboxConsumer {
+    
+    private final CacheManager cacheManager;
+    private final StaffRepository staffRepository;
+    private final DepartmentRepository departmentRepository;
+    
+    @Override
+    public String name() {
+        return "cache";
+    }
+    
+    @Override
+    public void onStaffChanged(StaffChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            evict("staff", event.staffId(), EntryVersions.DELETED);
+        }
+    }
+    
+    @Override
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        Long departmentId = event.departmentId();
+        if (event.type() == ChangeType.CREATED) {
+            return;
+        }
+        long staffFloor = 0;
+        if (event.type() == ChangeType.DELETED) {
+            evict("departments", departmentId, EntryVersions.DELETED);
+        } else {
+            // Staff entries are versioned by the later of their own and their department's updatedAt:
+            // copies embedding the old department are older than this, reloads are not
+            Long version = departmentRepository.findById(departmentId)
+                    .map(Department::getUpdatedAt)
+                    .map(EntryVersions::of)
+                    .orElse(null);
+            staffFloor = version == null ? 0 : version;
+        }
+        List<Long> staffIds = staffRepository.findIdsByDepartmentId(departmentId);
+        for (Long staffId : staffIds) {
+            evict("staff", staffId, staffFloor);
+        }
+        log.debug("Evicted {} staff entries embedding department {}", staffIds.size(), departmentId);
+    }
+    
+    private void evict(String cacheName, Long key, long version) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            VersionedCache.evictBelow(cache, key, version);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.school.staff.service;
+
+import com.school.staff.config.CacheProperties;
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import com.school.staff.repository.DepartmentRepository;
+import com.school.staff.repository.StaffRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Fills the staff and department caches before the application reports ready. Runs as an
+ * ApplicationRunner, which Spring Boot completes before readiness switches to ACCEPTING_TRAFFIC.
+ * Loads all departments and the most-read staff in parallel batches through the caches' read-through
+ * path: entries already in Redis are only copied into the near cache, missing ones are loaded with
+ * one query per batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheWarmUpService implements ApplicationRunner {
+    
+    private final CacheManager cacheManager;
+    private final CacheProperties cacheProperties;
+    private final StaffAccessTracker staffAccessTracker;
+    private final StaffRepository staffRepository;
+    private final DepartmentRepository departmentRepository;
+    private final MeterRegistry meterRegistry;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        CacheProperties.WarmUp warmUp = cacheProperties.getWarmUp();
+        if (!warmUp.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        AtomicInteger departments = new AtomicInteger();
+        AtomicInteger staff = new AtomicInteger();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(warmUp.getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warm-up-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            Cache departmentCache = cacheManager.getCache("departments");
+            for (List<Department> batch : partition(departmentRepository.findAll(), warmUp.getBatchSize())) {
+                Map<Long, Department> rows = batch.stream().collect(Collectors.toMap(Department::getId, d -> d));
+                tasks.add(executor.submit(() -> departments.addAndGet(warm(departmentCache, rows.keySet(), () -> rows))));
+            }
+            Cache staffCache = cacheManager.getCache("staff");
+            List<Long> hotStaffIds = staffAccessTracker.getMostAccessed(warmUp.getStaffCount());
+            for (List<Long> batch : partition(hotStaffIds, warmUp.getBatchSize())) {
+                tasks.add(executor.submit(() -> staff.addAndGet(warm(staffCache, batch, () ->
+                        staffRepository.findByIdInOrderById(batch).stream()
+                                .collect(Collectors.toMap(Staff::getId, Function.identity()))))));
+            }
+            awaitAll(tasks, start + warmUp.getTimeout().toNanos());
+        } catch (RuntimeException e) {
+            // A cold cache is slower, not broken: never fail startup because of warm-up
+            log.warn("Cache warm-up failed: {}", e.getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("cache.warmup")
+                .description("Time spent filling the caches at startup")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Cache warm-up: {} departments, {} staff in {} ms", departments.get(), staff.get(), elapsed / 1_000_000);
+    }
+    
+    /**
+     * Read every id through the cache; the batch's rows are queried once, on the first miss
+     */
+    private <T> int warm(Cache cache, Iterable<Long> ids, Supplier<Map<Long, T>> rowsLoader) {
+        AtomicReference<Map<Long, T>> rows = new AtomicReference<>();
+        int warmed = 0;
+        for (Long id : ids) {
+            try {
+                cache.get(id, () -> {
+                    if (rows.get() == null) {
+                        rows.set(rowsLoader.get());
+                    }
+                    T row = rows.get().get(id);
+                    if (row == null) {
+                        throw new RuntimeException("Not found with id: " + id);
+                    }
+                    return row;
+                });
+                warmed++;
+            } catch (RuntimeException e) {
+                log.debug("Skipping warm-up of {}::{}: {}", cache.getName(), id, e.getMessage());
+            }
+        }
+        return warmed;
+    }
+    
+    private void awaitAll(List<Future<?>> tasks, long deadline) {
+        for (Future<?> task : tasks) {
+            try {
+                task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Cache warm-up timed out, continuing with a partly filled cache");
+                tasks.forEach(t -> t.cancel(true));
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | CancellationException e) {
+                log.warn("Cache warm-up batch failed: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> batches = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            batches.add(items.subList(i, Math.min(i + size, items.size())));
+        }
+        return batches;
+    }
+}
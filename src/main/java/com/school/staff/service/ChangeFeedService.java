@@ -0,0 +1,164 @@
+package com.school.staff.service;
+
+import com.school.staff.datasource.ReadYourWrites;
+import com.school.staff.dto.ChangeFeedPage;
+import com.school.staff.entity.DeletedRecord;
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import com.school.staff.event.ChangeType;
+import com.school.staff.event.DepartmentChangedEvent;
+import com.school.staff.event.StaffChangedEvent;
+import com.school.staff.repository.DeletedRecordRepository;
+import com.school.staff.repository.DepartmentRepository;
+import com.school.staff.repository.StaffRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Change feeds (delta sync) of staff and departments: rows created or updated after a continuation
+ * token plus tombstones of deletions, read by keyset on (updatedAt, id) so a sync costs O(changes).
+ * Only changes older than the settle time are returned: a transaction may commit a little after
+ * its rows got their timestamp, and the token must not move past rows that are not visible yet.
+ * Feeds are read on the primary: a replica lagging more than the settle time would skip rows too.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeFeedService {
+    
+    private final StaffRepository staffRepository;
+    private final DepartmentRepository departmentRepository;
+    private final DeletedRecordRepository deletedRecordRepository;
+    
+    @Value("${app.changes.default-limit:500}")
+    private int defaultLimit;
+    
+    @Value("${app.changes.max-limit:5000}")
+    private int maxLimit;
+    
+    @Value("${app.changes.settle-time:PT5S}")
+    private Duration settleTime;
+    
+    @Value("${app.changes.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+    
+    /**
+     * Staff changed after the token (all staff when since is null), oldest first
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeedPage<Staff> getStaffChanges(String since, Integer limit) {
+        return ReadYourWrites.onPrimary(() -> getChanges(DeletedRecord.STAFF, since, limit,
+                (token, until, page) -> staffRepository.findChangesAfter(token.time(), token.rowAfterId(), until, page),
+                Staff::getId, Staff::getUpdatedAt));
+    }
+    
+    /**
+     * Departments changed after the token (all departments when since is null), oldest first
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeedPage<Department> getDepartmentChanges(String since, Integer limit) {
+        return ReadYourWrites.onPrimary(() -> getChanges(DeletedRecord.DEPARTMENT, since, limit,
+                (token, until, page) -> departmentRepository.findChangesAfter(token.time(), token.rowAfterId(), until, page),
+                Department::getId, Department::getUpdatedAt));
+    }
+    
+    /**
+     * Tombstones are written in the deleting transaction, so they commit or roll back with the delete
+     */
+    @EventListener
+    public void onStaffChanged(StaffChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            recordDeletion(DeletedRecord.STAFF, event.staffId());
+        }
+    }
+    
+    @EventListener
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            recordDeletion(DeletedRecord.DEPARTMENT, event.departmentId());
+        }
+    }
+    
+    /**
+     * Drop tombstones past retention; tokens older than that are rejected, so none is still needed
+     */
+    @Scheduled(cron = "${app.changes.prune-cron:0 30 3 * * *}")
+    @Transactional
+    public void pruneTombstones() {
+        int deleted = deletedRecordRepository.deleteByDeletedAtBefore(LocalDateTime.now().minus(tombstoneRetention));
+        log.info("Pruned {} tombstones older than {}", deleted, tombstoneRetention);
+    }
+    
+    private <T> ChangeFeedPage<T> getChanges(String entityType, String since, Integer limit, RowQuery<T> rowQuery,
+                                             Function<T, Long> idOf, Function<T, LocalDateTime> changedAtOf) {
+        int size = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+        LocalDateTime now = LocalDateTime.now();
+        ChangeToken token = since == null || since.isBlank() ? ChangeToken.START : ChangeToken.decode(since);
+        if (!token.equals(ChangeToken.START) && token.time().isBefore(now.minus(tombstoneRetention))) {
+            // Deletions since then may already be pruned
+            throw new RuntimeException("Change token expired, sync again without since");
+        }
+        log.debug("Getting {} changes after {} with limit {}", entityType, token, size);
+        
+        // One extra row from each source tells whether another page exists
+        LocalDateTime until = now.minus(settleTime);
+        Pageable page = PageRequest.of(0, size + 1);
+        List<Entry<T>> entries = new ArrayList<>();
+        for (T row : rowQuery.find(token, until, page)) {
+            LocalDateTime changedAt = changedAtOf.apply(row);
+            entries.add(new Entry<>(new ChangeToken(changedAt, false, idOf.apply(row)),
+                    new ChangeFeedPage.Change<>(ChangeFeedPage.Change.UPSERT, idOf.apply(row), changedAt, row)));
+        }
+        for (DeletedRecord deleted : deletedRecordRepository.findChangesAfter(
+                entityType, token.time(), token.deletionAfterId(), until, page)) {
+            entries.add(new Entry<>(new ChangeToken(deleted.getDeletedAt(), true, deleted.getId()),
+                    new ChangeFeedPage.Change<>(ChangeFeedPage.Change.DELETE, deleted.getEntityId(),
+                            deleted.getDeletedAt(), null)));
+        }
+        entries.sort(Comparator.comparing(Entry::position, ChangeToken.ORDER));
+        
+        boolean hasMore = entries.size() > size;
+        List<Entry<T>> pageEntries = hasMore ? entries.subList(0, size) : entries;
+        ChangeToken next;
+        if (!pageEntries.isEmpty()) {
+            next = pageEntries.get(pageEntries.size() - 1).position();
+        } else if (token.time().isBefore(until)) {
+            // Nothing changed before until, so the token can move there; otherwise a client of a
+            // quiet feed would keep its old token until it expires
+            next = new ChangeToken(until, false, 0);
+        } else {
+            next = token;
+        }
+        return new ChangeFeedPage<>(pageEntries.stream().map(Entry::change).toList(), next.encode(), hasMore);
+    }
+    
+    private void recordDeletion(String entityType, Long entityId) {
+        DeletedRecord record = new DeletedRecord();
+        record.setEntityType(entityType);
+        record.setEntityId(entityId);
+        record.setDeletedAt(LocalDateTime.now());
+        deletedRecordRepository.save(record);
+    }
+    
+    @FunctionalInterface
+    private interface RowQuery<T> {
+        List<T> find(ChangeToken token, LocalDateTime until, Pageable page);
+    }
+    
+    private record Entry<T>(ChangeToken position, ChangeFeedPage.Change<T> change) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.school.staff.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Position in a change feed: the (time, kind, id) of the last change read. Changes are ordered
+ * by time, then upserts before deletions, then row id (tombstone id for deletions).
+ * Sent to clients as an opaque base64url string.
+ */
+record ChangeToken(LocalDateTime time, boolean deletion, long id) {
+    
+    static final ChangeToken START = new ChangeToken(LocalDateTime.of(1970, 1, 1, 0, 0), false, 0);
+    
+    static final Comparator<ChangeToken> ORDER = Comparator.comparing(ChangeToken::time)
+            .thenComparing(ChangeToken::deletion)
+            .thenComparingLong(ChangeToken::id);
+    
+    /**
+     * Lowest row id after this token among rows changed at its time; none after a deletion token
+     */
+    long rowAfterId() {
+        return deletion ? Long.MAX_VALUE : id;
+    }
+    
+    /**
+     * Lowest tombstone id after this token among deletions at its time; all of them after a row token
+     */
+    long deletionAfterId() {
+        return deletion ? id : 0;
+    }
+    
+    String encode() {
+        long micros = time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+        String plain = micros + "." + (deletion ? "d" : "u") + "." + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    static ChangeToken decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\.");
+            if (parts.length != 3 || !(parts[1].equals("u") || parts[1].equals("d"))) {
+                throw new IllegalArgumentException(token);
+            }
+            long micros = Long.parseLong(parts[0]);
+            LocalDateTime time = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                    (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+            return new ChangeToken(time, parts[1].equals("d"), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid change token: " + token);
+        }
+    }
+}
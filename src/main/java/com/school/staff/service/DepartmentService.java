@@ -1,17 +1,24 @@
 package com.school.staff.service;
 
 import com.school.staff.dto.DepartmentRequest;
+import com.school.staff.dto.VersionStamp;
 import com.school.staff.entity.Department;
+import com.school.staff.event.DepartmentChangedEvent;
+import com.school.staff.event.DepartmentSnapshot;
 import com.school.staff.repository.DepartmentRepository;
+import com.school.staff.repository.FieldSelection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Department Service
@@ -22,6 +29,9 @@ import java.util.List;
 public class DepartmentService {
     
     private final DepartmentRepository departmentRepository;
+    private final SearchService searchService;
+    private final DepartmentTreeService departmentTreeService;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Get all departments
@@ -31,10 +41,33 @@ public class DepartmentService {
         return departmentRepository.findAll();
     }
     
+    /**
+     * Get only the given fields of all departments
+     */
+    public List<Map<String, Object>> getAllDepartmentFields(String fields) {
+        log.debug("Getting all department fields: {}", fields);
+        return departmentRepository.findFields(null,
+                FieldSelection.parse(fields, FieldSelection.DEPARTMENT_FIELDS), Sort.by("id"));
+    }
+    
+    /**
+     * Version stamp of the department list, without loading it
+     */
+    public VersionStamp getDepartmentsVersion() {
+        return departmentRepository.findVersion();
+    }
+    
+    /**
+     * Version stamp of one department; count 0 when it does not exist
+     */
+    public VersionStamp getDepartmentVersion(Long id) {
+        return departmentRepository.findVersionById(id);
+    }
+    
     /**
      * Get department by ID with caching
      */
-    @Cacheable(value = "departments", key = "#id")
+    @Cacheable(value = "departments", key = "#id", sync = true)
     public Department getDepartmentById(Long id) {
         log.debug("Getting department by id: {}", id);
         return departmentRepository.findById(id)
@@ -59,11 +92,26 @@ public class DepartmentService {
     }
     
     /**
-     * Search departments by name
+     * Get only the given fields of the departments under a parent
+     */
+    public List<Map<String, Object>> getDepartmentFieldsByParentId(Long parentId, String fields) {
+        log.debug("Getting department fields {} by parent id: {}", fields, parentId);
+        return departmentRepository.findFields((root, query, cb) -> cb.equal(root.get("parentId"), parentId),
+                FieldSelection.parse(fields, FieldSelection.DEPARTMENT_FIELDS), Sort.by("id"));
+    }
+    
+    /**
+     * Search departments by name, resolved through the name index when it is loaded
      */
     public List<Department> searchDepartmentsByName(String name) {
         log.debug("Searching departments by name: {}", name);
-        return departmentRepository.findByNameContaining(name);
+        List<Long> ids = searchService.findDepartmentIdsByName(name);
+        if (ids == null) {
+            return departmentRepository.findByNameContaining(name);
+        }
+        return departmentRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(Department::getId))
+                .toList();
     }
     
     /**
@@ -86,7 +134,9 @@ public class DepartmentService {
         department.setLevel(request.getLevel());
         department.setIsActive(request.getIsActive());
         
-        return departmentRepository.save(department);
+        Department saved = departmentRepository.save(department);
+        eventPublisher.publishEvent(DepartmentChangedEvent.created(DepartmentSnapshot.of(saved)));
+        return saved;
     }
     
     /**
@@ -108,6 +158,12 @@ public class DepartmentService {
             });
         }
         
+        // Moving a department under itself or one of its descendants would create a cycle
+        if (request.getParentId() != null && departmentTreeService.isInSubtree(id, request.getParentId())) {
+            throw new RuntimeException("Department cannot be moved under its own subtree: " + request.getParentId());
+        }
+        
+        DepartmentSnapshot before = DepartmentSnapshot.of(department);
         department.setCode(request.getCode());
         department.setName(request.getName());
         department.setDescription(request.getDescription());
@@ -115,17 +171,19 @@ public class DepartmentService {
         department.setLevel(request.getLevel());
         department.setIsActive(request.getIsActive());
         
-        return departmentRepository.save(department);
+        Department saved = departmentRepository.save(department);
+        eventPublisher.publishEvent(DepartmentChangedEvent.updated(before, DepartmentSnapshot.of(saved)));
+        return saved;
     }
     
     /**
-     * Delete department
+     * Delete department; CacheCoherenceListener evicts its cache entry after commit
      */
     @Transactional
-    @CacheEvict(value = "departments", key = "#id")
     public void deleteDepartment(Long id) {
         log.debug("Deleting department: {}", id);
         Department department = getDepartmentById(id);
         departmentRepository.delete(department);
+        eventPublisher.publishEvent(DepartmentChangedEvent.deleted(DepartmentSnapshot.of(department)));
     }
 }
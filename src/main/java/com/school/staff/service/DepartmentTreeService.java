@@ -0,0 +1,308 @@
+package com.school.staff.service;
+
+import com.school.staff.dto.DepartmentNode;
+import com.school.staff.entity.Department;
+import com.school.staff.event.DepartmentChangedEvent;
+import com.school.staff.event.DepartmentSnapshot;
+import com.school.staff.repository.DepartmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Department Tree Service - in-memory parent/child index over all departments.
+ * Loaded from the database on first use, kept current from committed department changes
+ * and reloaded periodically to pick up writes made on other nodes; reloads read the database
+ * without blocking readers. Subtree reads cost
+ * O(subtree size). Departments whose parent does not exist are treated as roots.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DepartmentTreeService {
+    
+    private final DepartmentRepository departmentRepository;
+    
+    @Value("${app.departments.miss-reload-interval:PT5S}")
+    private Duration missReloadInterval = Duration.ofSeconds(5);
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializes reloads; a lock rather than a monitor so waiting virtual threads are not pinned
+    private final Lock loadLock = new ReentrantLock();
+    private final AtomicLong lastReloadNanos = new AtomicLong(System.nanoTime());
+    private Map<Long, DepartmentSnapshot> departments = new HashMap<>();
+    private Map<Long, Set<Long>> children = new HashMap<>();
+    // Changes applied while a reload reads the database, replayed onto its result; guarded by lock
+    private List<DepartmentChangedEvent> changesDuringReload;
+    private volatile boolean loaded;
+    
+    /**
+     * Get the whole department forest, children ordered by id
+     */
+    public List<DepartmentNode> getTree() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<DepartmentNode> roots = new ArrayList<>();
+            new TreeSet<>(departments.keySet()).stream()
+                    .filter(this::isRoot)
+                    .forEach(id -> roots.add(buildNode(id)));
+            return roots;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Get a department with all of its descendants
+     */
+    public DepartmentNode getSubtree(Long id) {
+        ensureContains(id);
+        lock.readLock().lock();
+        try {
+            requireExists(id);
+            return buildNode(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Ids of a department and all of its descendants
+     */
+    public Set<Long> getSubtreeIds(Long id) {
+        ensureContains(id);
+        lock.readLock().lock();
+        try {
+            requireExists(id);
+            Set<Long> ids = new LinkedHashSet<>();
+            Deque<Long> pending = new ArrayDeque<>();
+            pending.push(id);
+            while (!pending.isEmpty()) {
+                Long current = pending.pop();
+                // A parent cycle in the data must not loop forever
+                if (ids.add(current)) {
+                    children.getOrDefault(current, Set.of()).forEach(pending::push);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Whether candidateId is rootId or one of its descendants; false if rootId is unknown
+     */
+    public boolean isInSubtree(Long rootId, Long candidateId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Set<Long> seen = new HashSet<>();
+            Long current = candidateId;
+            // Walk up from the candidate; cost is its depth, and a parent cycle stops at a repeat
+            while (current != null && seen.add(current)) {
+                if (current.equals(rootId)) {
+                    return true;
+                }
+                DepartmentSnapshot department = departments.get(current);
+                current = department == null ? null : department.parentId();
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Reload the tree from the database
+     */
+    @Scheduled(initialDelayString = "${app.departments.tree-refresh-interval:PT10M}",
+            fixedDelayString = "${app.departments.tree-refresh-interval:PT10M}")
+    public void reload() {
+        loadLock.lock();
+        try {
+            lastReloadNanos.set(System.nanoTime());
+            lock.writeLock().lock();
+            try {
+                changesDuringReload = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            
+            // Read without blocking tree readers; only the swap takes the write lock
+            List<Department> all;
+            try {
+                all = departmentRepository.findAll();
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    changesDuringReload = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            Map<Long, DepartmentSnapshot> loadedDepartments = new HashMap<>();
+            Map<Long, Set<Long>> loadedChildren = new HashMap<>();
+            all.forEach(d -> add(loadedDepartments, loadedChildren, DepartmentSnapshot.of(d)));
+            
+            lock.writeLock().lock();
+            try {
+                // A change committed during the read may be missing from it; apply it again
+                changesDuringReload.forEach(event -> apply(loadedDepartments, loadedChildren, event));
+                changesDuringReload = null;
+                departments = loadedDepartments;
+                children = loadedChildren;
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Department tree loaded: {} departments", all.size());
+        } finally {
+            loadLock.unlock();
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringReload != null) {
+                changesDuringReload.add(event);
+            }
+            // Not loaded yet: the first load will read the committed state
+            if (loaded) {
+                apply(departments, children, event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void ensureLoaded() {
+        if (!loaded) {
+            loadLock.lock();
+            try {
+                if (!loaded) {
+                    reload();
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        }
+    }
+    
+    /**
+     * A department missing from the tree may have been created on another node since the
+     * last reload; reload before reporting it as not found, but at most once per
+     * miss-reload-interval, so requests with unknown ids cannot keep reloading the tree
+     */
+    private void ensureContains(Long id) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            if (departments.containsKey(id)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        long last = lastReloadNanos.get();
+        if (System.nanoTime() - last >= missReloadInterval.toNanos()
+                && lastReloadNanos.compareAndSet(last, System.nanoTime())) {
+            log.debug("Department {} not in the tree, reloading", id);
+            reload();
+        }
+    }
+    
+    private static void apply(Map<Long, DepartmentSnapshot> departments, Map<Long, Set<Long>> children,
+                              DepartmentChangedEvent event) {
+        remove(departments, children, event.departmentId());
+        if (event.after() != null) {
+            add(departments, children, event.after());
+        }
+    }
+    
+    private static void add(Map<Long, DepartmentSnapshot> departments, Map<Long, Set<Long>> children,
+                            DepartmentSnapshot department) {
+        departments.put(department.id(), department);
+        children.computeIfAbsent(department.parentId(), k -> new TreeSet<>()).add(department.id());
+    }
+    
+    private static void remove(Map<Long, DepartmentSnapshot> departments, Map<Long, Set<Long>> children, Long id) {
+        DepartmentSnapshot old = departments.remove(id);
+        if (old != null) {
+            Set<Long> siblings = children.get(old.parentId());
+            if (siblings != null) {
+                siblings.remove(id);
+            }
+        }
+    }
+    
+    private boolean isRoot(Long id) {
+        Long parentId = departments.get(id).parentId();
+        return parentId == null || !departments.containsKey(parentId);
+    }
+    
+    private void requireExists(Long id) {
+        if (!departments.containsKey(id)) {
+            throw new RuntimeException("Department not found with id: " + id);
+        }
+    }
+    
+    /**
+     * Build the node for id and its descendants; caller holds the read lock
+     */
+    private DepartmentNode buildNode(Long rootId) {
+        Map<Long, DepartmentNode> built = new HashMap<>();
+        Deque<Long> pending = new ArrayDeque<>();
+        pending.push(rootId);
+        built.put(rootId, toNode(departments.get(rootId)));
+        while (!pending.isEmpty()) {
+            Long id = pending.pop();
+            DepartmentNode node = built.get(id);
+            for (Long childId : children.getOrDefault(id, Set.of())) {
+                // A parent cycle in the data must not loop forever
+                if (!built.containsKey(childId)) {
+                    DepartmentNode child = toNode(departments.get(childId));
+                    built.put(childId, child);
+                    node.getChildren().add(child);
+                    pending.push(childId);
+                }
+            }
+        }
+        return built.get(rootId);
+    }
+    
+    private static DepartmentNode toNode(DepartmentSnapshot department) {
+        DepartmentNode node = new DepartmentNode();
+        node.setId(department.id());
+        node.setCode(department.code());
+        node.setName(department.name());
+        node.setParentId(department.parentId());
+        node.setLevel(department.level());
+        node.setIsActive(department.isActive());
+        return node;
+    }
+}
@@ -0,0 +1,307 @@
+package com.school.staff.service;
+
+import com.school.staff.dto.DepartmentHeadcount;
+import com.school.staff.dto.DepartmentNode;
+import com.school.staff.dto.HeadcountGroup;
+import com.school.staff.entity.StaffHeadcount;
+import com.school.staff.event.StaffChangedEvent;
+import com.school.staff.event.StaffSnapshot;
+import com.school.staff.repository.StaffHeadcountRepository;
+import com.school.staff.repository.StaffRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Headcount Service - staff counts per (department, status, position, gender) group, kept in
+ * staff_headcounts by every staff write, so dashboard reads cost O(groups) instead of a staff scan.
+ * Department totals are rolled up over the department tree. Reconciliation recounts the staff
+ * table and corrects drift, e.g. from rows changed outside the application.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HeadcountService {
+    
+    private static final String INCREMENT_SQL = "INSERT INTO staff_headcounts (department_id, status, position, "
+            + "gender, head_count) VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE head_count = head_count + ?";
+    
+    private static final Comparator<HeadcountGroup> LARGEST_FIRST = Comparator
+            .comparingLong(HeadcountGroup::getCount).reversed()
+            .thenComparing(HeadcountGroup::getValue, Comparator.nullsLast(Comparator.naturalOrder()));
+    
+    private final StaffHeadcountRepository staffHeadcountRepository;
+    private final StaffRepository staffRepository;
+    private final DepartmentTreeService departmentTreeService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    
+    /**
+     * Headcount of every department, in tree order, plus a row for staff without a department
+     */
+    @Transactional(readOnly = true)
+    public List<DepartmentHeadcount> getDepartmentHeadcounts() {
+        Map<Long, Long> own = new HashMap<>();
+        for (StaffHeadcount headcount : staffHeadcountRepository.findAll()) {
+            own.merge(headcount.getDepartmentId(), headcount.getHeadCount(), Long::sum);
+        }
+        List<DepartmentHeadcount> result = new ArrayList<>();
+        for (DepartmentNode root : departmentTreeService.getTree()) {
+            rollUp(root, own, result);
+        }
+        long unassigned = own.getOrDefault(StaffHeadcount.NO_DEPARTMENT, 0L);
+        if (unassigned > 0) {
+            result.add(new DepartmentHeadcount(null, null, null, null, unassigned, unassigned));
+        }
+        return result;
+    }
+    
+    /**
+     * Headcount by status, in a department and its sub-departments (all staff when departmentId is null)
+     */
+    @Transactional(readOnly = true)
+    public List<HeadcountGroup> getHeadcountByStatus(Long departmentId) {
+        return groupBy(departmentId, StaffHeadcount::getStatus);
+    }
+    
+    /**
+     * Headcount by position, in a department and its sub-departments (all staff when departmentId is null)
+     */
+    @Transactional(readOnly = true)
+    public List<HeadcountGroup> getHeadcountByPosition(Long departmentId) {
+        return groupBy(departmentId, StaffHeadcount::getPosition);
+    }
+    
+    /**
+     * Headcount by gender, in a department and its sub-departments (all staff when departmentId is null)
+     */
+    @Transactional(readOnly = true)
+    public List<HeadcountGroup> getHeadcountByGender(Long departmentId) {
+        return groupBy(departmentId, StaffHeadcount::getGender);
+    }
+    
+    /**
+     * Counters move in the writing transaction, so they commit or roll back with the staff change
+     */
+    @EventListener
+    public void onStaffChanged(StaffChangedEvent event) {
+        Group before = Group.of(event.before());
+        Group after = Group.of(event.after());
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        Map<Group, Long> changes = new TreeMap<>(Group.ORDER);
+        if (before != null) {
+            changes.merge(before, -1L, Long::sum);
+        }
+        if (after != null) {
+            changes.merge(after, 1L, Long::sum);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(changes);
+            return;
+        }
+        Deltas deltas = (Deltas) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            deltas = new Deltas();
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(deltas);
+        }
+        Map<Group, Long> counts = deltas.counts;
+        changes.forEach((group, delta) -> counts.merge(group, delta, Long::sum));
+    }
+    
+    /**
+     * Recount the staff table on first start, when there are staff but no counters yet.
+     * A failure does not stop startup; the scheduled reconciliation fills the counters later.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (staffHeadcountRepository.count() == 0 && staffRepository.count() > 0) {
+                log.info("No headcounts yet, counting staff");
+                reconcile();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Initial headcount failed, counters are filled by the next reconciliation: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Recount the staff table and correct the counters that differ
+     *
+     * @return number of corrected groups
+     */
+    @Scheduled(cron = "${app.headcount.reconcile-cron:0 0 4 * * *}")
+    public int reconcile() {
+        Integer corrected = transactionTemplate.execute(status -> {
+            // Lock the counters before counting: writes that incremented them have committed and are
+            // counted, later ones wait for this transaction and increment the corrected values
+            Map<Group, StaffHeadcount> stored = new HashMap<>();
+            for (StaffHeadcount headcount : staffHeadcountRepository.findAllForUpdate()) {
+                stored.put(Group.of(headcount), headcount);
+            }
+            Map<Group, Long> actual = new HashMap<>();
+            for (Object[] row : staffRepository.countByHeadcountGroup()) {
+                actual.merge(Group.of(row), ((Number) row[4]).longValue(), Long::sum);
+            }
+            
+            int drifted = 0;
+            List<StaffHeadcount> changed = new ArrayList<>();
+            for (Map.Entry<Group, Long> entry : actual.entrySet()) {
+                StaffHeadcount headcount = stored.remove(entry.getKey());
+                if (headcount == null) {
+                    headcount = entry.getKey().toEntity();
+                } else if (headcount.getHeadCount().equals(entry.getValue())) {
+                    continue;
+                }
+                headcount.setHeadCount(entry.getValue());
+                changed.add(headcount);
+                drifted++;
+            }
+            for (StaffHeadcount empty : stored.values()) {
+                if (empty.getHeadCount() != 0) {
+                    drifted++;
+                }
+            }
+            staffHeadcountRepository.saveAll(changed);
+            staffHeadcountRepository.deleteAllInBatch(stored.values());
+            return drifted;
+        });
+        
+        if (corrected != null && corrected > 0) {
+            log.warn("Corrected {} drifted headcount groups", corrected);
+            meterRegistry.counter("staff.headcount.drift").increment(corrected);
+        } else {
+            log.info("Headcounts match the staff table");
+        }
+        return corrected == null ? 0 : corrected;
+    }
+    
+    private List<HeadcountGroup> groupBy(Long departmentId, Function<StaffHeadcount, String> field) {
+        log.debug("Getting headcount of department {}", departmentId);
+        List<StaffHeadcount> headcounts = departmentId == null
+                ? staffHeadcountRepository.findAll()
+                : staffHeadcountRepository.findByDepartmentIdIn(departmentTreeService.getSubtreeIds(departmentId));
+        Map<String, Long> counts = new HashMap<>();
+        for (StaffHeadcount headcount : headcounts) {
+            counts.merge(field.apply(headcount), headcount.getHeadCount(), Long::sum);
+        }
+        return counts.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(entry -> new HeadcountGroup(
+                        StaffHeadcount.NO_VALUE.equals(entry.getKey()) ? null : entry.getKey(), entry.getValue()))
+                .sorted(LARGEST_FIRST)
+                .toList();
+    }
+    
+    /**
+     * Add the department's subtree to result (pre-order) and return its total headcount
+     */
+    private long rollUp(DepartmentNode node, Map<Long, Long> own, List<DepartmentHeadcount> result) {
+        long headcount = own.getOrDefault(node.getId(), 0L);
+        DepartmentHeadcount row = new DepartmentHeadcount(node.getId(), node.getCode(), node.getName(),
+                node.getParentId(), headcount, headcount);
+        result.add(row);
+        long total = headcount;
+        for (DepartmentNode child : node.getChildren()) {
+            total += rollUp(child, own, result);
+        }
+        row.setTotalHeadcount(total);
+        return total;
+    }
+    
+    private void apply(Map<Group, Long> deltas) {
+        // Sorted by group, so concurrent transactions lock counter rows in the same order
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((group, delta) -> {
+            if (delta != 0) {
+                rows.add(new Object[] {group.departmentId(), group.status(), group.position(), group.gender(),
+                        delta, delta});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INCREMENT_SQL, rows);
+        }
+    }
+    
+    /**
+     * Counter changes of the current transaction, written just before it commits
+     */
+    private class Deltas implements TransactionSynchronization {
+        
+        private final Map<Group, Long> counts = new TreeMap<>(Group.ORDER);
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            apply(counts);
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(HeadcountService.this);
+        }
+    }
+    
+    /**
+     * A counter key, with missing values replaced by the stored placeholders
+     */
+    private record Group(long departmentId, String status, String position, String gender) {
+        
+        static final Comparator<Group> ORDER = Comparator.comparingLong(Group::departmentId)
+                .thenComparing(Group::status)
+                .thenComparing(Group::position)
+                .thenComparing(Group::gender);
+        
+        static Group of(StaffSnapshot staff) {
+            if (staff == null) {
+                return null;
+            }
+            return of(staff.departmentId(), staff.status(), staff.position(), staff.gender());
+        }
+        
+        static Group of(StaffHeadcount headcount) {
+            return new Group(headcount.getDepartmentId(), headcount.getStatus(), headcount.getPosition(),
+                    headcount.getGender());
+        }
+        
+        static Group of(Object[] row) {
+            return of((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+        }
+        
+        static Group of(Long departmentId, String status, String position, String gender) {
+            return new Group(departmentId == null ? StaffHeadcount.NO_DEPARTMENT : departmentId,
+                    Objects.requireNonNullElse(status, StaffHeadcount.NO_VALUE),
+                    Objects.requireNonNullElse(position, StaffHeadcount.NO_VALUE),
+                    Objects.requireNonNullElse(gender, StaffHeadcount.NO_VALUE));
+        }
+        
+        StaffHeadcount toEntity() {
+            StaffHeadcount headcount = new StaffHeadcount();
+            headcount.setDepartmentId(departmentId);
+            headcount.setStatus(status);
+            headcount.setPosition(position);
+            headcount.setGender(gender);
+            return headcount;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.school.staff.service;
+
+import com.school.staff.dto.SearchHit;
+import com.school.staff.dto.StaffSummary;
+import com.school.staff.event.DepartmentChangedEvent;
+import com.school.staff.event.StaffChangedEvent;
+import com.school.staff.outbox.OutboxConsumer;
+import com.school.staff.repository.DepartmentRepository;
+import com.school.staff.repository.StaffRepository;
+import com.school.staff.search.NameSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Search Service - name autocomplete over in-memory n-gram indexes of staff and departments.
+ * The indexes are loaded after startup and rebuilt periodically (which also picks up writes
+ * relayed on other nodes); committed writes are applied as the outbox relay delivers them.
+ * Until the first load completes, queries fall back to LIKE queries on the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchService implements OutboxConsumer {
+    
+    private final StaffRepository staffRepository;
+    private final DepartmentRepository departmentRepository;
+    
+    private final NameSearchIndex staffIndex = new NameSearchIndex();
+    private final NameSearchIndex departmentIndex = new NameSearchIndex();
+    
+    @Value("${app.search.default-limit:10}")
+    private int defaultLimit;
+    
+    @Value("${app.search.max-limit:100}")
+    private int maxLimit;
+    
+    @Value("${app.search.load-page-size:1000}")
+    private int loadPageSize;
+    
+    /**
+     * Staff whose name matches the query by prefix, infix or pinyin initials, best matches first
+     */
+    public List<SearchHit> searchStaff(String query, Integer limit) {
+        int size = limit(limit);
+        if (staffIndex.isReady()) {
+            return staffIndex.search(query, size, true);
+        }
+        log.debug("Staff search index not ready, querying database: {}", query);
+        return staffRepository.findSummaryByNameContaining(query, PageRequest.of(0, size)).stream()
+                .map(s -> new SearchHit(s.getId(), s.getName(), s.getStaffNo()))
+                .toList();
+    }
+    
+    /**
+     * Departments whose name matches the query by prefix, infix or pinyin initials, best matches first
+     */
+    public List<SearchHit> searchDepartments(String query, Integer limit) {
+        int size = limit(limit);
+        if (departmentIndex.isReady()) {
+            return departmentIndex.search(query, size, true);
+        }
+        log.debug("Department search index not ready, querying database: {}", query);
+        return departmentRepository.findByNameContaining(query).stream()
+                .sorted(Comparator.comparing(d -> d.getName().length()))
+                .limit(size)
+                .map(d -> new SearchHit(d.getId(), d.getName(), d.getCode()))
+                .toList();
+    }
+    
+    /**
+     * Ids of staff whose name contains the text, ascending; null while the index is not ready
+     */
+    public List<Long> findStaffIdsByName(String name) {
+        return staffIndex.isReady() ? staffIndex.findIdsContaining(name) : null;
+    }
+    
+    /**
+     * Ids of departments whose name contains the text, ascending; null while the index is not ready
+     */
+    public List<Long> findDepartmentIdsByName(String name) {
+        return departmentIndex.isReady() ? departmentIndex.findIdsContaining(name) : null;
+    }
+    
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuildIndexes();
+    }
+    
+    @Scheduled(initialDelayString = "${app.search.refresh-interval:PT10M}",
+            fixedDelayString = "${app.search.refresh-interval:PT10M}")
+    public void refresh() {
+        rebuildIndexes();
+    }
+    
+    /**
+     * Reload both indexes from the database
+     */
+    public void rebuildIndexes() {
+        try {
+            long start = System.nanoTime();
+            departmentIndex.rebuild(sink -> departmentRepository.findAll()
+                    .forEach(d -> sink.accept(new SearchHit(d.getId(), d.getName(), d.getCode()))));
+            staffIndex.rebuild(sink -> {
+                long after = 0;
+                List<StaffSummary> page;
+                do {
+                    page = staffRepository.findSummaryPageAfter(after, PageRequest.of(0, loadPageSize));
+                    for (StaffSummary s : page) {
+                        sink.accept(new SearchHit(s.getId(), s.getName(), s.getStaffNo()));
+                        after = s.getId();
+                    }
+                } while (page.size() == loadPageSize);
+            });
+            log.info("Search indexes loaded: {} staff, {} departments in {} ms", staffIndex.size(),
+                    departmentIndex.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Failed to load search indexes: {}", e.getMessage());
+        }
+    }
+    
+    @Override
+    public String name() {
+        return "search";
+    }
+    
+    @Override
+    public void onStaffChanged(StaffChangedEvent event) {
+        if (event.after() == null) {
+            staffIndex.remove(event.staffId());
+        } else {
+            staffIndex.put(event.after().id(), event.after().name(), event.after().staffNo());
+        }
+    }
+    
+    @Override
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        if (event.after() == null) {
+            departmentIndex.remove(event.departmentId());
+        } else {
+            departmentIndex.put(event.after().id(), event.after().name(), event.after().code());
+        }
+    }
+    
+    private int limit(Integer limit) {
+        return limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+    }
+}
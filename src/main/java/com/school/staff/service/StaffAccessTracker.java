@@ -0,0 +1,89 @@
+package com.school.staff.service;
+
+import com.school.staff.config.CacheProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts reads of single staff members so cache warm-up knows which ones are hot.
+ * Reads are counted in memory and periodically added to a Redis sorted set shared by all
+ * nodes, which keeps only the most-read ids.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StaffAccessTracker {
+    
+    private final StringRedisTemplate redisTemplate;
+    private final CacheProperties cacheProperties;
+    private final ConcurrentMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    
+    public void record(Long staffId) {
+        pending.computeIfAbsent(staffId, id -> new LongAdder()).increment();
+    }
+    
+    /**
+     * Ids of the most-read staff, most-read first; empty if Redis is unreachable
+     */
+    public List<Long> getMostAccessed(int limit) {
+        try {
+            Set<String> ids = redisTemplate.opsForZSet().reverseRange(warmUp().getAccessKey(), 0, limit - 1L);
+            return ids == null ? List.of() : ids.stream().map(Long::valueOf).toList();
+        } catch (DataAccessException e) {
+            log.warn("Failed to read staff access counts: {}", e.getMessage());
+            return List.of();
+        }
+    }
+    
+    @Scheduled(initialDelayString = "${app.cache.warm-up.access-flush-interval:PT1M}",
+            fixedDelayString = "${app.cache.warm-up.access-flush-interval:PT1M}")
+    public void flush() {
+        Map<String, Long> counts = new HashMap<>();
+        for (Long id : new ArrayList<>(pending.keySet())) {
+            LongAdder adder = pending.remove(id);
+            if (adder != null) {
+                counts.put(id.toString(), adder.sum());
+            }
+        }
+        if (counts.isEmpty()) {
+            return;
+        }
+        String key = warmUp().getAccessKey();
+        long trackedSize = warmUp().getTrackedSize();
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                    counts.forEach((id, count) -> stringOperations.opsForZSet().incrementScore(key, id, count));
+                    // Keep only the trackedSize highest scores
+                    stringOperations.opsForZSet().removeRange(key, 0, -trackedSize - 1);
+                    return null;
+                }
+            });
+        } catch (DataAccessException e) {
+            // Counts of this interval are lost; warm-up just works from older data
+            log.warn("Failed to flush staff access counts: {}", e.getMessage());
+        }
+    }
+    
+    private CacheProperties.WarmUp warmUp() {
+        return cacheProperties.getWarmUp();
+    }
+}
@@ -0,0 +1,259 @@
+package com.school.staff.service;
+
+import com.school.staff.cache.EntryVersions;
+import com.school.staff.cache.VersionedCache;
+import com.school.staff.dto.BatchItemResult;
+import com.school.staff.dto.StaffRequest;
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import com.school.staff.event.StaffChangedEvent;
+import com.school.staff.event.StaffSnapshot;
+import com.school.staff.repository.DepartmentRepository;
+import com.school.staff.repository.StaffRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Staff Batch Service - bulk create/update keyed by staff number.
+ * Writes bypass Hibernate (IDENTITY ids disable its insert batching) and go
+ * through JDBC batches, one transaction per chunk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StaffBatchService {
+    
+    private static final String INSERT_SQL = "INSERT INTO staff (staff_no, name, gender, birth_date, phone, email, "
+            + "id_card, department_id, position, hire_date, status, address, is_active, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String UPDATE_SQL = "UPDATE staff SET staff_no = ?, name = ?, gender = ?, birth_date = ?, "
+            + "phone = ?, email = ?, id_card = ?, department_id = ?, position = ?, hire_date = ?, status = ?, "
+            + "address = ?, is_active = ?, updated_at = ? WHERE id = ?";
+    
+    private static final String SELECT_IDS_SQL = "SELECT id, staff_no FROM staff WHERE staff_no IN (:staffNos)";
+    
+    private final StaffRepository staffRepository;
+    private final DepartmentRepository departmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.staff.batch.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${app.staff.batch.max-items:10000}")
+    private int maxItems;
+    
+    /**
+     * Create or update staff members by staff number, chunk by chunk
+     */
+    public List<BatchItemResult> upsertStaff(List<StaffRequest> requests) {
+        log.debug("Batch upserting {} staff", requests.size());
+        if (requests.size() > maxItems) {
+            throw new RuntimeException("Batch size " + requests.size() + " exceeds the maximum of " + maxItems);
+        }
+        
+        List<BatchItemResult> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            List<StaffRequest> chunk = requests.subList(from, Math.min(from + chunkSize, requests.size()));
+            int firstIndex = from;
+            results.addAll(transactionTemplate.execute(status -> writeChunk(chunk, firstIndex)));
+        }
+        return results;
+    }
+    
+    /**
+     * Validate, resolve and write one chunk. Must run inside a transaction;
+     * one IN query checks existing staff numbers and one resolves departments.
+     */
+    public List<BatchItemResult> writeChunk(List<StaffRequest> chunk, int firstIndex) {
+        BatchItemResult[] results = new BatchItemResult[chunk.size()];
+        
+        // Bean validation and duplicate staff numbers inside the chunk
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            StaffRequest request = chunk.get(i);
+            String error = validate(request);
+            if (error == null && !seen.add(request.getStaffNo())) {
+                error = "Duplicate staff number in batch: " + request.getStaffNo();
+            }
+            if (error != null) {
+                results[i] = BatchItemResult.failed(firstIndex + i, request.getStaffNo(), error);
+            }
+        }
+        
+        Map<String, Staff> existing = staffRepository.findByStaffNoIn(seen).stream()
+                .collect(Collectors.toMap(Staff::getStaffNo, Function.identity()));
+        Set<Long> departmentIds = chunk.stream()
+                .map(StaffRequest::getDepartmentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Department> departments = departmentRepository.findAllById(departmentIds).stream()
+                .collect(Collectors.toMap(Department::getId, Function.identity()));
+        
+        // Microseconds, the column's precision: the database would round the rest, and the
+        // version floor evicted after commit must equal the version of the stored rows
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Integer> insertPositions = new ArrayList<>();
+        List<Long> updatedIds = new ArrayList<>();
+        List<StaffChangedEvent> events = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            StaffRequest request = chunk.get(i);
+            if (request.getDepartmentId() != null && !departments.containsKey(request.getDepartmentId())) {
+                results[i] = BatchItemResult.failed(firstIndex + i, request.getStaffNo(),
+                        "Department not found with id: " + request.getDepartmentId());
+                continue;
+            }
+            Staff current = existing.get(request.getStaffNo());
+            if (current == null) {
+                inserts.add(insertParameters(request, now));
+                insertPositions.add(i);
+            } else {
+                updates.add(updateParameters(request, current, now));
+                updatedIds.add(current.getId());
+                events.add(StaffChangedEvent.updated(StaffSnapshot.of(current),
+                        snapshot(current.getId(), request, departmentId(request, current))));
+                results[i] = new BatchItemResult(firstIndex + i, request.getStaffNo(),
+                        BatchItemResult.Status.UPDATED, current.getId(), null);
+            }
+        }
+        
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            Map<String, Long> insertedIds = findIdsByStaffNo(insertPositions.stream()
+                    .map(i -> chunk.get(i).getStaffNo())
+                    .toList());
+            for (int i : insertPositions) {
+                String staffNo = chunk.get(i).getStaffNo();
+                results[i] = new BatchItemResult(firstIndex + i, staffNo,
+                        BatchItemResult.Status.CREATED, insertedIds.get(staffNo), null);
+                events.add(StaffChangedEvent.created(
+                        snapshot(insertedIds.get(staffNo), chunk.get(i), chunk.get(i).getDepartmentId())));
+            }
+        }
+        evictAfterCommit(updatedIds, now);
+        events.forEach(eventPublisher::publishEvent);
+        
+        log.debug("Batch chunk at {}: {} inserted, {} updated", firstIndex, inserts.size(), updates.size());
+        return List.of(results);
+    }
+    
+    private String validate(StaffRequest request) {
+        if (request == null) {
+            return "Item is empty";
+        }
+        Set<ConstraintViolation<StaffRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return "Validation failed: " + violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+    
+    private Map<String, Long> findIdsByStaffNo(List<String> staffNos) {
+        Map<String, Long> ids = new HashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_IDS_SQL, new MapSqlParameterSource("staffNos", staffNos),
+                rs -> {
+                    ids.put(rs.getString("staff_no"), rs.getLong("id"));
+                });
+        return ids;
+    }
+    
+    /**
+     * The rows were updated with updatedAt = now, so older cached copies cannot be written back
+     */
+    private void evictAfterCommit(List<Long> staffIds, LocalDateTime updatedAt) {
+        Cache cache = cacheManager.getCache("staff");
+        if (staffIds.isEmpty() || cache == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // The rows are committed at this point; a failed eviction must not fail the request
+                try {
+                    long version = EntryVersions.of(updatedAt);
+                    staffIds.forEach(id -> VersionedCache.evictBelow(cache, id, version));
+                } catch (RuntimeException e) {
+                    log.warn("Failed to evict {} batch-updated staff from cache: {}", staffIds.size(), e.getMessage());
+                }
+            }
+        });
+    }
+    
+    private static Object[] insertParameters(StaffRequest request, LocalDateTime now) {
+        return new Object[] {
+                request.getStaffNo(), request.getName(), request.getGender(), request.getBirthDate(),
+                request.getPhone(), request.getEmail(), request.getIdCard(), request.getDepartmentId(),
+                request.getPosition(), request.getHireDate(), request.getStatus(), request.getAddress(),
+                isActive(request), now, now
+        };
+    }
+    
+    private static Object[] updateParameters(StaffRequest request, Staff current, LocalDateTime now) {
+        return new Object[] {
+                request.getStaffNo(), request.getName(), request.getGender(), request.getBirthDate(),
+                request.getPhone(), request.getEmail(), request.getIdCard(), departmentId(request, current),
+                request.getPosition(), request.getHireDate(), request.getStatus(), request.getAddress(),
+                isActive(request), now, current.getId()
+        };
+    }
+    
+    /**
+     * Like updateStaff, a missing department id keeps the current department
+     */
+    private static Long departmentId(StaffRequest request, Staff current) {
+        if (request.getDepartmentId() != null) {
+            return request.getDepartmentId();
+        }
+        return current.getDepartment() == null ? null : current.getDepartment().getId();
+    }
+    
+    private static StaffSnapshot snapshot(Long id, StaffRequest request, Long departmentId) {
+        return new StaffSnapshot(id, request.getStaffNo(), request.getName(), request.getGender(), departmentId,
+                request.getPosition(), request.getStatus(), isActive(request));
+    }
+    
+    private static boolean isActive(StaffRequest request) {
+        return request.getIsActive() == null || request.getIsActive();
+    }
+}
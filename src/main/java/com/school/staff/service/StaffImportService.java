@@ -0,0 +1,113 @@
+package com.school.staff.service;
+
+import com.school.staff.entity.ImportJob;
+import com.school.staff.entity.ImportJobError;
+import com.school.staff.repository.ImportJobErrorRepository;
+import com.school.staff.repository.ImportJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Staff Import Service - accepts import files and tracks their jobs
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StaffImportService {
+    
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobErrorRepository importJobErrorRepository;
+    private final StaffImportWorker staffImportWorker;
+    
+    @Value("${app.staff.import.storage-dir:${java.io.tmpdir}/staff-import}")
+    private String storageDir;
+    
+    /**
+     * Store the uploaded file and start an import job for it
+     */
+    public ImportJob submitImport(MultipartFile file) {
+        String fileName = file.getOriginalFilename() == null ? "upload" : file.getOriginalFilename();
+        log.debug("Submitting staff import: {}", fileName);
+        String format = detectFormat(fileName);
+        
+        Path target;
+        try {
+            Path directory = Path.of(storageDir);
+            Files.createDirectories(directory);
+            target = directory.resolve(UUID.randomUUID() + "." + format);
+            file.transferTo(target);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store import file: " + e.getMessage(), e);
+        }
+        
+        ImportJob job = new ImportJob();
+        job.setFileName(fileName);
+        job.setFilePath(target.toAbsolutePath().toString());
+        job.setFormat(format);
+        job = importJobRepository.save(job);
+        
+        staffImportWorker.run(job.getId());
+        return job;
+    }
+    
+    /**
+     * Get import job progress
+     */
+    public ImportJob getImportJob(Long id) {
+        log.debug("Getting import job: {}", id);
+        return importJobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Import job not found with id: " + id));
+    }
+    
+    /**
+     * Get rejected rows of an import job
+     */
+    public List<ImportJobError> getImportErrors(Long jobId, int page, int size) {
+        log.debug("Getting import errors of job: {}", jobId);
+        return importJobErrorRepository.findByJobIdOrderByLineNumber(jobId, PageRequest.of(page, size));
+    }
+    
+    /**
+     * Resume a failed or interrupted import from its last committed chunk
+     */
+    public ImportJob resumeImport(Long id) {
+        log.debug("Resuming import job: {}", id);
+        ImportJob job = getImportJob(id);
+        if (job.getStatus() == ImportJob.Status.COMPLETED) {
+            throw new RuntimeException("Import job already completed: " + id);
+        }
+        if (staffImportWorker.isRunning(id)) {
+            throw new RuntimeException("Import job is already running: " + id);
+        }
+        if (!Files.exists(Path.of(job.getFilePath()))) {
+            throw new RuntimeException("Import file no longer exists for job: " + id);
+        }
+        job.setStatus(ImportJob.Status.PENDING);
+        job = importJobRepository.save(job);
+        
+        staffImportWorker.run(id);
+        return job;
+    }
+    
+    private static String detectFormat(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv")) {
+            return "csv";
+        }
+        if (lower.endsWith(".xlsx")) {
+            return "xlsx";
+        }
+        throw new RuntimeException("Unsupported import file type, expected .csv or .xlsx: " + fileName);
+    }
+}
@@ -0,0 +1,215 @@
+package com.school.staff.service;
+
+import com.school.staff.dto.BatchItemResult;
+import com.school.staff.dto.StaffRequest;
+import com.school.staff.entity.Department;
+import com.school.staff.entity.ImportJob;
+import com.school.staff.entity.ImportJobError;
+import com.school.staff.importer.CsvImportFileReader;
+import com.school.staff.importer.ImportFileReader;
+import com.school.staff.importer.StaffRowMapper;
+import com.school.staff.importer.XlsxImportFileReader;
+import com.school.staff.repository.DepartmentRepository;
+import com.school.staff.repository.ImportJobErrorRepository;
+import com.school.staff.repository.ImportJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Runs staff import jobs in the background.
+ * Rows are streamed from the file and written in chunks; each chunk, its row errors and
+ * the job's committedRows are saved in one transaction, so a resumed job skips exactly
+ * the rows that were already committed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StaffImportWorker {
+    
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobErrorRepository importJobErrorRepository;
+    private final DepartmentRepository departmentRepository;
+    private final StaffBatchService staffBatchService;
+    private final TransactionTemplate transactionTemplate;
+    
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+    
+    @Value("${app.staff.import.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${app.staff.import.max-stored-errors:1000}")
+    private long maxStoredErrors;
+    
+    public boolean isRunning(Long jobId) {
+        return runningJobs.contains(jobId);
+    }
+    
+    /**
+     * Run or resume an import job
+     */
+    @Async
+    public void run(Long jobId) {
+        if (!runningJobs.add(jobId)) {
+            log.warn("Import job {} is already running", jobId);
+            return;
+        }
+        try {
+            execute(jobId);
+        } finally {
+            runningJobs.remove(jobId);
+        }
+    }
+    
+    private void execute(Long jobId) {
+        ImportJob job = importJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        job.setStatus(ImportJob.Status.RUNNING);
+        job.setErrorMessage(null);
+        importJobRepository.save(job);
+        log.info("Import job {} started at row offset {}", jobId, job.getCommittedRows());
+        
+        Map<String, Long> departmentIdsByCode = departmentRepository.findAll().stream()
+                .collect(Collectors.toMap(Department::getCode, Department::getId));
+        StaffRowMapper mapper = new StaffRowMapper(departmentIdsByCode);
+        ImportFileReader reader = "xlsx".equals(job.getFormat()) ? new XlsxImportFileReader() : new CsvImportFileReader();
+        
+        long skip = job.getCommittedRows();
+        long[] seen = {0};
+        Chunk chunk = new Chunk();
+        try {
+            reader.read(Path.of(job.getFilePath()), (lineNumber, row) -> {
+                if (seen[0]++ < skip) {
+                    return;
+                }
+                chunk.add(lineNumber, row, mapper);
+                if (chunk.size() >= chunkSize) {
+                    commit(jobId, chunk);
+                }
+            });
+            if (chunk.size() > 0) {
+                commit(jobId, chunk);
+            }
+            finish(jobId, ImportJob.Status.COMPLETED, null);
+        } catch (Exception e) {
+            log.error("Import job {} failed: {}", jobId, e.getMessage(), e);
+            finish(jobId, ImportJob.Status.FAILED, e.getMessage());
+        }
+    }
+    
+    /**
+     * Write one chunk and advance the job's progress in the same transaction
+     */
+    private void commit(Long jobId, Chunk chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<StaffRequest> requests = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (chunk.errors.get(i) == null) {
+                    requests.add(chunk.requests.get(i));
+                    positions.add(i);
+                }
+            }
+            List<BatchItemResult> results = requests.isEmpty() ? List.of() : staffBatchService.writeChunk(requests, 0);
+            
+            ImportJob job = importJobRepository.findById(jobId)
+                    .orElseThrow(() -> new RuntimeException("Import job not found with id: " + jobId));
+            long created = 0;
+            long updated = 0;
+            for (int r = 0; r < results.size(); r++) {
+                BatchItemResult result = results.get(r);
+                switch (result.getStatus()) {
+                    case CREATED -> created++;
+                    case UPDATED -> updated++;
+                    case FAILED -> chunk.errors.set(positions.get(r), result.getMessage());
+                }
+            }
+            
+            List<ImportJobError> errors = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (chunk.errors.get(i) != null && job.getFailedCount() + errors.size() < maxStoredErrors) {
+                    ImportJobError error = new ImportJobError();
+                    error.setJobId(jobId);
+                    error.setLineNumber(chunk.lineNumbers.get(i));
+                    error.setStaffNo(chunk.staffNos.get(i));
+                    error.setMessage(truncate(chunk.errors.get(i)));
+                    errors.add(error);
+                }
+            }
+            importJobErrorRepository.saveAll(errors);
+            
+            long failed = chunk.errors.stream().filter(e -> e != null).count();
+            job.setCommittedRows(job.getCommittedRows() + chunk.size());
+            job.setCreatedCount(job.getCreatedCount() + created);
+            job.setUpdatedCount(job.getUpdatedCount() + updated);
+            job.setFailedCount(job.getFailedCount() + failed);
+            importJobRepository.save(job);
+        });
+        chunk.clear();
+    }
+    
+    private void finish(Long jobId, ImportJob.Status status, String errorMessage) {
+        importJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setErrorMessage(truncate(errorMessage));
+            job.setFinishedAt(LocalDateTime.now());
+            importJobRepository.save(job);
+            log.info("Import job {} {}: {} rows committed, {} created, {} updated, {} failed", jobId, status,
+                    job.getCommittedRows(), job.getCreatedCount(), job.getUpdatedCount(), job.getFailedCount());
+        });
+    }
+    
+    private static String truncate(String message) {
+        return message == null || message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+    
+    /**
+     * Rows buffered for the next commit; rows that failed to map carry their error up front
+     */
+    private static class Chunk {
+        
+        private final List<Long> lineNumbers = new ArrayList<>();
+        private final List<String> staffNos = new ArrayList<>();
+        private final List<StaffRequest> requests = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+        
+        void add(long lineNumber, Map<String, String> row, StaffRowMapper mapper) {
+            StaffRequest request = null;
+            String error = null;
+            try {
+                request = mapper.map(row);
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+            lineNumbers.add(lineNumber);
+            staffNos.add(request != null ? request.getStaffNo() : row.getOrDefault("staffno", row.get("工号")));
+            requests.add(request);
+            errors.add(error);
+        }
+        
+        int size() {
+            return lineNumbers.size();
+        }
+        
+        void clear() {
+            lineNumbers.clear();
+            staffNos.clear();
+            requests.clear();
+            errors.clear();
+        }
+    }
+}
@@ -1,18 +1,41 @@
 package com.school.staff.service;
 
+import com.school.staff.dto.CursorPage;
+import com.school.staff.dto.PageResult;
+import com.school.staff.dto.StaffQuery;
 import com.school.staff.dto.StaffRequest;
+import com.school.staff.dto.StaffSummary;
+import com.school.staff.dto.VersionStamp;
 import com.school.staff.entity.Department;
 import com.school.staff.entity.Staff;
+import com.school.staff.event.StaffChangedEvent;
+import com.school.staff.event.StaffSnapshot;
+import com.school.staff.repository.FieldSelection;
 import com.school.staff.repository.StaffRepository;
+import com.school.staff.repository.StaffSpecifications;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Staff Service
@@ -22,21 +45,116 @@ import java.util.List;
 @Slf4j
 public class StaffService {
     
+    /**
+     * Properties GET /staff/query may sort by; each is the leading column of an index or the key
+     */
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of(
+            "id", "staffNo", "name", "hireDate", "status", "position");
+    
+    /**
+     * Above this many name-index matches a name filter is sent to the database as LIKE instead of an id list
+     */
+    private static final int MAX_NAME_FILTER_IDS = 1000;
+    
     private final StaffRepository staffRepository;
     private final DepartmentService departmentService;
+    private final DepartmentTreeService departmentTreeService;
+    private final SearchService searchService;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.staff.page.default-limit:100}")
+    private int defaultPageLimit;
+    
+    @Value("${app.staff.page.max-limit:1000}")
+    private int maxPageLimit;
+    
+    /**
+     * Get one keyset page of staff members ordered by id
+     */
+    public CursorPage<Staff> getStaffPage(Long after, Integer limit) {
+        int size = limit == null || limit <= 0 ? defaultPageLimit : Math.min(limit, maxPageLimit);
+        log.debug("Getting staff page after {} with limit {}", after, size);
+        
+        // Fetch one extra row to know whether another page exists without a COUNT query
+        List<Staff> rows = staffRepository.findPageAfter(after == null ? 0L : after, PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        List<Staff> items = hasMore ? rows.subList(0, size) : rows;
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getId() : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
     
     /**
-     * Get all staff members
+     * Get one keyset page of staff members ordered by id, selecting only the given fields
      */
-    public List<Staff> getAllStaff() {
-        log.debug("Getting all staff");
-        return staffRepository.findAll();
+    public CursorPage<Map<String, Object>> getStaffFieldsPage(Long after, Integer limit, String fields) {
+        int size = limit == null || limit <= 0 ? defaultPageLimit : Math.min(limit, maxPageLimit);
+        log.debug("Getting staff page after {} with limit {} and fields {}", after, size, fields);
+        
+        Slice<Map<String, Object>> slice = staffRepository.findFields(
+                StaffSpecifications.idGreaterThan(after == null ? 0L : after),
+                FieldSelection.parse(fields, FieldSelection.STAFF_FIELDS),
+                PageRequest.of(0, size, Sort.by("id")));
+        List<Map<String, Object>> items = slice.getContent();
+        Long nextCursor = slice.hasNext() ? (Long) items.get(items.size() - 1).get("id") : null;
+        return new CursorPage<>(items, nextCursor, slice.hasNext());
+    }
+    
+    /**
+     * Query staff by any combination of filters as one paginated, sorted SQL query.
+     * With count=false the COUNT query is skipped and only hasNext is reported.
+     */
+    public PageResult<Staff> queryStaff(StaffQuery query) {
+        log.debug("Querying staff: {}", query);
+        Pageable pageable = toPageable(query);
+        Specification<Staff> spec = toSpecification(query);
+        if (Boolean.FALSE.equals(query.getCount())) {
+            Slice<Staff> slice = staffRepository.findSlice(spec, pageable);
+            return new PageResult<>(slice.getContent(), pageable.getPageNumber(), pageable.getPageSize(),
+                    slice.hasNext(), null, null);
+        }
+        Page<Staff> result = staffRepository.findAll(spec, pageable);
+        return new PageResult<>(result.getContent(), pageable.getPageNumber(), pageable.getPageSize(),
+                result.hasNext(), result.getTotalElements(), result.getTotalPages());
+    }
+    
+    /**
+     * {@link #queryStaff} selecting only query.fields, as one tuple query (plus the COUNT unless count=false)
+     */
+    public PageResult<Map<String, Object>> queryStaffFields(StaffQuery query) {
+        log.debug("Querying staff fields: {}", query);
+        Pageable pageable = toPageable(query);
+        Specification<Staff> spec = toSpecification(query);
+        Slice<Map<String, Object>> slice = staffRepository.findFields(
+                spec, FieldSelection.parse(query.getFields(), FieldSelection.STAFF_FIELDS), pageable);
+        if (Boolean.FALSE.equals(query.getCount())) {
+            return new PageResult<>(slice.getContent(), pageable.getPageNumber(), pageable.getPageSize(),
+                    slice.hasNext(), null, null);
+        }
+        long total = staffRepository.count(spec);
+        return new PageResult<>(slice.getContent(), pageable.getPageNumber(), pageable.getPageSize(),
+                slice.hasNext(), total, (int) ((total + pageable.getPageSize() - 1) / pageable.getPageSize()));
+    }
+    
+    /**
+     * Stream staff members matching the optional filters to the consumer row by row.
+     * Each row is detached once consumed so the persistence context stays small.
+     */
+    @Transactional(readOnly = true)
+    public void streamStaff(Long departmentId, String status, String position, Consumer<Staff> consumer) {
+        log.debug("Streaming staff (department={}, status={}, position={})", departmentId, status, position);
+        try (Stream<Staff> stream = staffRepository.streamByFilter(departmentId, status, position)) {
+            stream.forEach(staff -> {
+                consumer.accept(staff);
+                entityManager.detach(staff);
+            });
+        }
     }
     
     /**
      * Get staff by ID with caching
      */
-    @Cacheable(value = "staff", key = "#id")
+    @Cacheable(value = "staff", key = "#id", sync = true)
     public Staff getStaffById(Long id) {
         log.debug("Getting staff by id: {}", id);
         return staffRepository.findById(id)
@@ -52,6 +170,15 @@ public class StaffService {
                 .orElseThrow(() -> new RuntimeException("Staff not found with staff number: " + staffNo));
     }
     
+    /**
+     * Version stamp of a department's staff list, without loading it. Each row embeds the
+     * department, so a change to the department changes the stamp too.
+     */
+    public VersionStamp getStaffByDepartmentVersion(Long departmentId) {
+        return staffRepository.findVersionByDepartmentId(departmentId)
+                .including(departmentService.getDepartmentVersion(departmentId));
+    }
+    
     /**
      * Get staff by department
      */
@@ -60,6 +187,14 @@ public class StaffService {
         return staffRepository.findByDepartmentId(departmentId);
     }
     
+    /**
+     * Get staff of a department and all of its descendant departments in one query
+     */
+    public List<Staff> getStaffByDepartmentSubtree(Long departmentId) {
+        log.debug("Getting staff by department subtree: {}", departmentId);
+        return staffRepository.findByDepartmentIdIn(departmentTreeService.getSubtreeIds(departmentId));
+    }
+    
     /**
      * Get staff by status
      */
@@ -69,11 +204,15 @@ public class StaffService {
     }
     
     /**
-     * Search staff by name
+     * Search staff by name, resolved through the name index when it is loaded
      */
     public List<Staff> searchStaffByName(String name) {
         log.debug("Searching staff by name: {}", name);
-        return staffRepository.findByNameContaining(name);
+        List<Long> ids = searchService.findStaffIdsByName(name);
+        if (ids == null) {
+            return staffRepository.findByNameContaining(name);
+        }
+        return findInChunks(ids, staffRepository::findByIdInOrderById);
     }
     
     /**
@@ -84,6 +223,82 @@ public class StaffService {
         return staffRepository.findByPosition(position);
     }
     
+    /**
+     * Get staff summaries by department
+     */
+    public List<StaffSummary> getStaffSummaryByDepartment(Long departmentId) {
+        log.debug("Getting staff summary by department: {}", departmentId);
+        return staffRepository.findSummaryByDepartmentId(departmentId);
+    }
+    
+    /**
+     * Get staff summaries of a department and all of its descendant departments
+     */
+    public List<StaffSummary> getStaffSummaryByDepartmentSubtree(Long departmentId) {
+        log.debug("Getting staff summary by department subtree: {}", departmentId);
+        return staffRepository.findSummaryByDepartmentIdIn(departmentTreeService.getSubtreeIds(departmentId));
+    }
+    
+    /**
+     * Get staff summaries by status
+     */
+    public List<StaffSummary> getStaffSummaryByStatus(String status) {
+        log.debug("Getting staff summary by status: {}", status);
+        return staffRepository.findSummaryByStatus(status);
+    }
+    
+    /**
+     * Search staff summaries by name
+     */
+    public List<StaffSummary> searchStaffSummaryByName(String name) {
+        log.debug("Searching staff summary by name: {}", name);
+        List<Long> ids = searchService.findStaffIdsByName(name);
+        if (ids == null) {
+            return staffRepository.findSummaryByNameContaining(name);
+        }
+        return findInChunks(ids, staffRepository::findSummaryByIdIn);
+    }
+    
+    /**
+     * Get staff summaries by position
+     */
+    public List<StaffSummary> getStaffSummaryByPosition(String position) {
+        log.debug("Getting staff summary by position: {}", position);
+        return staffRepository.findSummaryByPosition(position);
+    }
+    
+    /**
+     * Get only the given fields of the staff of a department
+     */
+    public List<Map<String, Object>> getStaffFieldsByDepartment(Long departmentId, String fields) {
+        log.debug("Getting staff fields {} by department: {}", fields, departmentId);
+        return findFields(StaffSpecifications.departmentIn(Set.of(departmentId)), fields);
+    }
+    
+    /**
+     * Get only the given fields of the staff of a department and all of its descendant departments
+     */
+    public List<Map<String, Object>> getStaffFieldsByDepartmentSubtree(Long departmentId, String fields) {
+        log.debug("Getting staff fields {} by department subtree: {}", fields, departmentId);
+        return findFields(StaffSpecifications.departmentIn(departmentTreeService.getSubtreeIds(departmentId)), fields);
+    }
+    
+    /**
+     * Get only the given fields of staff by status
+     */
+    public List<Map<String, Object>> getStaffFieldsByStatus(String status, String fields) {
+        log.debug("Getting staff fields {} by status: {}", fields, status);
+        return findFields(StaffSpecifications.hasStatus(status), fields);
+    }
+    
+    /**
+     * Get only the given fields of staff by position
+     */
+    public List<Map<String, Object>> getStaffFieldsByPosition(String position, String fields) {
+        log.debug("Getting staff fields {} by position: {}", fields, position);
+        return findFields(StaffSpecifications.hasPosition(position), fields);
+    }
+    
     /**
      * Create new staff member
      */
@@ -99,7 +314,9 @@ public class StaffService {
         Staff staff = new Staff();
         updateStaffFromRequest(staff, request);
         
-        return staffRepository.save(staff);
+        Staff saved = staffRepository.save(staff);
+        eventPublisher.publishEvent(StaffChangedEvent.created(StaffSnapshot.of(saved)));
+        return saved;
     }
     
     /**
@@ -121,26 +338,117 @@ public class StaffService {
             });
         }
         
+        StaffSnapshot before = StaffSnapshot.of(staff);
         updateStaffFromRequest(staff, request);
         
-        return staffRepository.save(staff);
+        Staff saved = staffRepository.save(staff);
+        eventPublisher.publishEvent(StaffChangedEvent.updated(before, StaffSnapshot.of(saved)));
+        return saved;
     }
     
     /**
-     * Delete staff member
+     * Delete staff member; CacheCoherenceListener evicts its cache entry after commit
      */
     @Transactional
-    @CacheEvict(value = "staff", key = "#id")
     public void deleteStaff(Long id) {
         log.debug("Deleting staff: {}", id);
         Staff staff = getStaffById(id);
         staffRepository.delete(staff);
+        eventPublisher.publishEvent(StaffChangedEvent.deleted(StaffSnapshot.of(staff)));
+    }
+    
+    private List<Map<String, Object>> findFields(Specification<Staff> spec, String fields) {
+        return staffRepository.findFields(spec, FieldSelection.parse(fields, FieldSelection.STAFF_FIELDS),
+                Pageable.unpaged(Sort.by("id"))).getContent();
+    }
+    
+    private Pageable toPageable(StaffQuery query) {
+        int page = query.getPage() == null || query.getPage() < 0 ? 0 : query.getPage();
+        int size = query.getSize() == null || query.getSize() <= 0
+                ? defaultPageLimit : Math.min(query.getSize(), maxPageLimit);
+        return PageRequest.of(page, size, parseSort(query.getSort()));
+    }
+    
+    private Specification<Staff> toSpecification(StaffQuery query) {
+        Specification<Staff> spec = Specification.where(null);
+        if (query.getDepartmentId() != null) {
+            Set<Long> departmentIds = Boolean.TRUE.equals(query.getIncludeSubtree())
+                    ? departmentTreeService.getSubtreeIds(query.getDepartmentId())
+                    : Set.of(query.getDepartmentId());
+            spec = spec.and(StaffSpecifications.departmentIn(departmentIds));
+        }
+        if (query.getStatus() != null) {
+            spec = spec.and(StaffSpecifications.hasStatus(query.getStatus()));
+        }
+        if (query.getPosition() != null) {
+            spec = spec.and(StaffSpecifications.hasPosition(query.getPosition()));
+        }
+        if (query.getIsActive() != null) {
+            spec = spec.and(StaffSpecifications.isActive(query.getIsActive()));
+        }
+        if (query.getHireDateFrom() != null) {
+            spec = spec.and(StaffSpecifications.hiredOnOrAfter(query.getHireDateFrom()));
+        }
+        if (query.getHireDateTo() != null) {
+            spec = spec.and(StaffSpecifications.hiredOnOrBefore(query.getHireDateTo()));
+        }
+        if (query.getName() != null && !query.getName().isBlank()) {
+            // Resolve the name through the search index when it is loaded and selective enough
+            List<Long> ids = searchService.findStaffIdsByName(query.getName());
+            spec = spec.and(ids != null && ids.size() <= MAX_NAME_FILTER_IDS
+                    ? StaffSpecifications.idIn(ids)
+                    : StaffSpecifications.nameContains(query.getName()));
+        }
+        return spec;
+    }
+    
+    /**
+     * Parse "property[,asc|desc]" entries; a single sort parameter may arrive already split
+     * on commas, so a bare asc/desc token applies to the property before it.
+     * id is appended as a tie-breaker so pages are stable.
+     */
+    private static Sort parseSort(List<String> sortParams) {
+        List<Sort.Order> orders = new ArrayList<>();
+        if (sortParams != null) {
+            for (String param : sortParams) {
+                for (String token : param.split(",")) {
+                    String value = token.trim();
+                    if (value.equalsIgnoreCase("asc") || value.equalsIgnoreCase("desc")) {
+                        if (orders.isEmpty()) {
+                            throw new RuntimeException("Sort direction without property: " + value);
+                        }
+                        Sort.Order last = orders.remove(orders.size() - 1);
+                        orders.add(last.with(Sort.Direction.fromString(value)));
+                    } else if (!value.isEmpty()) {
+                        if (!SORTABLE_PROPERTIES.contains(value)) {
+                            throw new RuntimeException("Unsupported sort property: " + value);
+                        }
+                        orders.add(Sort.Order.asc(value));
+                    }
+                }
+            }
+        }
+        if (orders.stream().noneMatch(o -> o.getProperty().equals("id"))) {
+            orders.add(Sort.Order.asc("id"));
+        }
+        return Sort.by(orders);
+    }
+    
+    /**
+     * Load rows for a list of ids, 1000 ids per IN query
+     */
+    private static <T> List<T> findInChunks(List<Long> ids, Function<List<Long>, List<T>> finder) {
+        List<T> result = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += 1000) {
+            result.addAll(finder.apply(ids.subList(from, Math.min(from + 1000, ids.size()))));
+        }
+        return result;
     }
     
     /**
-     * Helper method to update staff entity from request
+     * Helper method to update staff entity from request (package-private for the mapping benchmark)
      */
-    private void updateStaffFromRequest(Staff staff, StaffRequest request) {
+    void updateStaffFromRequest(Staff staff, StaffRequest request) {
         staff.setStaffNo(request.getStaffNo());
         staff.setName(request.getName());
         staff.setGender(request.getGender());
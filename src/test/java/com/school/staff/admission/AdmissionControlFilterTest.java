@@ -0,0 +1,161 @@
+package com.school.staff.admission;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.staff.config.AdmissionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Group matching, rejection responses and slot release of AdmissionControlFilter, with the
+ * groups in the same order as application.yml
+ */
+class AdmissionControlFilterTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MeterRegistry meterRegistry;
+    private AdmissionControlFilter filter;
+    private EndpointLimit export;
+    private EndpointLimit list;
+    private EndpointLimit lookup;
+    
+    @BeforeEach
+    void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getEndpoints().add(endpoint("export", List.of("GET /staff/stream", "GET /staff/export"), 1, 0, 0));
+        properties.getEndpoints().add(endpoint("list", List.of("GET /staff", "GET /staff/status/{status}"), 1, 1, 2));
+        properties.getEndpoints().add(endpoint("lookup", List.of("GET /staff/**", "GET /departments/**"), 1, 0, 0));
+        List<EndpointLimit> endpoints = properties.getEndpoints().stream()
+                .map(endpoint -> new EndpointLimit(endpoint, properties))
+                .toList();
+        export = endpoints.get(0);
+        list = endpoints.get(1);
+        lookup = endpoints.get(2);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AdmissionControlFilter(endpoints, objectMapper, meterRegistry);
+    }
+    
+    @Test
+    void groupsAreMatchedInOrder() throws Exception {
+        assertThat(groupOf("GET", "/api/staff")).isSameAs(list);
+        assertThat(groupOf("GET", "/api/staff/status/ACTIVE")).isSameAs(list);
+        assertThat(groupOf("GET", "/api/staff/stream")).isSameAs(export);
+        assertThat(groupOf("GET", "/api/staff/42")).isSameAs(lookup);
+        assertThat(groupOf("GET", "/api/staff/stats/department")).isSameAs(lookup);
+        assertThat(groupOf("GET", "/api/departments/tree")).isSameAs(lookup);
+        assertThat(groupOf("POST", "/api/staff")).isNull();
+    }
+    
+    @Test
+    void rejectsWith503AtTheConcurrencyLimit() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/staff/1"), new MockHttpServletResponse(), (req, res) ->
+                filter.doFilter(request("GET", "/api/staff/2"), response, new MockFilterChain()));
+        
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(body.get("code").asInt()).isEqualTo(503);
+        assertThat(body.get("message").asText()).isEqualTo("Server busy, retry later");
+        assertThat(meterRegistry.get("admission.rejected").tags("endpoint", "lookup", "reason", "concurrency")
+                .counter().count()).isEqualTo(1);
+        assertThat(lookup.getLimiter().getInFlight()).isZero();
+    }
+    
+    @Test
+    void rejectsWith429OverTheRate() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            assertThat(execute(request("GET", "/api/staff")).getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse response = execute(request("GET", "/api/staff"));
+        
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(response.getHeader(HttpHeaders.RETRY_AFTER))).isPositive();
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(body.get("code").asInt()).isEqualTo(429);
+        assertThat(body.get("message").asText()).isEqualTo("Too many requests, retry later");
+        assertThat(list.getLimiter().getInFlight()).isZero();
+    }
+    
+    @Test
+    void concurrencyRejectionsDoNotUseUpTheRate() throws Exception {
+        filter.doFilter(request("GET", "/api/staff"), new MockHttpServletResponse(), (req, res) -> {
+            for (int i = 0; i < 5; i++) {
+                assertThat(execute(request("GET", "/api/staff")).getStatus()).isEqualTo(503);
+            }
+        });
+        
+        // One token taken by the admitted request, the second is still there
+        assertThat(execute(request("GET", "/api/staff")).getStatus()).isEqualTo(200);
+    }
+    
+    @Test
+    void asyncRequestsKeepTheirSlotUntilCompletion() throws Exception {
+        MockHttpServletRequest request = request("GET", "/api/staff/export");
+        request.setAsyncSupported(true);
+        
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertThat(export.getLimiter().getInFlight()).isEqualTo(1);
+        assertThat(execute(request("GET", "/api/staff/stream")).getStatus()).isEqualTo(503);
+        
+        request.getAsyncContext().complete();
+        assertThat(export.getLimiter().getInFlight()).isZero();
+        assertThat(execute(request("GET", "/api/staff/stream")).getStatus()).isEqualTo(200);
+    }
+    
+    private EndpointLimit groupOf(String method, String uri) throws Exception {
+        AtomicReference<EndpointLimit> group = new AtomicReference<>();
+        FilterChain chain = (req, res) -> {
+            for (EndpointLimit endpoint : List.of(export, list, lookup)) {
+                if (endpoint.getLimiter().getInFlight() > 0) {
+                    group.set(endpoint);
+                }
+            }
+        };
+        filter.doFilter(request(method, uri), new MockHttpServletResponse(), chain);
+        return group.get();
+    }
+    
+    private MockHttpServletResponse execute(MockHttpServletRequest request) throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+    
+    private static MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setContextPath("/api");
+        return request;
+    }
+    
+    private static AdmissionProperties.Endpoint endpoint(String name, List<String> patterns, int limit,
+                                                         double rate, int burst) {
+        AdmissionProperties.Endpoint endpoint = new AdmissionProperties.Endpoint();
+        endpoint.setName(name);
+        endpoint.setPatterns(new ArrayList<>(patterns));
+        endpoint.setInitialLimit(limit);
+        endpoint.setMinLimit(limit);
+        endpoint.setMaxLimit(limit);
+        endpoint.setAdaptive(false);
+        endpoint.setRate(rate);
+        endpoint.setBurst(burst);
+        endpoint.setRetryAfter(Duration.ofSeconds(3));
+        return endpoint;
+    }
+}
@@ -0,0 +1,58 @@
+package com.school.staff.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Limit enforcement and AIMD adaptation of ConcurrencyLimiter
+ */
+class ConcurrencyLimiterTest {
+    
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(30);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+    
+    @Test
+    void rejectsRequestsOverTheLimit() {
+        ConcurrencyLimiter limiter = limiter(2, 1, 4);
+        
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        
+        limiter.release(FAST, false);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+    
+    @Test
+    void shrinksOnSlowRequestsAndGrowsBackWhenFast() {
+        ConcurrencyLimiter limiter = limiter(10, 2, 10);
+        acquireAndRelease(limiter, FAST);
+        
+        for (int i = 0; i < 20; i++) {
+            acquireAndRelease(limiter, SLOW);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+            limiter.release(FAST, false);
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+    
+    private static ConcurrencyLimiter limiter(int initial, int min, int max) {
+        return new ConcurrencyLimiter(initial, min, max, true, 2.0, Duration.ofMillis(20), 0.9, 500);
+    }
+    
+    private static void acquireAndRelease(ConcurrencyLimiter limiter, long latencyNanos) {
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.release(latencyNanos, false);
+    }
+}
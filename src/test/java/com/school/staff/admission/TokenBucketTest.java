@@ -0,0 +1,33 @@
+package com.school.staff.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Burst and refill of the GCRA token bucket
+ */
+class TokenBucketTest {
+    
+    @Test
+    void admitsTheBurstThenRejects() {
+        TokenBucket tokenBucket = new TokenBucket(1, 3);
+        
+        for (int i = 0; i < 3; i++) {
+            assertThat(tokenBucket.tryAcquire()).isZero();
+        }
+        assertThat(tokenBucket.tryAcquire()).isPositive();
+    }
+    
+    @Test
+    void refillsAtTheRate() throws Exception {
+        TokenBucket tokenBucket = new TokenBucket(50, 1);
+        
+        assertThat(tokenBucket.tryAcquire()).isZero();
+        long waitNanos = tokenBucket.tryAcquire();
+        assertThat(waitNanos).isPositive().isLessThanOrEqualTo(20_000_000L);
+        
+        Thread.sleep(waitNanos / 1_000_000 + 5);
+        assertThat(tokenBucket.tryAcquire()).isZero();
+    }
+}
@@ -0,0 +1,78 @@
+package com.school.staff.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Cache writes made inside a transaction are applied on commit only
+ */
+class AfterCommitCacheTest {
+    
+    private final ConcurrentMapCache target = new ConcurrentMapCache("staff");
+    private final AfterCommitCache cache = new AfterCommitCache(target);
+    
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+    
+    @Test
+    void putIsAppliedAfterCommit() {
+        cache.put(1L, "updated");
+        
+        assertThat(target.get(1L)).isNull();
+        
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(target.get(1L, String.class)).isEqualTo("updated");
+    }
+    
+    @Test
+    void rolledBackEvictAndPutAreDropped() {
+        target.put(1L, "current");
+        
+        cache.evict(1L);
+        cache.put(2L, "rolled back");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        
+        assertThat(target.get(1L, String.class)).isEqualTo("current");
+        assertThat(target.get(2L)).isNull();
+    }
+    
+    @Test
+    void failureAfterCommitDoesNotPropagate() {
+        Cache failing = mock(Cache.class);
+        doThrow(new IllegalStateException("Redis down")).when(failing).put(any(), any());
+        
+        new AfterCommitCache(failing).put(1L, "updated");
+        
+        assertThatCode(() -> TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit)).doesNotThrowAnyException();
+    }
+    
+    @Test
+    void writesOutsideTransactionsAreImmediate() {
+        TransactionSynchronizationManager.clearSynchronization();
+        
+        cache.put(1L, "direct");
+        
+        assertThat(target.get(1L, String.class)).isEqualTo("direct");
+        TransactionSynchronizationManager.initSynchronization();
+    }
+}
@@ -0,0 +1,49 @@
+package com.school.staff.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Subscription starts in the background once the application is ready and is retried while Redis is down
+ */
+class CacheInvalidationSubscriberTest {
+    
+    private final RedisMessageListenerContainer container = mock(RedisMessageListenerContainer.class);
+    
+    @Test
+    void subscribesOnceTheApplicationIsReady() throws Exception {
+        CacheInvalidationSubscriber subscriber = new CacheInvalidationSubscriber(container, Duration.ofMillis(10));
+        
+        subscriber.onApplicationEvent(mock(ApplicationReadyEvent.class));
+        
+        verify(container, timeout(1000)).start();
+        verify(container, after(100).never()).stop();
+        subscriber.destroy();
+    }
+    
+    @Test
+    void retriesUntilRedisIsReachable() throws Exception {
+        doThrow(new RedisConnectionFailureException("Connection refused"))
+                .doThrow(new RedisConnectionFailureException("Connection refused"))
+                .doNothing()
+                .when(container).start();
+        CacheInvalidationSubscriber subscriber = new CacheInvalidationSubscriber(container, Duration.ofMillis(10));
+        
+        subscriber.onApplicationEvent(mock(ApplicationReadyEvent.class));
+        
+        verify(container, timeout(1000).times(3)).start();
+        verify(container, after(100).times(2)).stop();
+        subscriber.destroy();
+        verify(container).destroy();
+    }
+}
@@ -0,0 +1,104 @@
+package com.school.staff.cache;
+
+import com.school.staff.config.CacheProperties;
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round-trip and size checks for the cache value serializers
+ */
+class CacheSerializersTest {
+    
+    @Test
+    void kryoRoundTripsStaffWithDepartment() {
+        Staff staff = sampleStaff(1);
+        RedisSerializer<Object> serializer = CacheSerializers.create(codec(SerializationFormat.KRYO, false), 1024);
+        
+        Object copy = serializer.deserialize(serializer.serialize(staff));
+        
+        assertThat(copy).isEqualTo(staff);
+    }
+    
+    @Test
+    void jsonRoundTripsStaffWithDepartment() {
+        Staff staff = sampleStaff(1);
+        RedisSerializer<Object> serializer = CacheSerializers.create(codec(SerializationFormat.JSON, false), 1024);
+        
+        assertThat(serializer.deserialize(serializer.serialize(staff))).isEqualTo(staff);
+    }
+    
+    @Test
+    void kryoIsSmallerThanJson() {
+        Staff staff = sampleStaff(1);
+        byte[] json = CacheSerializers.json().serialize(staff);
+        byte[] kryo = new KryoRedisSerializer().serialize(staff);
+        
+        assertThat(kryo.length).isLessThan(json.length / 2);
+    }
+    
+    @Test
+    void compressedCodecRoundTripsLargeAndSmallValues() {
+        RedisSerializer<Object> serializer = CacheSerializers.create(codec(SerializationFormat.KRYO, true), 256);
+        List<Staff> list = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            list.add(sampleStaff(i));
+        }
+        byte[] uncompressed = new KryoRedisSerializer().serialize(list);
+        byte[] compressed = serializer.serialize(list);
+        
+        assertThat(compressed.length).isLessThan(uncompressed.length);
+        assertThat(serializer.deserialize(compressed)).isEqualTo(list);
+        assertThat(serializer.deserialize(serializer.serialize(7L))).isEqualTo(7L);
+    }
+    
+    @Test
+    void keyTagSeparatesEncodings() {
+        assertThat(CacheSerializers.keyTag(codec(SerializationFormat.JSON, false))).isNull();
+        assertThat(CacheSerializers.keyTag(codec(SerializationFormat.KRYO, true)))
+                .startsWith("kryo-").endsWith(".lz4");
+    }
+    
+    private static CacheProperties.Codec codec(SerializationFormat format, boolean compress) {
+        CacheProperties.Codec codec = new CacheProperties.Codec();
+        codec.setFormat(format);
+        codec.setCompress(compress);
+        return codec;
+    }
+    
+    private static Staff sampleStaff(long id) {
+        Department department = new Department();
+        department.setId(3L);
+        department.setCode("DEPT003");
+        department.setName("Computer Science");
+        department.setDescription("School of Computer Science and Technology");
+        department.setCreatedAt(LocalDateTime.of(2020, 1, 1, 8, 0));
+        department.setUpdatedAt(LocalDateTime.of(2024, 3, 1, 8, 0));
+        
+        Staff staff = new Staff();
+        staff.setId(id);
+        staff.setStaffNo("T" + id);
+        staff.setName("Staff " + id);
+        staff.setGender("F");
+        staff.setBirthDate(LocalDate.of(1985, 8, 20));
+        staff.setPhone("13800138002");
+        staff.setEmail("staff" + id + "@school.com");
+        staff.setIdCard("110101198508201234");
+        staff.setDepartment(department);
+        staff.setPosition("Associate Professor");
+        staff.setHireDate(LocalDate.of(2015, 9, 1));
+        staff.setStatus("ACTIVE");
+        staff.setAddress("Haidian District, Beijing");
+        staff.setCreatedAt(LocalDateTime.of(2015, 9, 1, 9, 30));
+        staff.setUpdatedAt(LocalDateTime.of(2024, 5, 6, 10, 11, 12));
+        return staff;
+    }
+}
@@ -0,0 +1,98 @@
+package com.school.staff.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.staff.event.StaffChangedEvent;
+import com.school.staff.event.StaffSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pre-encoded response bodies: gzip or raw by Accept-Encoding, reloaded on a new ETag or a change
+ */
+class EncodedResponseCacheTest {
+    
+    private static final String JSON = "{\"code\":200,\"message\":\"Success\",\"data\":[\"a\",\"b\"]}";
+    
+    private final EncodedResponseCache cache = new EncodedResponseCache(new ObjectMapper(), new SimpleMeterRegistry(),
+            DataSize.ofMegabytes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<List<String>> loader = () -> {
+        loads.incrementAndGet();
+        return List.of("a", "b");
+    };
+    
+    @Test
+    void gzipAcceptingRequestsGetTheCompressedBody() throws IOException {
+        MockHttpServletResponse response = write("v1", "gzip, deflate, br");
+        
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.getContentLength()).isEqualTo(response.getContentAsByteArray().length);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(JSON);
+        }
+    }
+    
+    @Test
+    void otherRequestsGetRawJson() throws IOException {
+        for (String acceptEncoding : new String[] {null, "identity", "gzip;q=0", "br, gzip; q=0.0"}) {
+            MockHttpServletResponse response = write("v1", acceptEncoding);
+            
+            assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+            assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+            assertThat(response.getContentAsString()).isEqualTo(JSON);
+        }
+        assertThat(loads).hasValue(1);
+    }
+    
+    @Test
+    void reloadsOnANewEtagOrAChange() throws IOException {
+        write("v1", "gzip");
+        write("v1", null);
+        assertThat(loads).hasValue(1);
+        
+        write("v2", "gzip");
+        assertThat(loads).hasValue(2);
+        
+        cache.onStaffChanged(StaffChangedEvent.created(
+                new StaffSnapshot(1L, "S1", "Staff 1", "F", 10L, "Teacher", "ACTIVE", true)));
+        write("v2", "gzip");
+        assertThat(loads).hasValue(3);
+    }
+    
+    @Test
+    void parsesAcceptEncoding() {
+        assertThat(EncodedResponseCache.acceptsGzip("gzip")).isTrue();
+        assertThat(EncodedResponseCache.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(EncodedResponseCache.acceptsGzip("*")).isTrue();
+        assertThat(EncodedResponseCache.acceptsGzip("gzip;q=0.001")).isTrue();
+        assertThat(EncodedResponseCache.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(EncodedResponseCache.acceptsGzip("br, deflate")).isFalse();
+        assertThat(EncodedResponseCache.acceptsGzip(null)).isFalse();
+    }
+    
+    private MockHttpServletResponse write(String etag, String acceptEncoding) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/staff/department/10");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cache.write(EncodedResponseCache.staffByDepartmentKey(10L), etag, loader, request, response);
+        return response;
+    }
+}
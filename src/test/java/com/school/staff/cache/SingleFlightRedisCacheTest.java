@@ -0,0 +1,125 @@
+package com.school.staff.cache;
+
+import com.school.staff.config.CacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load coalescing and early refresh of the single-flight Redis cache, against an in-memory cache writer
+ */
+class SingleFlightRedisCacheTest {
+    
+    private final Map<String, byte[]> store = new ConcurrentHashMap<>();
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final ValueOperations<String, String> valueOperations = mockValueOperations();
+    private SingleFlightRedisCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        RedisCacheWriter cacheWriter = mock(RedisCacheWriter.class);
+        when(cacheWriter.get(anyString(), any(byte[].class)))
+                .thenAnswer(invocation -> store.get(key(invocation.getArgument(1))));
+        doAnswer(invocation -> store.put(key(invocation.getArgument(1)), invocation.getArgument(2)))
+                .when(cacheWriter).put(anyString(), any(byte[].class), any(byte[].class), any());
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(redisTemplate.getExpire(anyString(), eq(TimeUnit.MILLISECONDS))).thenReturn(-1L);
+        
+        CacheProperties properties = new CacheProperties();
+        properties.getStampede().setPollInterval(Duration.ofMillis(10));
+        cache = new SingleFlightRedisCache("staff", cacheWriter, RedisCacheConfiguration.defaultCacheConfig(),
+                redisTemplate, properties);
+    }
+    
+    @Test
+    void concurrentMissesRunOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get(1L, () -> {
+                    loads.incrementAndGet();
+                    Thread.sleep(200);
+                    return "loaded";
+                })));
+            }
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getLoadStats().getLoads()).isEqualTo(1);
+    }
+    
+    @Test
+    void waitsForAnotherNodesLoadInsteadOfLoading() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        Thread otherNode = new Thread(() -> {
+            sleep(100);
+            cache.put(1L, "from other node");
+        });
+        otherNode.start();
+        
+        String value = cache.get(1L, () -> "loaded here");
+        
+        assertThat(value).isEqualTo("from other node");
+        assertThat(cache.getLoadStats().getLoads()).isZero();
+        assertThat(cache.getLoadStats().getCoalescedLoads()).isEqualTo(1);
+    }
+    
+    @Test
+    void refreshesOnlyEntriesAboutToExpire() {
+        cache.put(1L, "old");
+        
+        assertThat(cache.get(1L, () -> "new")).isEqualTo("old");
+        
+        when(redisTemplate.getExpire(anyString(), eq(TimeUnit.MILLISECONDS))).thenReturn(0L);
+        assertThat(cache.get(1L, () -> "new")).isEqualTo("new");
+        assertThat(cache.getLoadStats().getEarlyRefreshes()).isEqualTo(1);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static ValueOperations<String, String> mockValueOperations() {
+        return mock(ValueOperations.class);
+    }
+    
+    private static String key(byte[] key) {
+        return new String(key, StandardCharsets.UTF_8);
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
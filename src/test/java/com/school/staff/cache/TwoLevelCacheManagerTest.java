@@ -0,0 +1,87 @@
+package com.school.staff.cache;
+
+import com.school.staff.config.CacheProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Two-level caches built over the remote cache manager, and L1 invalidations received from other nodes
+ */
+class TwoLevelCacheManagerTest {
+    
+    private final ConcurrentMapCacheManager remoteCacheManager = new ConcurrentMapCacheManager("staff", "department");
+    private final CacheInvalidationPublisher publisher = mock(CacheInvalidationPublisher.class);
+    private final TwoLevelCacheManager cacheManager = createCacheManager();
+    private final CacheInvalidationListener listener = new CacheInvalidationListener(cacheManager, "this-node");
+    
+    @Test
+    void frontsEveryRemoteCacheWithANearCache() {
+        assertThat(cacheManager.getCacheNames()).containsExactlyInAnyOrder("staff", "department");
+        
+        Cache staff = cacheManager.getCache("staff");
+        assertThat(staff).isInstanceOf(TwoLevelCache.class);
+        assertThat(((TwoLevelCache) staff).getRemote()).isSameAs(remoteCacheManager.getCache("staff"));
+        assertThat(cacheManager.getCache("staff")).isSameAs(staff);
+    }
+    
+    @Test
+    void invalidationFromAnotherNodeEvictsTheLocalEntryOnly() {
+        Cache staff = cacheManager.getCache("staff");
+        staff.put(1L, "one");
+        staff.put(2L, "two");
+        
+        listener.onMessage(message("other-node|staff|1"), null);
+        
+        TwoLevelCacheStats before = ((TwoLevelCache) staff).getStats();
+        assertThat(staff.get(1L, String.class)).isEqualTo("one");
+        assertThat(staff.get(2L, String.class)).isEqualTo("two");
+        TwoLevelCacheStats after = ((TwoLevelCache) staff).getStats();
+        // Key 1 had to come back from L2, key 2 was still local
+        assertThat(after.getL1Misses() - before.getL1Misses()).isEqualTo(1);
+        assertThat(after.getL1Hits() - before.getL1Hits()).isEqualTo(1);
+    }
+    
+    @Test
+    void invalidationWithoutKeyClearsTheLocalTier() {
+        Cache staff = cacheManager.getCache("staff");
+        staff.put(1L, "one");
+        staff.put(2L, "two");
+        
+        listener.onMessage(message("other-node|staff|"), null);
+        
+        assertThat(((TwoLevelCache) staff).getStats().getL1Size()).isZero();
+        assertThat(staff.get(1L, String.class)).isEqualTo("one");
+    }
+    
+    @Test
+    void ownAndMalformedMessagesAreIgnored() {
+        Cache staff = cacheManager.getCache("staff");
+        staff.put(1L, "one");
+        
+        listener.onMessage(message("this-node|staff|1"), null);
+        assertThatCode(() -> listener.onMessage(message("garbage"), null)).doesNotThrowAnyException();
+        assertThatCode(() -> cacheManager.invalidateLocal("unknown", "1")).doesNotThrowAnyException();
+        
+        staff.get(1L);
+        assertThat(((TwoLevelCache) staff).getStats().getL1Hits()).isEqualTo(1);
+    }
+    
+    private TwoLevelCacheManager createCacheManager() {
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(remoteCacheManager, new CacheProperties.Local(), publisher);
+        manager.afterPropertiesSet();
+        return manager;
+    }
+    
+    private static DefaultMessage message(String payload) {
+        return new DefaultMessage("cache-invalidation".getBytes(StandardCharsets.UTF_8),
+                payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
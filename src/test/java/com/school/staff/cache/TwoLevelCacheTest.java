@@ -0,0 +1,159 @@
+package com.school.staff.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Near-cache reads, writes and evictions of the two-level cache, against a Caffeine L1
+ * and an in-memory versioned L2
+ */
+class TwoLevelCacheTest {
+    
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder().build();
+    private final VersionedRemoteCache remote = new VersionedRemoteCache();
+    private final CacheInvalidationPublisher publisher = mock(CacheInvalidationPublisher.class);
+    private final TwoLevelCache cache = new TwoLevelCache("staff", local, remote, publisher);
+    
+    @Test
+    void l1MissIsFilledFromL2AndServedLocallyAfterwards() {
+        remote.put(1L, "from redis");
+        
+        assertThat(cache.get(1L, String.class)).isEqualTo("from redis");
+        assertThat(local.getIfPresent("1")).isEqualTo("from redis");
+        
+        // Gone from L2 without a broadcast: the L1 copy still answers
+        remote.evict(1L);
+        assertThat(cache.get(1L, String.class)).isEqualTo("from redis");
+        
+        TwoLevelCacheStats stats = cache.getStats();
+        assertThat(stats.getL1Hits()).isEqualTo(1);
+        assertThat(stats.getL1Misses()).isEqualTo(1);
+        assertThat(stats.getL2Hits()).isEqualTo(1);
+    }
+    
+    @Test
+    void missInBothTiersIsNotCachedLocally() {
+        assertThat(cache.get(1L)).isNull();
+        
+        assertThat(local.getIfPresent("1")).isNull();
+        assertThat(cache.getStats().getL2Misses()).isEqualTo(1);
+    }
+    
+    @Test
+    void valueLoaderRunsOnlyWhenBothTiersMiss() {
+        assertThat(cache.get(1L, () -> "loaded")).isEqualTo("loaded");
+        assertThat(cache.get(1L, () -> "loaded again")).isEqualTo("loaded");
+        
+        assertThat(remote.get(1L, String.class)).isEqualTo("loaded");
+        assertThat(local.getIfPresent("1")).isEqualTo("loaded");
+    }
+    
+    @Test
+    void putWritesBothTiersAndPublishes() {
+        cache.put(1L, "updated");
+        
+        assertThat(remote.get(1L, String.class)).isEqualTo("updated");
+        assertThat(local.getIfPresent("1")).isEqualTo("updated");
+        verify(publisher).publish("staff", "1");
+    }
+    
+    @Test
+    void evictDropsL1AndPublishes() {
+        cache.put(1L, "current");
+        
+        cache.evict(1L);
+        
+        assertThat(remote.get(1L)).isNull();
+        assertThat(local.getIfPresent("1")).isNull();
+        verify(publisher, times(2)).publish("staff", "1");
+    }
+    
+    @Test
+    void evictBelowDropsL1AndPassesTheFloorToL2() {
+        cache.put(1L, "current");
+        
+        cache.evictBelow(1L, 5L);
+        
+        assertThat(local.getIfPresent("1")).isNull();
+        assertThat(remote.floors).containsEntry(1L, 5L);
+        verify(publisher, times(2)).publish("staff", "1");
+    }
+    
+    @Test
+    void putRejectedByL2InvalidatesL1InsteadOfStoringIt() {
+        local.put("1", "cached");
+        remote.rejectWrites = true;
+        
+        boolean written = cache.putIfNewer(1L, "stale");
+        
+        assertThat(written).isFalse();
+        assertThat(local.getIfPresent("1")).isNull();
+        assertThat(remote.get(1L)).isNull();
+        verify(publisher).publish("staff", "1");
+    }
+    
+    @Test
+    void clearEmptiesBothTiersAndPublishesTheWholeCache() {
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        
+        cache.clear();
+        
+        assertThat(local.estimatedSize()).isZero();
+        assertThat(remote.get(1L)).isNull();
+        verify(publisher).publish("staff", null);
+    }
+    
+    @Test
+    void localEvictionsLeaveL2AndDoNotPublish() {
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        
+        cache.evictLocal("1");
+        assertThat(local.getIfPresent("1")).isNull();
+        assertThat(local.getIfPresent("2")).isEqualTo("two");
+        
+        cache.clearLocal();
+        assertThat(local.getIfPresent("2")).isNull();
+        assertThat(remote.get(2L, String.class)).isEqualTo("two");
+        verify(publisher, never()).publish("staff", null);
+    }
+    
+    /**
+     * L2 stub that records eviction floors and can be told to reject writes as stale
+     */
+    static class VersionedRemoteCache extends ConcurrentMapCache implements VersionedCache {
+        
+        final Map<Object, Long> floors = new ConcurrentHashMap<>();
+        boolean rejectWrites;
+        
+        VersionedRemoteCache() {
+            super("staff", false);
+        }
+        
+        @Override
+        public boolean putIfNewer(Object key, Object value) {
+            if (rejectWrites) {
+                return false;
+            }
+            put(key, value);
+            return true;
+        }
+        
+        @Override
+        public void evictBelow(Object key, long version) {
+            evict(key);
+            floors.put(key, version);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.school.staff.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.school.staff.service.StaffService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional GETs of a department's staff list: 304 without loading the list while the ETag
+ * matches, and a new ETag after any change to the rows or the department they embed
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:conditionalget;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "app.cache.local.enabled=false",
+    "app.cache.warm-up.enabled=false"
+})
+@Import(StaffControllerConditionalGetTest.Config.class)
+class StaffControllerConditionalGetTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @SpyBean
+    private StaffService staffService;
+    
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    
+    private String code;
+    private long departmentId;
+    private long staffId;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        // The context and its database are shared between tests, so every test gets its own department
+        code = "D" + SEQUENCE.incrementAndGet();
+        departmentId = createdId(post("/departments"), "{\"code\":\"" + code + "\",\"name\":\"Computer Science\"}");
+        staffId = createdId(post("/staff"),
+                "{\"staffNo\":\"" + code + "-1\",\"name\":\"Alice\",\"departmentId\":" + departmentId + "}");
+        createdId(post("/staff"),
+                "{\"staffNo\":\"" + code + "-2\",\"name\":\"Bob\",\"departmentId\":" + departmentId + "}");
+    }
+    
+    @Test
+    void matchingIfNoneMatchIsAnsweredWithoutLoadingTheList() throws Exception {
+        String etag = etag("");
+        clearInvocations(staffService);
+        
+        mockMvc.perform(get("/staff/department/{id}", departmentId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        
+        verify(staffService, never()).getStaffByDepartment(anyLong());
+    }
+    
+    @Test
+    void deletingAStaffMemberChangesTheEtag() throws Exception {
+        String before = etag("");
+        
+        mockMvc.perform(delete("/staff/{id}", staffId)).andExpect(status().isOk());
+        
+        String after = etag("");
+        assertThat(after).isNotEqualTo(before);
+        mockMvc.perform(get("/staff/department/{id}", departmentId).header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk());
+    }
+    
+    @Test
+    void updatingTheDepartmentChangesTheEtag() throws Exception {
+        String before = etag("");
+        
+        mockMvc.perform(put("/departments/{id}", departmentId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"code\":\"" + code + "\",\"name\":\"Computer Science and Engineering\"}"))
+                .andExpect(status().isOk());
+        
+        assertThat(etag("")).isNotEqualTo(before);
+    }
+    
+    @Test
+    void summaryViewHasItsOwnEtag() throws Exception {
+        String full = etag("");
+        String summary = etag("?view=summary");
+        
+        assertThat(summary).isNotEqualTo(full);
+        mockMvc.perform(get("/staff/department/{id}?view=summary", departmentId).header(HttpHeaders.IF_NONE_MATCH, full))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/staff/department/{id}?view=summary", departmentId).header(HttpHeaders.IF_NONE_MATCH, summary))
+                .andExpect(status().isNotModified());
+    }
+    
+    private String etag(String query) throws Exception {
+        MvcResult result = mockMvc.perform(get("/staff/department/" + departmentId + query))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+        return etag;
+    }
+    
+    private long createdId(MockHttpServletRequestBuilder request, String body) throws Exception {
+        MvcResult result = mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+        return ((Number) JsonPath.read(result.getResponse().getContentAsString(), "$.data.id")).longValue();
+    }
+    
+    @TestConfiguration
+    static class Config {
+        
+        // No Redis here: the caches live in memory
+        @Bean
+        @Primary
+        CacheManager testCacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+}
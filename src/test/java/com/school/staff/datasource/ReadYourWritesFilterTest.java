@@ -0,0 +1,86 @@
+package com.school.staff.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read-your-writes cookie: set by write requests, honoured (for at most one window) on reads
+ */
+class ReadYourWritesFilterTest {
+    
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+    
+    @Test
+    void writeRequestsSetTheCookieAndPinTheRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/staff");
+        request.setContextPath("/api");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean pinned = new AtomicBoolean();
+        
+        long before = System.currentTimeMillis();
+        filter.doFilter(request, response, (req, res) -> pinned.set(ReadYourWrites.isPinnedToPrimary()));
+        long after = System.currentTimeMillis();
+        
+        assertThat(pinned).isTrue();
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isFalse();
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(Long.parseLong(cookie.getValue())).isBetween(before + 5_000, after + 5_000);
+        assertThat(cookie.getPath()).isEqualTo("/api");
+        assertThat(cookie.getMaxAge()).isEqualTo(5);
+        assertThat(cookie.isHttpOnly()).isTrue();
+    }
+    
+    @Test
+    void readRequestsWithTheCookieArePinned() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/staff/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(System.currentTimeMillis() + 5_000)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean pinned = new AtomicBoolean();
+        
+        filter.doFilter(request, response, (req, res) -> pinned.set(ReadYourWrites.isPinnedToPrimary()));
+        
+        assertThat(pinned).isTrue();
+        assertThat(response.getCookie(ReadYourWritesFilter.COOKIE_NAME)).isNull();
+    }
+    
+    @Test
+    void forgedCookieIsCappedAtOneWindow() throws Exception {
+        ReadYourWritesFilter shortWindow = new ReadYourWritesFilter(Duration.ofMillis(100));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/staff/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(Long.MAX_VALUE)));
+        AtomicBoolean pinnedAtStart = new AtomicBoolean();
+        AtomicBoolean pinnedAfterWindow = new AtomicBoolean();
+        
+        shortWindow.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            pinnedAtStart.set(ReadYourWrites.isPinnedToPrimary());
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            pinnedAfterWindow.set(ReadYourWrites.isPinnedToPrimary());
+        });
+        
+        assertThat(pinnedAtStart).isTrue();
+        assertThat(pinnedAfterWindow).isFalse();
+    }
+    
+    @Test
+    void malformedCookieIsIgnored() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/staff/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, "forever"));
+        AtomicBoolean pinned = new AtomicBoolean(true);
+        
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> pinned.set(ReadYourWrites.isPinnedToPrimary()));
+        
+        assertThat(pinned).isFalse();
+    }
+}
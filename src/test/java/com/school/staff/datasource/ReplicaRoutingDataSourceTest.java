@@ -0,0 +1,180 @@
+package com.school.staff.datasource;
+
+import com.school.staff.config.DataSourceConfig;
+import com.school.staff.config.ReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing of the replica router, with two H2 databases standing in for primary and replica
+ */
+class ReplicaRoutingDataSourceTest {
+    
+    private HikariDataSource replicaPool;
+    private ReplicaRoutingDataSource router;
+    
+    @BeforeEach
+    void setUp() {
+        replicaPool = new HikariDataSource();
+        replicaPool.setPoolName("replica-1");
+        replicaPool.setJdbcUrl("jdbc:h2:mem:replica");
+        router = new ReplicaRoutingDataSource(new DriverManagerDataSource("jdbc:h2:mem:primary"),
+                List.of(replicaPool), new ReplicaProperties(), new SimpleMeterRegistry());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        ReadYourWrites.clear();
+        RequestContextHolder.resetRequestAttributes();
+        router.destroy();
+    }
+    
+    @Test
+    void readOnlyTransactionsUseTheReplica() throws Exception {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        assertThat(databaseOf(router)).isEqualTo("jdbc:h2:mem:replica");
+    }
+    
+    @Test
+    void writesUseThePrimaryAndPinLaterReadsOfTheRequest() throws Exception {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        
+        assertThat(databaseOf(router)).isEqualTo("jdbc:h2:mem:primary");
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isTrue();
+        
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(databaseOf(router)).isEqualTo("jdbc:h2:mem:primary");
+        
+        ReadYourWrites.clear();
+        assertThat(databaseOf(router)).isEqualTo("jdbc:h2:mem:replica");
+    }
+    
+    @Test
+    void writesOutsideRequestsDoNotPinTheThread() throws Exception {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        
+        assertThat(databaseOf(router)).isEqualTo("jdbc:h2:mem:primary");
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isFalse();
+    }
+    
+    @Test
+    void onPrimaryReadsFromThePrimaryWithoutPinningTheThread() throws Exception {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        assertThat(ReadYourWrites.onPrimary(() -> databaseOfUnchecked(router))).isEqualTo("jdbc:h2:mem:primary");
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isFalse();
+        assertThat(databaseOf(router)).isEqualTo("jdbc:h2:mem:replica");
+    }
+    
+    @Test
+    void replicaFailingToConnectFallsBackToThePrimary() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReplicaRoutingDataSource unreachable = new ReplicaRoutingDataSource(new DriverManagerDataSource("jdbc:h2:mem:primary"),
+                List.of(unreachablePool()), new ReplicaProperties(), meterRegistry);
+        try {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            
+            assertThat(databaseOf(unreachable)).isEqualTo("jdbc:h2:mem:primary");
+            assertThat(meterRegistry.get("datasource.replicas.healthy").gauge().value()).isZero();
+            assertThat(meterRegistry.get("datasource.connections.routed").tag("target", "primary-fallback")
+                    .counter().count()).isEqualTo(1);
+        } finally {
+            unreachable.destroy();
+        }
+    }
+    
+    @Test
+    void replicaMarkedDownByTheHealthCheckIsSkipped() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setHealthCheckInterval(Duration.ofMillis(50));
+        ReplicaRoutingDataSource unreachable = new ReplicaRoutingDataSource(new DriverManagerDataSource("jdbc:h2:mem:primary"),
+                List.of(unreachablePool()), properties, meterRegistry);
+        try {
+            unreachable.afterPropertiesSet();
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (meterRegistry.get("datasource.replicas.healthy").gauge().value() > 0
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(meterRegistry.get("datasource.replicas.healthy").gauge().value()).isZero();
+            
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            long started = System.nanoTime();
+            assertThat(databaseOf(unreachable)).isEqualTo("jdbc:h2:mem:primary");
+            // Not even tried: the connection timeout would have been spent otherwise
+            assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(250));
+        } finally {
+            unreachable.destroy();
+        }
+    }
+    
+    @Test
+    void replicaPoolsStartWhenThePrimaryPoolSizesAreUnset() throws Exception {
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl("jdbc:h2:mem:primary");
+        ReplicaProperties replicaProperties = new ReplicaProperties();
+        ReplicaProperties.Replica replica = new ReplicaProperties.Replica();
+        replica.setUrl("jdbc:h2:mem:replica");
+        replicaProperties.getReplicas().add(replica);
+        HikariDataSource primaryPool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        
+        ReplicaRoutingDataSource configured = new DataSourceConfig().replicaRoutingDataSource(
+                primaryPool, dataSourceProperties, replicaProperties, new SimpleMeterRegistry());
+        try {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertThat(databaseOf(configured)).isEqualTo("jdbc:h2:mem:replica");
+        } finally {
+            configured.destroy();
+            primaryPool.close();
+        }
+    }
+    
+    /**
+     * Nothing listens on port 1; configured like DataSourceConfig's replica pools
+     */
+    private static HikariDataSource unreachablePool() {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("replica-down");
+        pool.setJdbcUrl("jdbc:h2:tcp://localhost:1/replica");
+        pool.setConnectionTimeout(250);
+        pool.setInitializationFailTimeout(-1);
+        return pool;
+    }
+    
+    private static String databaseOfUnchecked(ReplicaRoutingDataSource router) {
+        try {
+            return databaseOf(router);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static String databaseOf(ReplicaRoutingDataSource router) throws Exception {
+        try (Connection connection = router.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
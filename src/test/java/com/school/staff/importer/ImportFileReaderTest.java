@@ -0,0 +1,89 @@
+package com.school.staff.importer;
+
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * CSV and XLSX readers: the header row names the cells, data rows are numbered from 2
+ */
+class ImportFileReaderTest {
+    
+    @TempDir
+    private Path directory;
+    
+    private final List<Long> lineNumbers = new ArrayList<>();
+    private final List<Map<String, String>> rows = new ArrayList<>();
+    
+    @Test
+    void readsCsvWithBomHeaderQuotesAndEmptyCells() throws IOException {
+        Path file = directory.resolve("staff.csv");
+        Files.writeString(file, "﻿StaffNo, Name ,Address,Phone\n"
+                + "S1,Zhang San,\"No. 1, School Road\",\n"
+                + "S2,\"Li \"\"Si\"\"\",,138\n", StandardCharsets.UTF_8);
+        
+        new CsvImportFileReader().read(file, this::collect);
+        
+        assertThat(lineNumbers).containsExactly(2L, 3L);
+        assertThat(rows.get(0)).containsEntry("staffno", "S1")
+                .containsEntry("name", "Zhang San")
+                .containsEntry("address", "No. 1, School Road")
+                .containsEntry("phone", "");
+        assertThat(rows.get(1)).containsEntry("name", "Li \"Si\"").containsEntry("address", "").containsEntry("phone", "138");
+    }
+    
+    @Test
+    void readsTheFirstXlsxSheetSkippingEmptyCellsAndRows() throws IOException {
+        Path file = directory.resolve("staff.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            XSSFSheet sheet = workbook.createSheet("staff");
+            XSSFRow header = sheet.createRow(0);
+            header.createCell(0).setCellValue("工号");
+            header.createCell(1).setCellValue(" Name ");
+            header.createCell(2).setCellValue("Phone");
+            XSSFRow first = sheet.createRow(1);
+            first.createCell(0).setCellValue("S1");
+            first.createCell(2).setCellValue(13800000000d);
+            sheet.createRow(2).createCell(1).setCellValue(" ");
+            XSSFRow second = sheet.createRow(3);
+            second.createCell(0).setCellValue("S2");
+            second.createCell(1).setCellValue(" Li Si ");
+            workbook.write(out);
+        }
+        
+        new XlsxImportFileReader().read(file, this::collect);
+        
+        assertThat(lineNumbers).containsExactly(2L, 4L);
+        assertThat(rows.get(0)).containsOnly(Map.entry("工号", "S1"), Map.entry("phone", "13800000000"));
+        assertThat(rows.get(1)).containsOnly(Map.entry("工号", "S2"), Map.entry("name", "Li Si"));
+    }
+    
+    @Test
+    void rejectsFilesThatAreNotXlsx() throws IOException {
+        Path file = directory.resolve("staff.xlsx");
+        Files.writeString(file, "staffNo,name\n");
+        
+        assertThatThrownBy(() -> new XlsxImportFileReader().read(file, this::collect))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Invalid Excel file");
+    }
+    
+    private void collect(long lineNumber, Map<String, String> row) {
+        lineNumbers.add(lineNumber);
+        rows.add(row);
+    }
+}
@@ -0,0 +1,69 @@
+package com.school.staff.importer;
+
+import com.school.staff.dto.StaffRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Mapping of import rows to StaffRequest: field names and Chinese labels, dates, flags and departments
+ */
+class StaffRowMapperTest {
+    
+    private final StaffRowMapper mapper = new StaffRowMapper(Map.of("CS", 7L));
+    
+    @Test
+    void mapsFieldNames() {
+        StaffRequest request = mapper.map(row(
+                "staffno", "S1", "name", " Zhang San ", "gender", "M", "birthdate", "1990/3/5",
+                "hiredate", "2020-09-01", "position", "Teacher", "status", "ACTIVE",
+                "isactive", "yes", "departmentid", "3", "phone", ""));
+        
+        assertThat(request.getStaffNo()).isEqualTo("S1");
+        assertThat(request.getName()).isEqualTo("Zhang San");
+        assertThat(request.getBirthDate()).isEqualTo(LocalDate.of(1990, 3, 5));
+        assertThat(request.getHireDate()).isEqualTo(LocalDate.of(2020, 9, 1));
+        assertThat(request.getIsActive()).isTrue();
+        assertThat(request.getDepartmentId()).isEqualTo(3L);
+        assertThat(request.getPhone()).isNull();
+        assertThat(request.getEmail()).isNull();
+    }
+    
+    @Test
+    void mapsChineseLabelsAndDepartmentCodes() {
+        StaffRequest request = mapper.map(row(
+                "工号", "S2", "姓名", "李四", "入职日期", "9/1/21", "是否启用", "否", "部门编码", "CS"));
+        
+        assertThat(request.getStaffNo()).isEqualTo("S2");
+        assertThat(request.getName()).isEqualTo("李四");
+        assertThat(request.getHireDate()).isEqualTo(LocalDate.of(2021, 9, 1));
+        assertThat(request.getIsActive()).isFalse();
+        assertThat(request.getDepartmentId()).isEqualTo(7L);
+    }
+    
+    @Test
+    void rejectsValuesThatCannotBeConverted() {
+        assertThatThrownBy(() -> mapper.map(row("staffno", "S3", "birthdate", "yesterday")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid birthDate: yesterday");
+        assertThatThrownBy(() -> mapper.map(row("staffno", "S3", "departmentid", "CS")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid departmentId: CS");
+        assertThatThrownBy(() -> mapper.map(row("staffno", "S3", "departmentcode", "MATH")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Department not found with code: MATH");
+    }
+    
+    private static Map<String, String> row(String... keysAndValues) {
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            row.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return row;
+    }
+}
@@ -0,0 +1,147 @@
+package com.school.staff.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.staff.entity.OutboxEvent;
+import com.school.staff.event.StaffChangedEvent;
+import com.school.staff.event.StaffSnapshot;
+import com.school.staff.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * At-least-once delivery of the outbox relay: delivered events are deleted, failed ones are
+ * kept for a retry and given up after max-attempts
+ */
+@DataJpaTest
+@Import({OutboxRelay.class, OutboxRelayTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "app.outbox.max-attempts=2",
+    "app.outbox.retry-backoff=PT0S",
+    // The scheduled poll would race the test's own drain() calls
+    "app.outbox.poll-interval=P1D"
+})
+class OutboxRelayTest {
+    
+    private static final List<StaffChangedEvent> received = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger failuresLeft = new AtomicInteger();
+    
+    @Autowired
+    private OutboxRelay outboxRelay;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        received.clear();
+        failuresLeft.set(0);
+    }
+    
+    @Test
+    void deliversAndDeletesEvents() throws Exception {
+        StaffChangedEvent event = StaffChangedEvent.created(
+                new StaffSnapshot(1L, "S1", "Zhang San", "M", 2L, "Teacher", "ACTIVE", true));
+        save(event);
+        
+        outboxRelay.drain();
+        
+        assertThat(received).containsExactly(event);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+    
+    @Test
+    void retriesFailedEventsAndGivesUpAfterMaxAttempts() throws Exception {
+        failuresLeft.set(1);
+        save(StaffChangedEvent.deleted(new StaffSnapshot(1L, "S1", "Zhang San", "M", 2L, "Teacher", "ACTIVE", true)));
+        
+        outboxRelay.drain();
+        
+        OutboxEvent retried = outboxEventRepository.findAll().get(0);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getLastError()).isEqualTo("boom");
+        assertThat(retried.getFailedAt()).isNull();
+        
+        outboxRelay.drain();
+        
+        assertThat(received).hasSize(2);
+        assertThat(outboxEventRepository.count()).isZero();
+        
+        failuresLeft.set(3);
+        save(StaffChangedEvent.deleted(new StaffSnapshot(3L, "S3", "Li Si", null, null, null, null, true)));
+        
+        outboxRelay.drain();
+        outboxRelay.drain();
+        outboxRelay.drain();
+        
+        OutboxEvent failed = outboxEventRepository.findAll().get(0);
+        assertThat(failed.getAttempts()).isEqualTo(2);
+        assertThat(failed.getFailedAt()).isNotNull();
+        assertThat(received).hasSize(4);
+    }
+    
+    private void save(StaffChangedEvent event) throws Exception {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setAggregateType(OutboxEvent.STAFF);
+        outboxEvent.setAggregateId(event.staffId());
+        outboxEvent.setEventType(event.type().name());
+        outboxEvent.setPayload(objectMapper.writeValueAsString(event));
+        outboxEvent.setCreatedAt(LocalDateTime.now());
+        outboxEventRepository.save(outboxEvent);
+    }
+    
+    @TestConfiguration
+    static class Config {
+        
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+        
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+        
+        @Bean
+        OutboxConsumer recordingConsumer() {
+            return new OutboxConsumer() {
+                
+                @Override
+                public String name() {
+                    return "recording";
+                }
+                
+                @Override
+                public void onStaffChanged(StaffChangedEvent event) {
+                    received.add(event);
+                    if (failuresLeft.getAndDecrement() > 0) {
+                        throw new RuntimeException("boom");
+                    }
+                }
+            };
+        }
+    }
+}
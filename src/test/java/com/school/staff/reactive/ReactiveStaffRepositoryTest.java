@@ -0,0 +1,94 @@
+package com.school.staff.reactive;
+
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies the R2DBC row mapping and that keyset pages add up to the full, id-ordered result
+ */
+@DataR2dbcTest
+@AutoConfigureCache
+@Import(ReactiveStaffRepository.class)
+@TestPropertySource(properties = {
+    "spring.r2dbc.url=r2dbc:h2:mem:///reactive-staff",
+    "spring.r2dbc.username=sa",
+    "spring.r2dbc.password=",
+    "app.reactive.page-size=3"
+})
+class ReactiveStaffRepositoryTest {
+    
+    private static final int STAFF = 8;
+    
+    @Autowired
+    private DatabaseClient databaseClient;
+    
+    @Autowired
+    private ReactiveStaffRepository reactiveStaffRepository;
+    
+    @BeforeEach
+    void setUp() {
+        execute("DROP TABLE IF EXISTS staff");
+        execute("DROP TABLE IF EXISTS departments");
+        execute("CREATE TABLE departments (id BIGINT PRIMARY KEY, code VARCHAR(50), name VARCHAR(100), "
+                + "description VARCHAR(500), parent_id BIGINT, level INT, is_active BOOLEAN, "
+                + "created_at TIMESTAMP, updated_at TIMESTAMP)");
+        execute("CREATE TABLE staff (id BIGINT PRIMARY KEY, staff_no VARCHAR(50), name VARCHAR(50), "
+                + "gender VARCHAR(10), birth_date DATE, phone VARCHAR(20), email VARCHAR(100), id_card VARCHAR(20), "
+                + "department_id BIGINT, position VARCHAR(50), hire_date DATE, status VARCHAR(20), "
+                + "address VARCHAR(500), is_active BOOLEAN, created_at TIMESTAMP, updated_at TIMESTAMP)");
+        execute("INSERT INTO departments VALUES (1, 'D1', 'Mathematics', NULL, NULL, 1, TRUE, "
+                + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        for (int i = 1; i <= STAFF; i++) {
+            execute("INSERT INTO staff (id, staff_no, name, department_id, position, hire_date, status, is_active, "
+                    + "created_at, updated_at) VALUES (" + i + ", 'S" + i + "', 'Staff " + i + "', "
+                    + (i % 2 == 0 ? "1" : "NULL") + ", 'Teacher', DATE '2020-01-0" + i + "', '"
+                    + (i <= 5 ? "ACTIVE" : "RETIRED") + "', TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        }
+    }
+    
+    @Test
+    void findAllReadsEveryPageInIdOrder() {
+        List<Staff> staff = reactiveStaffRepository.findAll().collectList().block();
+        
+        assertThat(staff).extracting(Staff::getId).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+    }
+    
+    @Test
+    void filteredPagesOnlyContainMatchingRows() {
+        List<Staff> active = reactiveStaffRepository.findByStatus("ACTIVE").collectList().block();
+        List<Staff> inDepartment = reactiveStaffRepository.findByDepartmentId(1L).collectList().block();
+        
+        assertThat(active).extracting(Staff::getId).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(inDepartment).extracting(Staff::getId).containsExactly(2L, 4L, 6L, 8L);
+    }
+    
+    @Test
+    void mapsStaffWithDepartment() {
+        Staff staff = reactiveStaffRepository.findById(2L).block();
+        Department department = reactiveStaffRepository.findDepartmentByCode("D1").block();
+        
+        assertThat(staff.getStaffNo()).isEqualTo("S2");
+        assertThat(staff.getHireDate()).hasDayOfMonth(2);
+        assertThat(staff.getIsActive()).isTrue();
+        assertThat(staff.getDepartment().getName()).isEqualTo("Mathematics");
+        assertThat(department.getId()).isEqualTo(1L);
+        assertThat(reactiveStaffRepository.findById(1L).block().getDepartment()).isNull();
+        assertThat(reactiveStaffRepository.findById(99L).blockOptional()).isEmpty();
+    }
+    
+    private void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+}
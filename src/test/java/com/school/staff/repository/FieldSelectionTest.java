@@ -0,0 +1,35 @@
+package com.school.staff.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Parsing of the fields= request parameter
+ */
+class FieldSelectionTest {
+    
+    @Test
+    void selectsTheIdFirstWithoutDuplicates() {
+        assertThat(FieldSelection.parse(" name , status,name,,id", FieldSelection.STAFF_FIELDS))
+                .containsExactly("id", "name", "status");
+        assertThat(FieldSelection.parse("departmentName", FieldSelection.STAFF_FIELDS))
+                .containsExactly("id", "departmentName");
+    }
+    
+    @Test
+    void blankSelectsEveryField() {
+        assertThat(FieldSelection.parse(null, FieldSelection.DEPARTMENT_FIELDS)).isEqualTo(FieldSelection.DEPARTMENT_FIELDS);
+        assertThat(FieldSelection.parse(" ", FieldSelection.STAFF_FIELDS)).isEqualTo(FieldSelection.STAFF_FIELDS);
+    }
+    
+    @Test
+    void rejectsUnknownFields() {
+        assertThatThrownBy(() -> FieldSelection.parse("name,salary", FieldSelection.STAFF_FIELDS))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Unsupported field: salary");
+        assertThatThrownBy(() -> FieldSelection.parse("departmentName", FieldSelection.DEPARTMENT_FIELDS))
+                .hasMessage("Unsupported field: departmentName");
+    }
+}
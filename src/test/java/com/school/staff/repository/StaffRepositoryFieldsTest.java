@@ -0,0 +1,145 @@
+package com.school.staff.repository;
+
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sparse fieldset queries: only the selected columns, the department joined only when one of its
+ * columns is selected, and offset paging with the optional COUNT as the only extra statement
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.school.staff.repository.StaffRepositoryFieldsTest$RecordingInspector"
+})
+class StaffRepositoryFieldsTest {
+    
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private StaffRepository staffRepository;
+    
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        Department department = new Department();
+        department.setCode("D1");
+        department.setName("Department 1");
+        entityManager.persist(department);
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(staff("S" + i, i < 4 ? department : null, i % 2 == 0 ? "ACTIVE" : "LEFT"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statements.clear();
+    }
+    
+    @Test
+    void selectsOnlyTheRequestedColumnsWithoutJoin() {
+        Slice<Map<String, Object>> slice = staffRepository.findFields(null,
+                FieldSelection.parse("staffNo,status", FieldSelection.STAFF_FIELDS), Pageable.unpaged());
+        
+        assertThat(slice.getContent()).hasSize(5);
+        assertThat(slice.getContent().get(0)).containsOnlyKeys("id", "staffNo", "status");
+        assertThat(statements).singleElement().satisfies(sql -> {
+            assertThat(sql).doesNotContainIgnoringCase("join");
+            assertThat(sql).doesNotContainIgnoringCase("email");
+        });
+    }
+    
+    @Test
+    void joinsTheDepartmentWhenOneOfItsColumnsIsSelected() {
+        Slice<Map<String, Object>> slice = staffRepository.findFields(null,
+                FieldSelection.parse("departmentName,staffNo", FieldSelection.STAFF_FIELDS),
+                PageRequest.of(0, 10, Sort.by("staffNo")));
+        
+        assertThat(slice.getContent()).extracting(row -> row.get("departmentName"))
+                .containsExactly("Department 1", "Department 1", "Department 1", "Department 1", null);
+        assertThat(slice.getContent().get(0).keySet()).containsExactly("id", "departmentName", "staffNo");
+        assertThat(statements).singleElement().satisfies(sql -> assertThat(sql).containsIgnoringCase("left join"));
+    }
+    
+    @Test
+    void pagesWithTheCountAsOnlyExtraStatement() {
+        Specification<Staff> active = StaffSpecifications.hasStatus("ACTIVE");
+        List<String> fields = FieldSelection.parse("staffNo", FieldSelection.STAFF_FIELDS);
+        
+        Slice<Map<String, Object>> first = staffRepository.findFields(active, fields, PageRequest.of(0, 2, Sort.by("staffNo")));
+        Slice<Map<String, Object>> last = staffRepository.findFields(active, fields, PageRequest.of(1, 2, Sort.by("staffNo")));
+        long total = staffRepository.count(active);
+        
+        assertThat(first.getContent()).extracting(row -> row.get("staffNo")).containsExactly("S0", "S2");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting(row -> row.get("staffNo")).containsExactly("S4");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(total).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+    
+    @Test
+    void selectsDepartmentFields() {
+        List<Map<String, Object>> rows = departmentRepository.findFields(null,
+                FieldSelection.parse("code", FieldSelection.DEPARTMENT_FIELDS), Sort.by("id"));
+        
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row).containsOnlyKeys("id", "code");
+            assertThat(row.get("code")).isEqualTo("D1");
+        });
+    }
+    
+    private static Staff staff(String staffNo, Department department, String status) {
+        Staff staff = new Staff();
+        staff.setStaffNo(staffNo);
+        staff.setName("Staff " + staffNo);
+        staff.setStatus(status);
+        staff.setPosition("Teacher");
+        staff.setEmail(staffNo + "@school.edu");
+        staff.setDepartment(department);
+        return staff;
+    }
+    
+    /**
+     * Records the SQL of every statement
+     */
+    public static class RecordingInspector implements StatementInspector {
+        
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
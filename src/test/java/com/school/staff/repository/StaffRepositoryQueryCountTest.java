@@ -0,0 +1,123 @@
+package com.school.staff.repository;
+
+import com.school.staff.dto.StaffSummary;
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that staff list finders and specification queries issue a constant
+ * number of statements regardless of how many departments the result spans
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class StaffRepositoryQueryCountTest {
+    
+    private static final int DEPARTMENTS = 8;
+    private static final int STAFF_PER_DEPARTMENT = 5;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private StaffRepository staffRepository;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        for (int d = 0; d < DEPARTMENTS; d++) {
+            Department department = new Department();
+            department.setCode("D" + d);
+            department.setName("Department " + d);
+            entityManager.persist(department);
+            for (int i = 0; i < STAFF_PER_DEPARTMENT; i++) {
+                Staff staff = new Staff();
+                staff.setStaffNo("S" + d + "-" + i);
+                staff.setName("Staff " + d + "-" + i);
+                staff.setStatus("ACTIVE");
+                staff.setPosition("Teacher");
+                staff.setDepartment(department);
+                entityManager.persist(staff);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+    
+    @Test
+    void findByStatusUsesSingleStatement() {
+        assertSingleStatement(() -> staffRepository.findByStatus("ACTIVE"));
+    }
+    
+    @Test
+    void findByPositionUsesSingleStatement() {
+        assertSingleStatement(() -> staffRepository.findByPosition("Teacher"));
+    }
+    
+    @Test
+    void findByNameContainingUsesSingleStatement() {
+        assertSingleStatement(() -> staffRepository.findByNameContaining("Staff"));
+    }
+    
+    @Test
+    void summaryProjectionUsesSingleStatement() {
+        List<StaffSummary> summaries = assertSingleStatement(() -> staffRepository.findSummaryByStatus("ACTIVE"));
+        assertThat(summaries).allSatisfy(s -> assertThat(s.getDepartmentName()).startsWith("Department"));
+    }
+    
+    @Test
+    void specificationSliceSkipsCount() {
+        Slice<Staff> slice = staffRepository.findSlice(activeTeachers(), PageRequest.of(0, 10, Sort.by("id")));
+        
+        assertThat(slice.getContent()).hasSize(10);
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(slice.getContent()).allSatisfy(s -> assertThat(s.getDepartment().getName()).startsWith("Department"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+    
+    @Test
+    void specificationPageAddsOnlyCountStatement() {
+        Page<Staff> page = staffRepository.findAll(activeTeachers(), PageRequest.of(3, 10, Sort.by("id")));
+        
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(DEPARTMENTS * STAFF_PER_DEPARTMENT);
+        assertThat(page.getContent()).allSatisfy(s -> assertThat(s.getDepartment().getName()).startsWith("Department"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+    
+    private static Specification<Staff> activeTeachers() {
+        return StaffSpecifications.hasStatus("ACTIVE").and(StaffSpecifications.hasPosition("Teacher"));
+    }
+    
+    private <T> List<T> assertSingleStatement(Supplier<List<T>> query) {
+        List<T> result = query.get();
+        assertThat(result).hasSize(DEPARTMENTS * STAFF_PER_DEPARTMENT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        return result;
+    }
+}
@@ -0,0 +1,77 @@
+package com.school.staff.search;
+
+import com.school.staff.dto.SearchHit;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Matching, ranking and maintenance of the name n-gram index
+ */
+class NgramIndexTest {
+    
+    @Test
+    void ranksExactThenPrefixThenInfix() {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "王张三", "S1");
+        index.put(2L, "张三丰", "S2");
+        index.put(3L, "张三", "S3");
+        
+        assertThat(ids(index.search("张三", 10, false))).containsExactly(3L, 2L, 1L);
+    }
+    
+    @Test
+    void matchesPinyinInitials() {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "张三", "S1");
+        index.put(2L, "李四", "S2");
+        index.put(3L, "计算机学院", "D1");
+        
+        assertThat(ids(index.search("zs", 10, true))).containsExactly(1L);
+        assertThat(ids(index.search("jsj", 10, true))).containsExactly(3L);
+        assertThat(ids(index.search("xy", 10, true))).containsExactly(3L);
+        assertThat(index.search("zs", 10, false)).isEmpty();
+    }
+    
+    @Test
+    void findIdsContainingBehavesLikeCaseInsensitiveLike() {
+        NgramIndex index = new NgramIndex();
+        index.put(2L, "Alice Zhang", "S2");
+        index.put(1L, "ZHANG Wei", "S1");
+        index.put(3L, "Bob", "S3");
+        
+        assertThat(index.findIdsContaining("zhang")).containsExactly(1L, 2L);
+        assertThat(index.findIdsContaining("b")).containsExactly(3L);
+        assertThat(index.findIdsContaining("zhangx")).isEmpty();
+    }
+    
+    @Test
+    void updatesAndRemovesEntries() {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "张三", "S1");
+        index.put(1L, "李四", "S1");
+        
+        assertThat(index.search("张", 10, true)).isEmpty();
+        assertThat(ids(index.search("李", 10, true))).containsExactly(1L);
+        
+        index.remove(1L);
+        assertThat(index.search("李", 10, true)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+    
+    @Test
+    void appliesLimit() {
+        NgramIndex index = new NgramIndex();
+        for (long id = 1; id <= 50; id++) {
+            index.put(id, "张" + id, "S" + id);
+        }
+        
+        assertThat(index.search("张", 5, true)).hasSize(5);
+    }
+    
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getId).toList();
+    }
+}
@@ -0,0 +1,138 @@
+package com.school.staff.service;
+
+import com.school.staff.config.CacheProperties;
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import com.school.staff.repository.DepartmentRepository;
+import com.school.staff.repository.StaffRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Startup cache warm-up: one query per batch of missing rows, and startup goes on when warm-up
+ * fails or runs out of time
+ */
+class CacheWarmUpServiceTest {
+    
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("staff", "departments");
+    private final CacheProperties cacheProperties = new CacheProperties();
+    private final StaffAccessTracker staffAccessTracker = mock(StaffAccessTracker.class);
+    private final StaffRepository staffRepository = mock(StaffRepository.class);
+    private final DepartmentRepository departmentRepository = mock(DepartmentRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CacheWarmUpService warmUpService = new CacheWarmUpService(cacheManager, cacheProperties,
+            staffAccessTracker, staffRepository, departmentRepository, meterRegistry);
+    
+    @BeforeEach
+    void setUp() {
+        cacheProperties.getWarmUp().setBatchSize(2);
+        cacheProperties.getWarmUp().setParallelism(2);
+        when(departmentRepository.findAll()).thenReturn(List.of(department(1L), department(2L), department(3L)));
+        when(staffRepository.findByIdInOrderById(anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).stream()
+                        .filter(id -> id != 4L)
+                        .map(CacheWarmUpServiceTest::staff)
+                        .toList());
+    }
+    
+    @Test
+    void loadsEachBatchOfStaffWithOneQuery() {
+        when(staffAccessTracker.getMostAccessed(1000)).thenReturn(List.of(1L, 2L, 3L, 4L, 5L));
+        
+        warmUpService.run(null);
+        
+        verify(staffRepository).findByIdInOrderById(List.of(1L, 2L));
+        verify(staffRepository).findByIdInOrderById(List.of(3L, 4L));
+        verify(staffRepository).findByIdInOrderById(List.of(5L));
+        verify(staffRepository, times(3)).findByIdInOrderById(anyCollection());
+        Cache staffCache = cacheManager.getCache("staff");
+        assertThat(staffCache.get(1L, Staff.class).getId()).isEqualTo(1L);
+        assertThat(staffCache.get(5L, Staff.class).getId()).isEqualTo(5L);
+        // A hot id that no longer exists is skipped, not cached
+        assertThat(staffCache.get(4L)).isNull();
+        assertThat(cacheManager.getCache("departments").get(3L, Department.class).getId()).isEqualTo(3L);
+        assertThat(meterRegistry.find("cache.warmup").timer().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void batchesAlreadyCachedAreNotQueried() {
+        cacheManager.getCache("staff").put(1L, staff(1L));
+        cacheManager.getCache("staff").put(2L, staff(2L));
+        when(staffAccessTracker.getMostAccessed(1000)).thenReturn(List.of(1L, 2L, 3L));
+        
+        warmUpService.run(null);
+        
+        verify(staffRepository, times(1)).findByIdInOrderById(anyCollection());
+        verify(staffRepository).findByIdInOrderById(List.of(3L));
+    }
+    
+    @Test
+    void failureDoesNotFailStartup() {
+        when(departmentRepository.findAll()).thenThrow(new DataAccessResourceFailureException("Database down"));
+        
+        assertThatCode(() -> warmUpService.run(null)).doesNotThrowAnyException();
+        assertThat(meterRegistry.find("cache.warmup").timer().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void failingBatchDoesNotStopTheOthers() {
+        when(staffAccessTracker.getMostAccessed(1000)).thenReturn(List.of(1L, 2L, 3L));
+        when(staffRepository.findByIdInOrderById(List.of(1L, 2L)))
+                .thenThrow(new DataAccessResourceFailureException("Database down"));
+        
+        assertThatCode(() -> warmUpService.run(null)).doesNotThrowAnyException();
+        assertThat(cacheManager.getCache("staff").get(3L)).isNotNull();
+    }
+    
+    @Test
+    void timeoutLeavesAPartlyFilledCacheAndContinues() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        cacheProperties.getWarmUp().setTimeout(Duration.ofMillis(200));
+        when(staffAccessTracker.getMostAccessed(1000)).thenReturn(List.of(1L));
+        when(staffRepository.findByIdInOrderById(List.of(1L))).thenAnswer(invocation -> {
+            release.await();
+            return List.of(staff(1L));
+        });
+        
+        long start = System.nanoTime();
+        try {
+            warmUpService.run(null);
+        } finally {
+            release.countDown();
+        }
+        
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(cacheManager.getCache("departments").get(1L)).isNotNull();
+    }
+    
+    private static Department department(Long id) {
+        Department department = new Department();
+        department.setId(id);
+        department.setName("Department " + id);
+        return department;
+    }
+    
+    private static Staff staff(Long id) {
+        Staff staff = new Staff();
+        staff.setId(id);
+        staff.setName("Staff " + id);
+        return staff;
+    }
+}
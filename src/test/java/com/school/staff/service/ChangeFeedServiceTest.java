@@ -0,0 +1,128 @@
+package com.school.staff.service;
+
+import com.school.staff.dto.ChangeFeedPage;
+import com.school.staff.entity.DeletedRecord;
+import com.school.staff.entity.Department;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Change feed paging: merge order of upserts and tombstones, keyset continuation and token expiry
+ */
+@DataJpaTest
+@Import(ChangeFeedService.class)
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "app.changes.settle-time=PT0S",
+    "app.changes.tombstone-retention=P30D"
+})
+class ChangeFeedServiceTest {
+    
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Test
+    void quietFeedMovesTheTokenForward() throws Exception {
+        LocalDateTime changedAt = LocalDateTime.now().minusDays(20).withNano(0);
+        department("D1", changedAt);
+        
+        ChangeFeedPage<Department> first = changeFeedService.getDepartmentChanges(null, null);
+        assertThat(first.getChanges()).hasSize(1);
+        assertThat(ChangeToken.decode(first.getNextToken()).time()).isEqualTo(changedAt);
+        
+        ChangeFeedPage<Department> quiet = changeFeedService.getDepartmentChanges(first.getNextToken(), null);
+        assertThat(quiet.getChanges()).isEmpty();
+        assertThat(ChangeToken.decode(quiet.getNextToken()).time()).isAfter(LocalDateTime.now().minusMinutes(1));
+        
+        // Changes after the moved token are still returned
+        Thread.sleep(5);
+        department("D2", LocalDateTime.now().minusNanos(1_000_000));
+        ChangeFeedPage<Department> next = changeFeedService.getDepartmentChanges(quiet.getNextToken(), null);
+        assertThat(next.getChanges()).extracting(change -> change.getData().getCode()).containsExactly("D2");
+    }
+    
+    @Test
+    void upsertsAndTombstonesAreMergedInOrder() {
+        LocalDateTime t0 = LocalDateTime.now().minusHours(3).withNano(0);
+        LocalDateTime t1 = t0.plusHours(1);
+        Department d1 = department("D1", t1);
+        Department d2 = department("D2", t1);
+        Department d3 = department("D3", t1.plusHours(1));
+        tombstone(DeletedRecord.DEPARTMENT, 101L, t1);
+        tombstone(DeletedRecord.DEPARTMENT, 100L, t0);
+        tombstone(DeletedRecord.STAFF, 200L, t1);
+        
+        ChangeFeedPage<Department> page = changeFeedService.getDepartmentChanges(null, null);
+        
+        // By time, then upserts before deletions, then id; staff tombstones belong to the other feed
+        assertThat(page.getChanges()).extracting(change -> change.getType() + ":" + change.getId()).containsExactly(
+                "DELETE:100", "UPSERT:" + d1.getId(), "UPSERT:" + d2.getId(), "DELETE:101", "UPSERT:" + d3.getId());
+        assertThat(page.getChanges().get(1).getData().getCode()).isEqualTo("D1");
+        assertThat(page.getChanges().get(0).getData()).isNull();
+        assertThat(page.getHasMore()).isFalse();
+        assertThat(ChangeToken.decode(page.getNextToken())).isEqualTo(new ChangeToken(t1.plusHours(1), false, d3.getId()));
+    }
+    
+    @Test
+    void pagesContinueWithinTheSameTimestamp() {
+        LocalDateTime changedAt = LocalDateTime.now().minusHours(1).withNano(0);
+        List<String> expected = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            expected.add("UPSERT:" + department("D" + i, changedAt).getId());
+        }
+        for (long entityId = 100; entityId < 103; entityId++) {
+            tombstone(DeletedRecord.DEPARTMENT, entityId, changedAt);
+            expected.add("DELETE:" + entityId);
+        }
+        expected.add("UPSERT:" + department("D6", changedAt.plusSeconds(1)).getId());
+        
+        List<String> received = new ArrayList<>();
+        String token = null;
+        int pages = 0;
+        ChangeFeedPage<Department> page;
+        do {
+            page = changeFeedService.getDepartmentChanges(token, 2);
+            page.getChanges().forEach(change -> received.add(change.getType() + ":" + change.getId()));
+            token = page.getNextToken();
+            pages++;
+        } while (page.getHasMore());
+        
+        assertThat(received).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo(5);
+        assertThat(changeFeedService.getDepartmentChanges(token, 2).getChanges()).isEmpty();
+    }
+    
+    private DeletedRecord tombstone(String entityType, Long entityId, LocalDateTime deletedAt) {
+        DeletedRecord record = new DeletedRecord();
+        record.setEntityType(entityType);
+        record.setEntityId(entityId);
+        record.setDeletedAt(deletedAt);
+        return entityManager.persistFlushFind(record);
+    }
+    
+    private Department department(String code, LocalDateTime updatedAt) {
+        Department department = new Department();
+        department.setCode(code);
+        department.setName("Department " + code);
+        entityManager.persistAndFlush(department);
+        entityManager.getEntityManager().createNativeQuery("update departments set updated_at = ? where id = ?")
+                .setParameter(1, updatedAt)
+                .setParameter(2, department.getId())
+                .executeUpdate();
+        entityManager.clear();
+        return department;
+    }
+}
@@ -0,0 +1,58 @@
+package com.school.staff.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Encoding and ordering of change feed continuation tokens
+ */
+class ChangeTokenTest {
+    
+    @Test
+    void roundTripsToMicroseconds() {
+        ChangeToken row = new ChangeToken(LocalDateTime.of(2024, 3, 1, 8, 30, 15, 123_456_000), false, 42);
+        ChangeToken deletion = new ChangeToken(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000), true, 7);
+        
+        assertThat(ChangeToken.decode(row.encode())).isEqualTo(row);
+        assertThat(ChangeToken.decode(deletion.encode())).isEqualTo(deletion);
+        assertThat(ChangeToken.decode(ChangeToken.START.encode())).isEqualTo(ChangeToken.START);
+        assertThat(row.encode()).matches("[A-Za-z0-9_-]+");
+    }
+    
+    @Test
+    void rejectsMalformedTokens() {
+        for (String token : new String[] {"", "not a token", plain("1.u"), plain("1.x.2"), plain("soon.u.1"),
+                plain("1.d.one"), plain("1.u.2.3")}) {
+            assertThatThrownBy(() -> ChangeToken.decode(token))
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessage("Invalid change token: " + token);
+        }
+    }
+    
+    @Test
+    void ordersByTimeThenUpsertsBeforeDeletionsThenId() {
+        LocalDateTime time = LocalDateTime.of(2024, 3, 1, 8, 0);
+        ChangeToken upsert = new ChangeToken(time, false, 9);
+        ChangeToken deletion = new ChangeToken(time, true, 1);
+        ChangeToken laterDeletion = new ChangeToken(time, true, 2);
+        ChangeToken later = new ChangeToken(time.plusNanos(1_000), false, 1);
+        
+        assertThat(ChangeToken.ORDER.compare(upsert, deletion)).isNegative();
+        assertThat(ChangeToken.ORDER.compare(deletion, laterDeletion)).isNegative();
+        assertThat(ChangeToken.ORDER.compare(laterDeletion, later)).isNegative();
+        assertThat(upsert.rowAfterId()).isEqualTo(9);
+        assertThat(upsert.deletionAfterId()).isZero();
+        assertThat(deletion.rowAfterId()).isEqualTo(Long.MAX_VALUE);
+        assertThat(deletion.deletionAfterId()).isEqualTo(1);
+    }
+    
+    private static String plain(String token) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
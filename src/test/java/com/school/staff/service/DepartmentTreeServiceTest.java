@@ -0,0 +1,90 @@
+package com.school.staff.service;
+
+import com.school.staff.entity.Department;
+import com.school.staff.event.DepartmentChangedEvent;
+import com.school.staff.event.DepartmentSnapshot;
+import com.school.staff.repository.DepartmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reloads of the department tree: rate-limited on unknown ids, and not blocking readers
+ */
+class DepartmentTreeServiceTest {
+    
+    private final DepartmentRepository departmentRepository = mock(DepartmentRepository.class);
+    private final DepartmentTreeService treeService = new DepartmentTreeService(departmentRepository);
+    
+    @Test
+    void unknownIdsReloadAtMostOncePerInterval() {
+        ReflectionTestUtils.setField(treeService, "missReloadInterval", Duration.ofMinutes(1));
+        when(departmentRepository.findAll()).thenReturn(List.of(department(1L, null)));
+        
+        assertThat(treeService.getSubtreeIds(1L)).containsExactly(1L);
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> treeService.getSubtree(99L)).hasMessageContaining("Department not found");
+        }
+        
+        verify(departmentRepository, times(1)).findAll();
+    }
+    
+    @Test
+    void unknownIdReloadsOnceTheIntervalHasPassed() {
+        ReflectionTestUtils.setField(treeService, "missReloadInterval", Duration.ZERO);
+        when(departmentRepository.findAll())
+                .thenReturn(List.of(department(1L, null)))
+                .thenReturn(List.of(department(1L, null), department(2L, 1L)));
+        treeService.getTree();
+        
+        // Created on another node since the first load
+        assertThat(treeService.getSubtreeIds(2L)).containsExactly(2L);
+        assertThat(treeService.getSubtreeIds(1L)).containsExactly(1L, 2L);
+        verify(departmentRepository, times(2)).findAll();
+    }
+    
+    @Test
+    void readersAreNotBlockedByAReloadAndChangesDuringItAreKept() throws Exception {
+        when(departmentRepository.findAll()).thenReturn(List.of(department(1L, null)));
+        treeService.getTree();
+        
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(departmentRepository.findAll()).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(department(1L, null));
+        });
+        Thread reload = new Thread(treeService::reload);
+        reload.start();
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        assertThat(treeService.getSubtreeIds(1L)).containsExactly(1L);
+        // Committed while the reload reads; its result does not contain the new department
+        treeService.onDepartmentChanged(DepartmentChangedEvent.created(DepartmentSnapshot.of(department(3L, 1L))));
+        release.countDown();
+        reload.join(5000);
+        
+        assertThat(treeService.getSubtreeIds(1L)).containsExactly(1L, 3L);
+    }
+    
+    private static Department department(Long id, Long parentId) {
+        Department department = new Department();
+        department.setId(id);
+        department.setCode("D" + id);
+        department.setName("Department " + id);
+        department.setParentId(parentId);
+        return department;
+    }
+}
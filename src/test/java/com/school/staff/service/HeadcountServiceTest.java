@@ -0,0 +1,206 @@
+package com.school.staff.service;
+
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import com.school.staff.entity.StaffHeadcount;
+import com.school.staff.event.StaffChangedEvent;
+import com.school.staff.event.StaffSnapshot;
+import com.school.staff.repository.DepartmentRepository;
+import com.school.staff.repository.StaffHeadcountRepository;
+import com.school.staff.repository.StaffRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Headcount counters: deltas of a transaction are summed and written before commit in key order,
+ * and reconciliation repairs counters that drifted from the staff table
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({HeadcountService.class, DepartmentTreeService.class, HeadcountServiceTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:headcount;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class HeadcountServiceTest {
+    
+    @Autowired
+    private HeadcountService headcountService;
+    
+    @Autowired
+    private StaffHeadcountRepository staffHeadcountRepository;
+    
+    @Autowired
+    private StaffRepository staffRepository;
+    
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        staffHeadcountRepository.deleteAllInBatch();
+        staffRepository.deleteAllInBatch();
+        departmentRepository.deleteAllInBatch();
+    }
+    
+    @Test
+    void createMoveAndDeleteMoveTheCounters() {
+        StaffSnapshot teacher = snapshot(1L, 10L, "ACTIVE", "Teacher");
+        publish(StaffChangedEvent.created(teacher));
+        publish(StaffChangedEvent.created(snapshot(2L, 10L, "ACTIVE", "Teacher")));
+        assertThat(counts()).containsExactly(Map.entry("10/ACTIVE/Teacher/F", 2L));
+        
+        StaffSnapshot moved = snapshot(1L, 20L, "ACTIVE", "Teacher");
+        publish(StaffChangedEvent.updated(teacher, moved));
+        assertThat(counts()).containsExactly(
+                Map.entry("10/ACTIVE/Teacher/F", 1L),
+                Map.entry("20/ACTIVE/Teacher/F", 1L));
+        
+        publish(StaffChangedEvent.deleted(moved));
+        assertThat(counts()).containsExactly(Map.entry("10/ACTIVE/Teacher/F", 1L));
+    }
+    
+    @Test
+    void batchImportIsWrittenOnceBeforeCommitInKeyOrder() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(StaffChangedEvent.created(snapshot(1L, 30L, "ACTIVE", "Teacher")));
+            eventPublisher.publishEvent(StaffChangedEvent.created(snapshot(2L, 10L, "ACTIVE", "Teacher")));
+            eventPublisher.publishEvent(StaffChangedEvent.created(snapshot(3L, 20L, "ACTIVE", "Teacher")));
+            eventPublisher.publishEvent(StaffChangedEvent.created(snapshot(4L, 10L, "ACTIVE", "Teacher")));
+            eventPublisher.publishEvent(StaffChangedEvent.created(snapshot(5L, null, null, null)));
+            // Created and deleted in the same import: no counter row at all
+            StaffSnapshot temporary = snapshot(6L, 40L, "ACTIVE", "Teacher");
+            eventPublisher.publishEvent(StaffChangedEvent.created(temporary));
+            eventPublisher.publishEvent(StaffChangedEvent.deleted(temporary));
+            
+            assertThat(counterCount()).isZero();
+        });
+        
+        assertThat(counts()).containsExactly(
+                Map.entry("0///F", 1L),
+                Map.entry("10/ACTIVE/Teacher/F", 2L),
+                Map.entry("20/ACTIVE/Teacher/F", 1L),
+                Map.entry("30/ACTIVE/Teacher/F", 1L));
+        // Inserted in one sorted batch, so the row ids follow the key order
+        assertThat(staffHeadcountRepository.findAll().stream()
+                .sorted(Comparator.comparing(StaffHeadcount::getId))
+                .map(StaffHeadcount::getDepartmentId)
+                .toList()).containsExactly(0L, 10L, 20L, 30L);
+    }
+    
+    @Test
+    void rolledBackWritesLeaveTheCountersAlone() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(StaffChangedEvent.created(snapshot(1L, 10L, "ACTIVE", "Teacher")));
+            status.setRollbackOnly();
+        });
+        
+        assertThat(counterCount()).isZero();
+    }
+    
+    @Test
+    void reconcileRepairsDriftedCounters() {
+        Department department = new Department();
+        department.setCode("D1");
+        department.setName("Department 1");
+        departmentRepository.save(department);
+        staffRepository.saveAll(List.of(
+                staff("S1", department, "Teacher"),
+                staff("S2", department, "Teacher"),
+                staff("S3", null, "Clerk")));
+        
+        assertThat(headcountService.reconcile()).isEqualTo(2);
+        String teachers = department.getId() + "/ACTIVE/Teacher/F";
+        assertThat(counts()).containsExactly(Map.entry("0/ACTIVE/Clerk/F", 1L), Map.entry(teachers, 2L));
+        assertThat(headcountService.reconcile()).isZero();
+        
+        jdbcTemplate.update("UPDATE staff_headcounts SET head_count = 7 WHERE department_id = ?", department.getId());
+        jdbcTemplate.update("INSERT INTO staff_headcounts (department_id, status, position, gender, head_count) "
+                + "VALUES (99, 'ACTIVE', 'Teacher', 'F', 3)");
+        
+        assertThat(headcountService.reconcile()).isEqualTo(2);
+        assertThat(counts()).containsExactly(Map.entry("0/ACTIVE/Clerk/F", 1L), Map.entry(teachers, 2L));
+        assertThat(counterCount()).isEqualTo(2);
+    }
+    
+    private void publish(StaffChangedEvent event) {
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(event));
+    }
+    
+    /**
+     * Non-zero counters as "department/status/position/gender" -> count
+     */
+    private Map<String, Long> counts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (StaffHeadcount headcount : staffHeadcountRepository.findAll()) {
+            if (headcount.getHeadCount() != 0) {
+                counts.put(headcount.getDepartmentId() + "/" + headcount.getStatus() + "/"
+                        + headcount.getPosition() + "/" + headcount.getGender(), headcount.getHeadCount());
+            }
+        }
+        return counts;
+    }
+    
+    private long counterCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM staff_headcounts", Long.class);
+    }
+    
+    private static StaffSnapshot snapshot(Long id, Long departmentId, String status, String position) {
+        return new StaffSnapshot(id, "S" + id, "Staff " + id, "F", departmentId, position, status, true);
+    }
+    
+    private static Staff staff(String staffNo, Department department, String position) {
+        Staff staff = new Staff();
+        staff.setStaffNo(staffNo);
+        staff.setName("Staff " + staffNo);
+        staff.setGender("F");
+        staff.setStatus("ACTIVE");
+        staff.setPosition(position);
+        staff.setDepartment(department);
+        return staff;
+    }
+    
+    @TestConfiguration
+    static class Config {
+        
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.school.staff.service;
+
+import com.school.staff.config.CacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reads counted in memory are merged into the shared sorted set, which is trimmed to the tracked size
+ */
+class StaffAccessTrackerTest {
+    
+    private static final String KEY = "staff:access-counts";
+    
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final RedisOperations<String, String> operations = mock(RedisOperations.class);
+    @SuppressWarnings("unchecked")
+    private final ZSetOperations<String, String> zSetOperations = mock(ZSetOperations.class);
+    private StaffAccessTracker tracker;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(operations.opsForZSet()).thenReturn(zSetOperations);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        // Run the pipelined callback directly against the mocked operations
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<SessionCallback<Object>>getArgument(0).execute(operations);
+                    return List.of();
+                });
+        CacheProperties properties = new CacheProperties();
+        properties.getWarmUp().setTrackedSize(3);
+        tracker = new StaffAccessTracker(redisTemplate, properties);
+    }
+    
+    @Test
+    void flushMergesCountsAndTrimsToTheTrackedSize() {
+        tracker.record(1L);
+        tracker.record(1L);
+        tracker.record(2L);
+        
+        tracker.flush();
+        
+        verify(zSetOperations).incrementScore(KEY, "1", 2);
+        verify(zSetOperations).incrementScore(KEY, "2", 1);
+        verify(zSetOperations).removeRange(KEY, 0, -4);
+        verifyNoMoreInteractions(zSetOperations);
+    }
+    
+    @Test
+    void flushSendsOnlyTheReadsSinceTheLastFlush() {
+        tracker.record(1L);
+        tracker.flush();
+        tracker.record(1L);
+        tracker.record(1L);
+        tracker.record(1L);
+        
+        tracker.flush();
+        
+        verify(zSetOperations).incrementScore(KEY, "1", 1);
+        verify(zSetOperations).incrementScore(KEY, "1", 3);
+    }
+    
+    @Test
+    void flushWithoutReadsDoesNotTouchRedis() {
+        tracker.flush();
+        
+        verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+        verify(zSetOperations, never()).incrementScore(anyString(), anyString(), anyDouble());
+    }
+    
+    @Test
+    void unreachableRedisIsNotFatal() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+        when(zSetOperations.reverseRange(KEY, 0, 9))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+        tracker.record(1L);
+        
+        assertThatCode(tracker::flush).doesNotThrowAnyException();
+        assertThat(tracker.getMostAccessed(10)).isEmpty();
+    }
+    
+    @Test
+    void mostAccessedIdsAreReadHighestScoreFirst() {
+        when(zSetOperations.reverseRange(KEY, 0, 1)).thenReturn(new LinkedHashSet<>(List.of("7", "3")));
+        
+        assertThat(tracker.getMostAccessed(2)).containsExactly(7L, 3L);
+    }
+}
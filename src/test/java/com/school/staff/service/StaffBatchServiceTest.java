@@ -0,0 +1,202 @@
+package com.school.staff.service;
+
+import com.school.staff.cache.EntryVersions;
+import com.school.staff.cache.VersionedCache;
+import com.school.staff.dto.BatchItemResult;
+import com.school.staff.dto.StaffRequest;
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import com.school.staff.event.ChangeType;
+import com.school.staff.event.StaffChangedEvent;
+import com.school.staff.repository.DepartmentRepository;
+import com.school.staff.repository.StaffRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batch upsert by staff number: per-item results in request order, JDBC inserts and updates,
+ * one transaction per chunk, and cache eviction with a version floor after commit
+ */
+@DataJpaTest
+@Import({StaffBatchService.class, StaffBatchServiceTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "app.staff.batch.chunk-size=2"
+})
+class StaffBatchServiceTest {
+    
+    private static final Cache staffCache = versionedCache("staff");
+    private static final List<StaffChangedEvent> events = new CopyOnWriteArrayList<>();
+    
+    @Autowired
+    private StaffBatchService staffBatchService;
+    
+    @Autowired
+    private StaffRepository staffRepository;
+    
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private Department department;
+    private Staff existing;
+    
+    @BeforeEach
+    void setUp() {
+        staffRepository.deleteAllInBatch();
+        departmentRepository.deleteAllInBatch();
+        department = new Department();
+        department.setCode("D1");
+        department.setName("Department 1");
+        departmentRepository.save(department);
+        existing = new Staff();
+        existing.setStaffNo("S1");
+        existing.setName("Old Name");
+        existing.setDepartment(department);
+        staffRepository.save(existing);
+        events.clear();
+        clearInvocations(staffCache);
+    }
+    
+    @Test
+    void writesAMixedChunkAndReportsEveryItemAtItsIndex() {
+        List<BatchItemResult> results = transactionTemplate.execute(status -> staffBatchService.writeChunk(List.of(
+                request("S2", "New", department.getId()),
+                request("S1", "Renamed", null),
+                request("S3", " ", null),
+                request("S2", "Again", null),
+                request("S4", "Lost", 999L)), 100));
+        
+        assertThat(results).extracting(BatchItemResult::getIndex).containsExactly(100, 101, 102, 103, 104);
+        assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(BatchItemResult.Status.CREATED,
+                BatchItemResult.Status.UPDATED, BatchItemResult.Status.FAILED, BatchItemResult.Status.FAILED,
+                BatchItemResult.Status.FAILED);
+        assertThat(results.get(2).getMessage()).isEqualTo("Validation failed: name Name is required");
+        assertThat(results.get(3).getMessage()).isEqualTo("Duplicate staff number in batch: S2");
+        assertThat(results.get(4).getMessage()).isEqualTo("Department not found with id: 999");
+        
+        Staff created = staffRepository.findByStaffNo("S2").orElseThrow();
+        assertThat(results.get(0).getId()).isEqualTo(created.getId());
+        assertThat(created.getName()).isEqualTo("New");
+        assertThat(created.getIsActive()).isTrue();
+        Staff updated = staffRepository.findByStaffNo("S1").orElseThrow();
+        assertThat(results.get(1).getId()).isEqualTo(existing.getId());
+        assertThat(updated.getName()).isEqualTo("Renamed");
+        // A missing department id keeps the current department
+        assertThat(updated.getDepartment().getId()).isEqualTo(department.getId());
+        assertThat(staffRepository.count()).isEqualTo(2);
+        
+        assertThat(events).extracting(StaffChangedEvent::type).containsExactly(ChangeType.UPDATED, ChangeType.CREATED);
+        assertThat(events.get(0).before().name()).isEqualTo("Old Name");
+        verify((VersionedCache) staffCache).evictBelow(existing.getId(), EntryVersions.of(updated.getUpdatedAt()));
+    }
+    
+    @Test
+    void failingChunkRollsBackOnlyItself() {
+        List<StaffRequest> requests = new ArrayList<>(Arrays.asList(
+                request("S2", "Two", null),
+                request("S1", "Renamed", null),
+                request("S3", "x".repeat(60), null),
+                request("S4", "Four", null)));
+        requests.add(request("S5", "Five", null));
+        
+        assertThatThrownBy(() -> staffBatchService.upsertStaff(requests)).isInstanceOf(RuntimeException.class);
+        
+        assertThat(staffRepository.findByStaffNo("S2")).isPresent();
+        assertThat(staffRepository.findByStaffNo("S1").orElseThrow().getName()).isEqualTo("Renamed");
+        assertThat(staffRepository.findByStaffNo("S3")).isEmpty();
+        assertThat(staffRepository.findByStaffNo("S4")).isEmpty();
+        assertThat(staffRepository.findByStaffNo("S5")).isEmpty();
+        verify((VersionedCache) staffCache).evictBelow(eq(existing.getId()), anyLong());
+    }
+    
+    @Test
+    void rolledBackUpdatesAreNotEvicted() {
+        transactionTemplate.executeWithoutResult(status -> {
+            staffBatchService.writeChunk(List.of(request("S1", "Renamed", null)), 0);
+            status.setRollbackOnly();
+        });
+        
+        assertThat(staffRepository.findByStaffNo("S1").orElseThrow().getName()).isEqualTo("Old Name");
+        verify((VersionedCache) staffCache, never()).evictBelow(eq(existing.getId()), anyLong());
+    }
+    
+    @Test
+    void rejectsBatchesOverTheMaximum() {
+        List<StaffRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 10_001; i++) {
+            requests.add(request("S" + i, "Name", null));
+        }
+        
+        assertThatThrownBy(() -> staffBatchService.upsertStaff(requests))
+                .hasMessage("Batch size 10001 exceeds the maximum of 10000");
+    }
+    
+    private static StaffRequest request(String staffNo, String name, Long departmentId) {
+        StaffRequest request = new StaffRequest();
+        request.setStaffNo(staffNo);
+        request.setName(name);
+        request.setDepartmentId(departmentId);
+        return request;
+    }
+    
+    private static Cache versionedCache(String name) {
+        Cache cache = mock(Cache.class, Mockito.withSettings().extraInterfaces(VersionedCache.class));
+        when(cache.getName()).thenReturn(name);
+        return cache;
+    }
+    
+    @TestConfiguration
+    static class Config {
+        
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+        
+        @Bean
+        CacheManager cacheManager() {
+            SimpleCacheManager cacheManager = new SimpleCacheManager();
+            cacheManager.setCaches(List.of(staffCache));
+            return cacheManager;
+        }
+        
+        @EventListener
+        void onStaffChanged(StaffChangedEvent event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.school.staff.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.staff.entity.Department;
+import com.school.staff.entity.Staff;
+import com.school.staff.repository.StaffRepository;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * CSV and NDJSON export of staff, streamed from the repository's filtered cursor
+ */
+@DataJpaTest
+@Import({StaffExportService.class, StaffExportServiceTest.Config.class})
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "app.staff.export.flush-rows=2"
+})
+class StaffExportServiceTest {
+    
+    @Autowired
+    private StaffExportService exportService;
+    
+    @Autowired
+    private StaffService staffService;
+    
+    @Autowired
+    private StaffRepository staffRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private Department science;
+    private Department arts;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // The real streamStaff, without the rest of StaffService's collaborators
+        doAnswer(invocation -> {
+            try (Stream<Staff> stream = staffRepository.streamByFilter(
+                    invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2))) {
+                stream.forEach(invocation.<Consumer<Staff>>getArgument(3));
+            }
+            return null;
+        }).when(staffService).streamStaff(any(), any(), any(), any(Consumer.class));
+        
+        science = department("SCI", "Science");
+        arts = department("ART", "Arts, Music \"and\" Drama");
+        staff("S1", "Alice", science, "ACTIVE", "Teacher");
+        staff("S2", "Smith, \"JJ\"", science, "ACTIVE", "Head");
+        staff("S3", "Carol", arts, "ACTIVE", "Teacher");
+        staff("S4", "Dave", science, "RETIRED", "Teacher");
+        staff("S5", "Eve", null, "ACTIVE", "Teacher");
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    void csvStartsWithBomAndHeader() throws Exception {
+        String csv = exportCsv(null, null, null);
+        
+        assertThat(csv).startsWith("\uFEFFid,staffNo,name,gender,birthDate,phone,email,idCard,"
+                + "departmentId,departmentCode,departmentName,position,hireDate,status,address,isActive,"
+                + "createdAt,updatedAt\r\n");
+        assertThat(records(csv)).extracting(r -> r.get("staffNo")).containsExactly("S1", "S2", "S3", "S4", "S5");
+    }
+    
+    @Test
+    void csvEscapesCommasAndQuotes() throws Exception {
+        String csv = exportCsv(null, null, null);
+        
+        assertThat(csv).contains(",\"Smith, \"\"JJ\"\"\",");
+        assertThat(csv).contains(",\"Arts, Music \"\"and\"\" Drama\",");
+        List<CSVRecord> records = records(csv);
+        assertThat(records.get(1).get("name")).isEqualTo("Smith, \"JJ\"");
+        assertThat(records.get(2).get("departmentName")).isEqualTo("Arts, Music \"and\" Drama");
+        // No department: empty cells rather than a failure
+        assertThat(records.get(4).get("departmentCode")).isEmpty();
+    }
+    
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        long rows = exportService.export(StaffExportService.Format.NDJSON, null, null, null, out);
+        
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(rows).isEqualTo(5);
+        // Every line is terminated, so the last split element is empty
+        assertThat(lines).hasSize(6);
+        assertThat(lines[5]).isEmpty();
+        for (int i = 0; i < 5; i++) {
+            JsonNode node = objectMapper.readTree(lines[i]);
+            assertThat(node.isObject()).isTrue();
+            assertThat(node.get("staffNo").asText()).isEqualTo("S" + (i + 1));
+        }
+        assertThat(objectMapper.readTree(lines[1]).get("department").get("code").asText()).isEqualTo("SCI");
+    }
+    
+    @Test
+    void filtersAreApplied() throws Exception {
+        assertThat(records(exportCsv(science.getId(), null, null)))
+                .extracting(r -> r.get("staffNo")).containsExactly("S1", "S2", "S4");
+        assertThat(records(exportCsv(science.getId(), "ACTIVE", null)))
+                .extracting(r -> r.get("staffNo")).containsExactly("S1", "S2");
+        assertThat(records(exportCsv(null, "ACTIVE", "Teacher")))
+                .extracting(r -> r.get("staffNo")).containsExactly("S1", "S3", "S5");
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(StaffExportService.Format.NDJSON, arts.getId(), null, null, out);
+        assertThat(rows).isEqualTo(1);
+        assertThat(objectMapper.readTree(out.toString(StandardCharsets.UTF_8)).get("staffNo").asText()).isEqualTo("S3");
+    }
+    
+    private String exportCsv(Long departmentId, String status, String position) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(StaffExportService.Format.CSV, departmentId, status, position, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+    
+    private static List<CSVRecord> records(String csv) throws Exception {
+        return CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build()
+                .parse(new StringReader(csv.substring(1)))
+                .getRecords();
+    }
+    
+    private Department department(String code, String name) {
+        Department department = new Department();
+        department.setCode(code);
+        department.setName(name);
+        return entityManager.persist(department);
+    }
+    
+    private void staff(String staffNo, String name, Department department, String status, String position) {
+        Staff staff = new Staff();
+        staff.setStaffNo(staffNo);
+        staff.setName(name);
+        staff.setDepartment(department);
+        staff.setStatus(status);
+        staff.setPosition(position);
+        entityManager.persist(staff);
+    }
+    
+    @TestConfiguration
+    static class Config {
+        
+        @Bean
+        StaffService staffService() {
+            return mock(StaffService.class);
+        }
+        
+        @Bean
+        ObjectMapper objectMapper() {
+            return Jackson2ObjectMapperBuilder.json().build();
+        }
+    }
+}
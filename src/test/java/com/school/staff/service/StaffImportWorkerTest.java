@@ -0,0 +1,137 @@
+package com.school.staff.service;
+
+import com.school.staff.dto.BatchItemResult;
+import com.school.staff.dto.StaffRequest;
+import com.school.staff.entity.ImportJob;
+import com.school.staff.entity.ImportJobError;
+import com.school.staff.repository.DepartmentRepository;
+import com.school.staff.repository.ImportJobErrorRepository;
+import com.school.staff.repository.ImportJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Import jobs: chunked progress, resuming after the last committed chunk, and stored row errors
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class StaffImportWorkerTest {
+    
+    @TempDir
+    private Path directory;
+    
+    @Autowired
+    private ImportJobRepository importJobRepository;
+    
+    @Autowired
+    private ImportJobErrorRepository importJobErrorRepository;
+    
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private final StaffBatchService staffBatchService = mock(StaffBatchService.class);
+    private final List<String> written = new ArrayList<>();
+    private final AtomicInteger chunksBeforeFailure = new AtomicInteger(Integer.MAX_VALUE);
+    private StaffImportWorker worker;
+    
+    @BeforeEach
+    void setUp() {
+        importJobErrorRepository.deleteAllInBatch();
+        importJobRepository.deleteAllInBatch();
+        when(staffBatchService.writeChunk(anyList(), anyInt())).thenAnswer(invocation -> {
+            if (chunksBeforeFailure.getAndDecrement() <= 0) {
+                throw new RuntimeException("Connection lost");
+            }
+            List<StaffRequest> chunk = invocation.getArgument(0);
+            List<BatchItemResult> results = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                written.add(chunk.get(i).getStaffNo());
+                results.add(new BatchItemResult(i, chunk.get(i).getStaffNo(), BatchItemResult.Status.CREATED, (long) i, null));
+            }
+            return results;
+        });
+        worker = new StaffImportWorker(importJobRepository, importJobErrorRepository, departmentRepository,
+                staffBatchService, transactionTemplate);
+        ReflectionTestUtils.setField(worker, "chunkSize", 2);
+        ReflectionTestUtils.setField(worker, "maxStoredErrors", 1000L);
+    }
+    
+    @Test
+    void resumeSkipsExactlyTheCommittedRows() throws IOException {
+        ImportJob job = job("staffNo,name\nS1,A\nS2,B\nS3,C\nS4,D\nS5,E\n");
+        chunksBeforeFailure.set(1);
+        
+        worker.run(job.getId());
+        
+        ImportJob interrupted = importJobRepository.findById(job.getId()).orElseThrow();
+        assertThat(interrupted.getStatus()).isEqualTo(ImportJob.Status.FAILED);
+        assertThat(interrupted.getErrorMessage()).isEqualTo("Connection lost");
+        assertThat(interrupted.getCommittedRows()).isEqualTo(2);
+        assertThat(written).containsExactly("S1", "S2");
+        
+        chunksBeforeFailure.set(Integer.MAX_VALUE);
+        worker.run(job.getId());
+        
+        ImportJob resumed = importJobRepository.findById(job.getId()).orElseThrow();
+        assertThat(resumed.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(resumed.getCommittedRows()).isEqualTo(5);
+        assertThat(resumed.getCreatedCount()).isEqualTo(5);
+        assertThat(resumed.getErrorMessage()).isNull();
+        assertThat(written).containsExactly("S1", "S2", "S3", "S4", "S5");
+    }
+    
+    @Test
+    void storesRowErrorsUpToTheLimit() throws IOException {
+        ReflectionTestUtils.setField(worker, "maxStoredErrors", 2L);
+        ImportJob job = job("staffNo,name,hireDate\nS1,A,someday\nS2,B,2020-01-01\nS3,C,never\nS4,D,later\n");
+        
+        worker.run(job.getId());
+        
+        ImportJob done = importJobRepository.findById(job.getId()).orElseThrow();
+        assertThat(done.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(done.getCommittedRows()).isEqualTo(4);
+        assertThat(done.getCreatedCount()).isEqualTo(1);
+        assertThat(done.getFailedCount()).isEqualTo(3);
+        assertThat(written).containsExactly("S2");
+        List<ImportJobError> errors = importJobErrorRepository.findByJobIdOrderByLineNumber(job.getId(), PageRequest.of(0, 10));
+        assertThat(errors).extracting(ImportJobError::getLineNumber).containsExactly(2L, 4L);
+        assertThat(errors).extracting(ImportJobError::getStaffNo).containsExactly("S1", "S3");
+        assertThat(errors.get(0).getMessage()).isEqualTo("Invalid hireDate: someday");
+    }
+    
+    private ImportJob job(String csv) throws IOException {
+        Path file = directory.resolve("staff.csv");
+        Files.writeString(file, csv);
+        ImportJob job = new ImportJob();
+        job.setFileName("staff.csv");
+        job.setFilePath(file.toString());
+        job.setFormat("csv");
+        return importJobRepository.save(job);
+    }
+}